@@ -12,6 +12,7 @@
  */
 package ai.djl;
 
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.nn.Block;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -31,6 +32,7 @@ public abstract class BaseModel implements Model {
     protected String modelName;
     protected Map<String, Object> artifacts = new ConcurrentHashMap<>();
     protected Map<String, String> properties = new ConcurrentHashMap<>();
+    protected ExecutionProfile executionProfile;
 
     /** {@inheritDoc} */
     @Override
@@ -107,6 +109,18 @@ public abstract class BaseModel implements Model {
         return properties.get(key);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutionProfile(ExecutionProfile profile) {
+        this.executionProfile = profile;
+    }
+
     protected void setModelDir(Path modelDir) {
         this.modelDir = modelDir;
     }
@@ -13,6 +13,7 @@
 package ai.djl;
 
 import ai.djl.engine.Engine;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.inference.Predictor;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
@@ -165,6 +166,22 @@ public interface Model extends AutoCloseable {
      */
     void setProperty(String key, String value);
 
+    /**
+     * Returns the {@link ExecutionProfile} the engine uses to run the model.
+     *
+     * @return the {@link ExecutionProfile}, or {@code null} if the engine defaults are used
+     */
+    ExecutionProfile getExecutionProfile();
+
+    /**
+     * Sets the {@link ExecutionProfile} the engine uses to run the model.
+     *
+     * <p>The profile applies to the predictors created after this call.
+     *
+     * @param profile the {@link ExecutionProfile}, or {@code null} to use the engine defaults
+     */
+    void setExecutionProfile(ExecutionProfile profile);
+
     /**
      * Gets the {@link NDManager} from the model.
      *
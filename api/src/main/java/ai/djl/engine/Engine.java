@@ -156,6 +156,18 @@ public abstract class Engine {
      */
     public abstract void setRandomSeed(int seed);
 
+    /**
+     * Creates a new {@link Profiler}.
+     *
+     * <p>Engines that have a native profiler return a {@code Profiler} that also records the
+     * native operators, otherwise only the Java side events are recorded.
+     *
+     * @return a new {@link Profiler}
+     */
+    public Profiler newProfiler() {
+        return new Profiler();
+    }
+
     /** Logs debug information about the environment for use when debugging environment issues. */
     public void debugEnvironment() {
         logger.info("Engine name: {}", getEngineName());
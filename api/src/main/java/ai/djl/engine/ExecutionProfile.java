@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.engine;
+
+import java.util.Arrays;
+
+/**
+ * {@code ExecutionProfile} describes how an engine should use the CPU when it runs a model.
+ *
+ * <p>When several models share a JVM, each of them would otherwise use every core for its own
+ * operators and the models end up fighting over the cores. An {@code ExecutionProfile} set with
+ * {@link ai.djl.Model#setExecutionProfile(ExecutionProfile)} lets each model run with its own share
+ * of the machine:
+ *
+ * <ul>
+ *   <li>intra-op threads - the number of threads a single operator may use
+ *   <li>inter-op workers - the number of forward passes of the model that may run at the same time
+ *   <li>bulk size - the number of operators the engine may group into a single execution unit
+ *   <li>CPU affinity - the cores the model's threads should run on
+ * </ul>
+ *
+ * <p>All settings are hints: an engine applies what it supports and ignores the rest. A setting
+ * that is not set keeps the engine default.
+ */
+public final class ExecutionProfile {
+
+    private int intraOpThreads;
+    private int interOpWorkers;
+    private int bulkSize;
+    private int[] cpuAffinity;
+
+    ExecutionProfile(Builder builder) {
+        intraOpThreads = builder.intraOpThreads;
+        interOpWorkers = builder.interOpWorkers;
+        bulkSize = builder.bulkSize;
+        cpuAffinity = builder.cpuAffinity;
+    }
+
+    /**
+     * Returns the number of threads a single operator may use.
+     *
+     * <p>If not set explicitly, this is the number of cores in the CPU affinity hint, or 0 if
+     * there is none.
+     *
+     * @return the number of threads a single operator may use, or 0 for the engine default
+     */
+    public int getIntraOpThreads() {
+        if (intraOpThreads == 0) {
+            return cpuAffinity.length;
+        }
+        return intraOpThreads;
+    }
+
+    /**
+     * Returns the number of forward passes of a model that may run at the same time.
+     *
+     * @return the number of concurrent forward passes, or 0 for no limit
+     */
+    public int getInterOpWorkers() {
+        return interOpWorkers;
+    }
+
+    /**
+     * Returns the number of operators the engine may group into a single execution unit.
+     *
+     * @return the bulk size, or -1 for the engine default
+     */
+    public int getBulkSize() {
+        return bulkSize;
+    }
+
+    /**
+     * Returns the cores the model's threads should run on.
+     *
+     * @return the cores the model's threads should run on, empty if there is no preference
+     */
+    public int[] getCpuAffinity() {
+        return cpuAffinity.clone();
+    }
+
+    /**
+     * Creates a builder to build an {@code ExecutionProfile}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ExecutionProfile(intraOpThreads: ");
+        sb.append(getIntraOpThreads())
+                .append(", interOpWorkers: ")
+                .append(interOpWorkers)
+                .append(", bulkSize: ")
+                .append(bulkSize);
+        if (cpuAffinity.length > 0) {
+            sb.append(", cpuAffinity: ").append(Arrays.toString(cpuAffinity));
+        }
+        return sb.append(')').toString();
+    }
+
+    /** The Builder to construct an {@link ExecutionProfile}. */
+    public static final class Builder {
+
+        int intraOpThreads;
+        int interOpWorkers;
+        int bulkSize = -1;
+        int[] cpuAffinity = new int[0];
+
+        Builder() {}
+
+        /**
+         * Sets the number of threads a single operator may use.
+         *
+         * @param intraOpThreads the number of threads, or 0 for the engine default
+         * @return this {@code Builder}
+         */
+        public Builder optIntraOpThreads(int intraOpThreads) {
+            if (intraOpThreads < 0) {
+                throw new IllegalArgumentException("intraOpThreads must not be negative");
+            }
+            this.intraOpThreads = intraOpThreads;
+            return this;
+        }
+
+        /**
+         * Sets the number of forward passes of a model that may run at the same time.
+         *
+         * @param interOpWorkers the number of concurrent forward passes, or 0 for no limit
+         * @return this {@code Builder}
+         */
+        public Builder optInterOpWorkers(int interOpWorkers) {
+            if (interOpWorkers < 0) {
+                throw new IllegalArgumentException("interOpWorkers must not be negative");
+            }
+            this.interOpWorkers = interOpWorkers;
+            return this;
+        }
+
+        /**
+         * Sets the number of operators the engine may group into a single execution unit.
+         *
+         * @param bulkSize the bulk size, 0 to disable bulk execution, or -1 for the engine default
+         * @return this {@code Builder}
+         */
+        public Builder optBulkSize(int bulkSize) {
+            if (bulkSize < -1) {
+                throw new IllegalArgumentException("bulkSize must be -1 or greater");
+            }
+            this.bulkSize = bulkSize;
+            return this;
+        }
+
+        /**
+         * Sets the cores the model's threads should run on.
+         *
+         * @param cores the ids of the cores
+         * @return this {@code Builder}
+         */
+        public Builder optCpuAffinity(int... cores) {
+            for (int core : cores) {
+                if (core < 0) {
+                    throw new IllegalArgumentException("Invalid core id: " + core);
+                }
+            }
+            this.cpuAffinity = cores.clone();
+            return this;
+        }
+
+        /**
+         * Builds the {@link ExecutionProfile}.
+         *
+         * @return the {@link ExecutionProfile}
+         */
+        public ExecutionProfile build() {
+            return new ExecutionProfile(this);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@code Profiler} records where the time of a workload goes and writes it as a Chrome trace file.
+ *
+ * <p>While a profiler is running, DJL records the Java side stages into it: the {@code
+ * Preprocess}, {@code Inference}, and {@code Postprocess} stages of predictors, the {@code
+ * forward}, {@code backward}, and {@code step} stages of trainers, and engine specific events such
+ * as the time spent calling into the native library. Engines that have a native profiler turn it
+ * on at the same time, and {@link #dump(Path)} merges the native events into the same file. The
+ * file can be opened with {@code chrome://tracing} or <a
+ * href="https://ui.perfetto.dev">Perfetto</a>.
+ *
+ * <pre>
+ * Profiler profiler = Engine.getInstance().newProfiler();
+ * profiler.start();
+ * predictor.predict(img);
+ * profiler.dump(Paths.get("profile.json"));
+ * </pre>
+ *
+ * <p>Only one profiler can run at a time.
+ *
+ * @see Engine#newProfiler()
+ */
+public class Profiler implements AutoCloseable {
+
+    /** The process id of the Java events in the trace, chosen not to clash with engine ids. */
+    static final int JAVA_PID = 1 << 20;
+
+    private static final AtomicReference<Profiler> ACTIVE = new AtomicReference<>();
+
+    private long baseNanos;
+    private long baseMicros;
+    private Queue<Event> events;
+    private Map<Long, String> threads;
+
+    /** Constructs a {@code Profiler} that only records the Java side events. */
+    public Profiler() {
+        events = new ConcurrentLinkedQueue<>();
+        threads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns whether a profiler is running.
+     *
+     * @return {@code true} if a profiler is running
+     */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Records an event on the current thread into the running profiler, if any.
+     *
+     * @param category the category of the event, such as {@code predictor}
+     * @param name the name of the event
+     * @param begin the {@link System#nanoTime()} at the beginning of the event
+     * @param end the {@link System#nanoTime()} at the end of the event
+     */
+    public static void record(String category, String name, long begin, long end) {
+        Profiler profiler = ACTIVE.get();
+        if (profiler != null) {
+            Thread thread = Thread.currentThread();
+            profiler.threads.putIfAbsent(thread.getId(), thread.getName());
+            profiler.events.add(new Event(category, name, thread.getId(), begin, end));
+        }
+    }
+
+    /**
+     * Starts recording.
+     *
+     * @throws IllegalStateException if another profiler is running
+     */
+    public final void start() {
+        if (!ACTIVE.compareAndSet(null, this)) {
+            throw new IllegalStateException("Another profiler is already running.");
+        }
+        baseMicros = System.currentTimeMillis() * 1000;
+        baseNanos = System.nanoTime();
+        startNative();
+    }
+
+    /** Stops recording, the events recorded so far are kept. */
+    public final void stop() {
+        if (ACTIVE.get() == this) {
+            stopNative();
+            ACTIVE.set(null);
+        }
+    }
+
+    /**
+     * Stops recording and writes the recorded events as a Chrome trace file.
+     *
+     * @param file the path of the file to write
+     * @throws IOException if the file cannot be written or the native events cannot be read
+     */
+    public void dump(Path file) throws IOException {
+        stop();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"traceEvents\": [\n");
+            writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":");
+            writer.write(JAVA_PID + ",\"args\":{\"name\":\"DJL (Java)\"}}");
+            for (Map.Entry<Long, String> entry : threads.entrySet()) {
+                writer.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":");
+                writer.write(JAVA_PID + ",\"tid\":" + entry.getKey() + ",\"args\":{\"name\":\"");
+                writer.write(escape(entry.getValue()) + "\"}}");
+            }
+            for (Event event : events) {
+                writer.write(",\n");
+                writer.write(toJson(event));
+            }
+            String nativeEvents = dumpNative();
+            if (nativeEvents != null && !nativeEvents.trim().isEmpty()) {
+                writer.write(",\n");
+                writer.write(nativeEvents.trim());
+            }
+            writer.write("\n],\n\"displayTimeUnit\": \"ms\"\n}\n");
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /** Turns on the native profiler of the engine, called when recording starts. */
+    protected void startNative() {}
+
+    /** Turns off the native profiler of the engine, called when recording stops. */
+    protected void stopNative() {}
+
+    /**
+     * Returns the events recorded by the native profiler of the engine.
+     *
+     * <p>The events must be Chrome trace events with timestamps in microseconds since the epoch,
+     * separated by commas, as they appear in the {@code traceEvents} array of a trace file.
+     *
+     * @return the events recorded by the native profiler, or an empty string if there are none
+     * @throws IOException if the native events cannot be read
+     */
+    protected String dumpNative() throws IOException {
+        return "";
+    }
+
+    private String toJson(Event event) {
+        long ts = baseMicros + (event.begin - baseNanos) / 1000;
+        double dur = (event.end - event.begin) / 1000d;
+        return "{\"name\":\""
+                + escape(event.name)
+                + "\",\"cat\":\""
+                + escape(event.category)
+                + "\",\"ph\":\"X\",\"ts\":"
+                + ts
+                + ",\"dur\":"
+                + dur
+                + ",\"pid\":"
+                + JAVA_PID
+                + ",\"tid\":"
+                + event.tid
+                + '}';
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Event {
+
+        String category;
+        String name;
+        long tid;
+        long begin;
+        long end;
+
+        Event(String category, String name, long tid, long begin, long end) {
+            this.category = category;
+            this.name = name;
+            this.tid = tid;
+            this.begin = begin;
+            this.end = end;
+        }
+    }
+}
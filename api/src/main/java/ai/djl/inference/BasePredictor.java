@@ -13,7 +13,10 @@
 package ai.djl.inference;
 
 import ai.djl.Model;
+import ai.djl.engine.Profiler;
+import ai.djl.metric.JmxExporter;
 import ai.djl.metric.Metrics;
+import ai.djl.metric.Timer;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.nn.Block;
@@ -23,10 +26,12 @@ import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,14 +39,23 @@ import org.slf4j.LoggerFactory;
  * {@code BasePredictor} contains common code for implementations of the {@link Predictor}
  * interface.
  *
+ * <p>{@code BasePredictor} always records the end-to-end latency of each call in the {@code Total}
+ * {@link Timer}. The {@code Preprocess}, {@code Inference}, and {@code Postprocess} timers require
+ * waiting for the engine to finish each stage, so they are only recorded for one out of every
+ * {@link #setTimerSampleRate(int) sample rate} calls, or for every call if {@link Metrics} are set
+ * or a {@link Profiler} is running.
+ *
  * @param <I> the type of the input
  * @param <O> the type of the output
  */
 public class BasePredictor<I, O> implements Predictor<I, O> {
 
     private static final Logger logger = LoggerFactory.getLogger(BasePredictor.class);
-    private Translator<I, O> translator;
+    private static final int DEFAULT_SAMPLE_RATE = 100;
+
+    Translator<I, O> translator;
     private long timestamp;
+    private boolean sampled;
 
     protected Model model;
     protected NDManager manager;
@@ -49,6 +63,13 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
     private Block block;
     private ParameterStore parameterStore;
 
+    Timer preprocessTimer;
+    Timer inferenceTimer;
+    Timer postprocessTimer;
+    Timer totalTimer;
+    private AtomicLong calls;
+    private int sampleRate;
+
     /**
      * Creates a new instance of {@code BasePredictor} with the given {@link Model} and {@link
      * Translator}.
@@ -63,6 +84,12 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
         this.translator = translator;
         block = model.getBlock();
         parameterStore = new ParameterStore(manager, copy);
+        preprocessTimer = new Timer("Preprocess");
+        inferenceTimer = new Timer("Inference");
+        postprocessTimer = new Timer("Postprocess");
+        totalTimer = new Timer("Total");
+        calls = new AtomicLong();
+        sampleRate = DEFAULT_SAMPLE_RATE;
     }
 
     /** {@inheritDoc} */
@@ -76,6 +103,8 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
     @Override
     @SuppressWarnings("PMD.AvoidRethrowingException")
     public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        long begin = System.nanoTime();
+        sampled = isSampled();
         try (PredictorContext context = new PredictorContext()) {
             Batchifier batchifier = translator.getBatchifier();
             if (batchifier == null) {
@@ -101,13 +130,15 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
             NDList result = forward(context, inputBatch);
             forwardEnd(result);
 
-            return processOutputs(context, result);
+            List<O> ret = processOutputs(context, result);
+            postProcessEnd();
+            return ret;
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
             throw new TranslateException(e);
         } finally {
-            postProcessEnd();
+            totalTimer.record(System.nanoTime() - begin);
         }
     }
 
@@ -117,6 +148,29 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
         this.metrics = metrics;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public List<Timer> getTimers() {
+        return Arrays.asList(preprocessTimer, inferenceTimer, postprocessTimer, totalTimer);
+    }
+
+    /**
+     * Sets how often the per-stage timers are recorded when no {@link Metrics} are set.
+     *
+     * @param sampleRate record the per-stage timers for one out of every {@code sampleRate} calls,
+     *     or never if {@code sampleRate} is 0
+     */
+    public void setTimerSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    boolean isSampled() {
+        if (metrics != null || Profiler.isActive()) {
+            return true;
+        }
+        return sampleRate > 0 && calls.getAndIncrement() % sampleRate == 0;
+    }
+
     protected void waitToRead(NDList list) {}
 
     protected NDList forward(TranslatorContext ctx, NDList ndList) {
@@ -125,7 +179,7 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
     }
 
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
-    private NDList processInputs(TranslatorContext ctx, List<I> inputs) throws Exception {
+    NDList processInputs(TranslatorContext ctx, List<I> inputs) throws Exception {
         int batchSize = inputs.size();
         NDList[] preprocessed = new NDList[batchSize];
         for (int i = 0; i < batchSize; ++i) {
@@ -135,7 +189,7 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
     }
 
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
-    private List<O> processOutputs(TranslatorContext ctx, NDList list) throws Exception {
+    List<O> processOutputs(TranslatorContext ctx, NDList list) throws Exception {
         NDList[] unbatched = translator.getBatchifier().unbatchify(list);
         List<O> outputs = new ArrayList<>(unbatched.length);
         for (NDList output : unbatched) {
@@ -145,47 +199,60 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
     }
 
     private void preprocessEnd(NDList list) {
-        if (metrics != null) {
+        if (sampled) {
             waitToRead(list);
             long tmp = System.nanoTime();
             long duration = tmp - timestamp;
             timestamp = tmp;
-            metrics.addMetric("Preprocess", duration, "nano");
+            preprocessTimer.record(duration);
+            if (metrics != null) {
+                metrics.addMetric("Preprocess", duration, "nano");
+            }
+            Profiler.record("predictor", "Preprocess", tmp - duration, tmp);
         }
     }
 
     private void forwardEnd(NDList list) {
-        if (metrics != null) {
+        if (sampled) {
             waitToRead(list);
             long tmp = System.nanoTime();
             long duration = tmp - timestamp;
             timestamp = tmp;
-            metrics.addMetric("Inference", duration, "nano");
+            inferenceTimer.record(duration);
+            if (metrics != null) {
+                metrics.addMetric("Inference", duration, "nano");
+            }
+            Profiler.record("predictor", "Inference", tmp - duration, tmp);
         }
     }
 
     private void postProcessEnd() {
-        if (metrics != null) {
+        if (sampled) {
             long tmp = System.nanoTime();
             long duration = tmp - timestamp;
             timestamp = tmp;
-            metrics.addMetric("Postprocess", duration, "nano");
+            postprocessTimer.record(duration);
+            if (metrics != null) {
+                metrics.addMetric("Postprocess", duration, "nano");
+            }
+            Profiler.record("predictor", "Postprocess", tmp - duration, tmp);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public void close() {
+        JmxExporter.unregister(getTimers());
         manager.close();
     }
 
-    private class PredictorContext implements TranslatorContext {
+    class PredictorContext implements TranslatorContext {
 
         private NDManager ctxManager;
         private Map<String, Object> attachments;
 
         PredictorContext() {
-            ctxManager = manager.newSubManager();
+            ctxManager = manager.newArenaManager();
             attachments = new ConcurrentHashMap<>();
         }
 
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Timer;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.TranslateException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code BatchPredictor} is a {@link Predictor} decorator that coalesces concurrent {@link
+ * #predict(Object)} calls into a single {@link Predictor#batchPredict(List)} on the wrapped
+ * predictor.
+ *
+ * <p>Requests from any number of threads are queued. A single dispatcher thread collects them
+ * until either {@code maxBatchSize} requests are pending or {@code maxDelay} microseconds have
+ * passed since the first request of the batch arrived. The batch is then run through the wrapped
+ * predictor, which uses the {@link Batchifier} of its {@link ai.djl.translate.Translator} to stack
+ * the inputs and split the outputs, and each caller receives its own result.
+ *
+ * <pre>
+ * try (Predictor&lt;BufferedImage, Classifications&gt; predictor =
+ *         new BatchPredictor&lt;&gt;(model.newPredictor(), 32, 2000)) {
+ *     // call predictor.predict(img) from many threads
+ * }
+ * </pre>
+ *
+ * <p>The wrapped predictor is only ever used by the dispatcher thread and is closed when this
+ * predictor is closed.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BatchPredictor<I, O> implements Predictor<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchPredictor.class);
+
+    private Predictor<I, O> predictor;
+    private int maxBatchSize;
+    private long maxDelayNanos;
+    private BlockingQueue<Job<I, O>> queue;
+    private AtomicBoolean running;
+    private Thread dispatcher;
+    private Metrics metrics;
+
+    /**
+     * Creates a new instance of {@code BatchPredictor} that wraps the given {@link Predictor}.
+     *
+     * @param predictor the predictor that runs the coalesced batches
+     * @param maxBatchSize the maximum number of requests in one batch
+     * @param maxDelay the maximum time in microseconds to wait for a batch to fill up
+     */
+    public BatchPredictor(Predictor<I, O> predictor, int maxBatchSize, long maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative");
+        }
+        this.predictor = predictor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelay);
+        queue = new LinkedBlockingQueue<>();
+        running = new AtomicBoolean(true);
+        dispatcher = new Thread(this::dispatch, "djl-batch-predictor"); // NOPMD
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public O predict(I input) throws TranslateException {
+        return await(submit(input));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each input is queued individually, so the inputs may be split across, or combined with,
+     * batches submitted by other threads.
+     */
+    @Override
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        List<CompletableFuture<O>> futures = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            futures.add(submit(input));
+        }
+        List<O> ret = new ArrayList<>(inputs.size());
+        for (CompletableFuture<O> future : futures) {
+            ret.add(await(future));
+        }
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        predictor.setMetrics(metrics);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Timer> getTimers() {
+        return predictor.getTimers();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        if (!running.getAndSet(false)) {
+            return;
+        }
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Job<I, O>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Job<I, O> job : pending) {
+            job.future.completeExceptionally(new IllegalStateException("Predictor is closed."));
+        }
+        predictor.close();
+    }
+
+    private CompletableFuture<O> submit(I input) {
+        if (!running.get()) {
+            throw new IllegalStateException("Predictor is closed.");
+        }
+        Job<I, O> job = new Job<>(input);
+        queue.add(job);
+        if (!running.get() && queue.remove(job)) {
+            // close() started after the check above and may have drained the queue already
+            job.future.completeExceptionally(new IllegalStateException("Predictor is closed."));
+        }
+        return job.future;
+    }
+
+    private O await(CompletableFuture<O> future) throws TranslateException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrupted while waiting for prediction", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TranslateException) {
+                throw (TranslateException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new TranslateException(cause);
+        }
+    }
+
+    private void dispatch() {
+        List<Job<I, O>> batch = new ArrayList<>(maxBatchSize);
+        while (running.get()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Job<I, O> job = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (job == null) {
+                        break;
+                    }
+                    batch.add(job);
+                }
+            } catch (InterruptedException e) {
+                // close() was called, fail whatever has been collected so far
+                for (Job<I, O> job : batch) {
+                    job.future.completeExceptionally(
+                            new IllegalStateException("Predictor is closed."));
+                }
+                return;
+            }
+
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    private void process(List<Job<I, O>> batch) {
+        int batchSize = batch.size();
+        List<I> inputs = new ArrayList<>(batchSize);
+        for (Job<I, O> job : batch) {
+            inputs.add(job.input);
+        }
+        if (metrics != null) {
+            metrics.addMetric("BatchSize", batchSize);
+        }
+        try {
+            List<O> outputs = predictor.batchPredict(inputs);
+            for (int i = 0; i < batchSize; ++i) {
+                batch.get(i).future.complete(outputs.get(i));
+            }
+        } catch (Throwable e) { // NOPMD
+            // the dispatcher must keep running and the callers must not wait forever
+            logger.debug("Batch of {} failed.", batchSize, e);
+            for (Job<I, O> job : batch) {
+                job.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Job<I, O> {
+
+        I input;
+        CompletableFuture<O> future;
+
+        Job(I input) {
+            this.input = input;
+            future = new CompletableFuture<>();
+        }
+    }
+}
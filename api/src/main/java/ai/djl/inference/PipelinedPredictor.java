@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.engine.Profiler;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Timer;
+import ai.djl.ndarray.NDList;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.Translator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code PipelinedPredictor} is a {@link Predictor} that runs preprocessing, forward, and
+ * postprocessing of consecutive requests as three overlapping stages.
+ *
+ * <p>While batch N is in the forward pass, batch N+1 can be preprocessed by {@link
+ * Translator#processInput} and batch N-1 can be converted back by {@link Translator#processOutput}
+ * on separate thread pools. This pays off when the translator is as expensive as the model itself,
+ * as it typically is for image workloads.
+ *
+ * <pre>
+ * try (PipelinedPredictor&lt;BufferedImage, Classifications&gt; predictor =
+ *         new PipelinedPredictor&lt;&gt;(model.newPredictor(), 4, 1, 2)) {
+ *     CompletableFuture&lt;Classifications&gt; future = predictor.predictAsync(img);
+ * }
+ * </pre>
+ *
+ * <p>The {@link Translator} must be safe to call from multiple threads if more than one
+ * preprocessing or postprocessing thread is used. More than one forward thread should only be used
+ * with engines that allow concurrent forward passes on the same parameters.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class PipelinedPredictor<I, O> implements Predictor<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedPredictor.class);
+
+    private BasePredictor<I, O> predictor;
+    private ExecutorService preprocessExecutor;
+    private ExecutorService forwardExecutor;
+    private ExecutorService postprocessExecutor;
+
+    /**
+     * Creates a new instance of {@code PipelinedPredictor} that wraps the given {@link Predictor}.
+     *
+     * @param predictor the predictor created by {@link ai.djl.Model#newPredictor(Translator)}
+     * @param preprocessThreads the number of threads that run the preprocessing stage
+     * @param forwardThreads the number of threads that run the forward stage
+     * @param postprocessThreads the number of threads that run the postprocessing stage
+     * @throws IllegalArgumentException if the given predictor is not a {@link BasePredictor}
+     */
+    public PipelinedPredictor(
+            Predictor<I, O> predictor,
+            int preprocessThreads,
+            int forwardThreads,
+            int postprocessThreads) {
+        if (!(predictor instanceof BasePredictor)) {
+            throw new IllegalArgumentException(
+                    "PipelinedPredictor requires a BasePredictor, got: "
+                            + predictor.getClass().getName());
+        }
+        this.predictor = (BasePredictor<I, O>) predictor;
+        preprocessExecutor = Executors.newFixedThreadPool(preprocessThreads);
+        forwardExecutor = Executors.newFixedThreadPool(forwardThreads);
+        postprocessExecutor = Executors.newFixedThreadPool(postprocessThreads);
+    }
+
+    /**
+     * Predicts an item asynchronously.
+     *
+     * @param input the input
+     * @return a {@link CompletableFuture} that completes with the output
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        return batchPredictAsync(Collections.singletonList(input)).thenApply(l -> l.get(0));
+    }
+
+    /**
+     * Predicts a batch asynchronously.
+     *
+     * <p>The inputs go through the pipeline as one batch, using the {@link Batchifier} of the
+     * {@link Translator}.
+     *
+     * @param inputs a list of inputs
+     * @return a {@link CompletableFuture} that completes with the list of outputs
+     */
+    public CompletableFuture<List<O>> batchPredictAsync(List<I> inputs) {
+        long begin = System.nanoTime();
+        BasePredictor<I, O>.PredictorContext context = predictor.new PredictorContext();
+        boolean sampled = predictor.isSampled();
+        return CompletableFuture.supplyAsync(
+                        () -> preprocess(context, inputs, sampled), preprocessExecutor)
+                .thenApplyAsync(list -> forward(context, list, sampled), forwardExecutor)
+                .thenApplyAsync(list -> postprocess(context, list, sampled), postprocessExecutor)
+                .whenComplete(
+                        (r, t) -> {
+                            context.close();
+                            predictor.totalTimer.record(System.nanoTime() - begin);
+                        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public O predict(I input) throws TranslateException {
+        return await(predictAsync(input));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        return await(batchPredictAsync(inputs));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setMetrics(Metrics metrics) {
+        predictor.setMetrics(metrics);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Timer> getTimers() {
+        return predictor.getTimers();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Requests that are already in the pipeline are completed first. The stages are drained in
+     * order, so work handed from one stage to the next is still accepted.
+     */
+    @Override
+    public void close() {
+        try {
+            drain(preprocessExecutor);
+            drain(forwardExecutor);
+            drain(postprocessExecutor);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            preprocessExecutor.shutdownNow();
+            forwardExecutor.shutdownNow();
+            postprocessExecutor.shutdownNow();
+        }
+        predictor.close();
+    }
+
+    private NDList[] preprocess(
+            BasePredictor<I, O>.PredictorContext context, List<I> inputs, boolean sampled) {
+        long begin = System.nanoTime();
+        NDList[] lists;
+        try {
+            Translator<I, O> translator = predictor.translator;
+            if (translator.getBatchifier() == null) {
+                lists = new NDList[inputs.size()];
+                for (int i = 0; i < lists.length; ++i) {
+                    lists[i] = translator.processInput(context, inputs.get(i));
+                }
+            } else {
+                lists = new NDList[] {predictor.processInputs(context, inputs)};
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(new TranslateException(e));
+        }
+        if (sampled) {
+            record(predictor.preprocessTimer, begin, lists);
+        }
+        return lists;
+    }
+
+    private NDList[] forward(
+            BasePredictor<I, O>.PredictorContext context, NDList[] lists, boolean sampled) {
+        long begin = System.nanoTime();
+        NDList[] results = new NDList[lists.length];
+        for (int i = 0; i < lists.length; ++i) {
+            results[i] = predictor.forward(context, lists[i]);
+        }
+        if (sampled) {
+            record(predictor.inferenceTimer, begin, results);
+        }
+        return results;
+    }
+
+    private List<O> postprocess(
+            BasePredictor<I, O>.PredictorContext context, NDList[] lists, boolean sampled) {
+        long begin = System.nanoTime();
+        List<O> ret;
+        try {
+            Translator<I, O> translator = predictor.translator;
+            if (translator.getBatchifier() == null) {
+                ret = new ArrayList<>(lists.length);
+                for (NDList list : lists) {
+                    ret.add(translator.processOutput(context, list));
+                }
+            } else {
+                ret = predictor.processOutputs(context, lists[0]);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(new TranslateException(e));
+        }
+        if (sampled) {
+            record(predictor.postprocessTimer, begin, null);
+        }
+        return ret;
+    }
+
+    private void record(Timer timer, long begin, NDList[] lists) {
+        if (lists != null) {
+            for (NDList list : lists) {
+                predictor.waitToRead(list);
+            }
+        }
+        long end = System.nanoTime();
+        long duration = end - begin;
+        timer.record(duration);
+        Metrics metrics = predictor.metrics;
+        if (metrics != null) {
+            metrics.addMetric(timer.getName(), duration, "nano");
+        }
+        Profiler.record("predictor", timer.getName(), begin, end);
+    }
+
+    private static void drain(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            logger.warn("Waiting for pending predictions before closing the predictor.");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws TranslateException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrupted while waiting for prediction", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TranslateException) {
+                throw (TranslateException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new TranslateException(cause);
+        }
+    }
+}
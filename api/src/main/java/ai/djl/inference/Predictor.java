@@ -14,8 +14,10 @@ package ai.djl.inference;
 
 import ai.djl.Model;
 import ai.djl.metric.Metrics;
+import ai.djl.metric.Timer;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -84,6 +86,17 @@ public interface Predictor<I, O> extends AutoCloseable {
      */
     void setMetrics(Metrics metrics);
 
+    /**
+     * Returns the always-on latency {@link Timer}s of this predictor.
+     *
+     * <p>The timers can be published with a {@link ai.djl.metric.MetricsExporter}.
+     *
+     * @return the latency {@link Timer}s of this predictor
+     */
+    default List<Timer> getTimers() {
+        return Collections.emptyList();
+    }
+
     /** {@inheritDoc} */
     @Override
     void close();
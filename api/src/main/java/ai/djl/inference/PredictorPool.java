@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.Translator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code PredictorPool} runs inference for a {@link Model} on a fixed number of worker threads,
+ * each of which owns its own {@link Predictor}.
+ *
+ * <p>Requests are admitted into a bounded queue. When the queue is full, new requests are rejected
+ * immediately with a {@link RejectedExecutionException} instead of waiting, so that the latency of
+ * the admitted requests stays predictable under bursty traffic.
+ *
+ * <pre>
+ * try (PredictorPool&lt;BufferedImage, Classifications&gt; pool =
+ *         new PredictorPool&lt;&gt;(model, model.getTranslator(), 4, 64)) {
+ *     CompletableFuture&lt;Classifications&gt; future = pool.submit(img);
+ * }
+ * </pre>
+ *
+ * <p>If {@link Metrics} are set, the pool records the following metrics in addition to the ones
+ * recorded by each {@link Predictor}:
+ *
+ * <ul>
+ *   <li>{@code QueueDepth} - the number of pending requests when a request is admitted
+ *   <li>{@code WaitTime} - the time in nanoseconds a request spent in the queue
+ *   <li>{@code ServiceTime} - the time in nanoseconds a worker spent on a request
+ *   <li>{@code Rejected} - recorded once for every request that is rejected
+ * </ul>
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class PredictorPool<I, O> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictorPool.class);
+
+    private ThreadPoolExecutor executor;
+    private BlockingQueue<Predictor<I, O>> predictors;
+    private List<Predictor<I, O>> allPredictors;
+    private Metrics metrics;
+
+    /**
+     * Creates a new instance of {@code PredictorPool}.
+     *
+     * @param model the model to run inference on
+     * @param translator the translator used by each worker's predictor
+     * @param workers the number of worker threads and predictors
+     * @param queueSize the maximum number of requests waiting for a worker
+     */
+    public PredictorPool(Model model, Translator<I, O> translator, int workers, int queueSize) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be greater than 0");
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queueSize must be greater than 0");
+        }
+        predictors = new ArrayBlockingQueue<>(workers);
+        allPredictors = new ArrayList<>(workers);
+        for (int i = 0; i < workers; ++i) {
+            Predictor<I, O> predictor = model.newPredictor(translator);
+            predictors.add(predictor);
+            allPredictors.add(predictor);
+        }
+        executor =
+                new ThreadPoolExecutor(
+                        workers,
+                        workers,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueSize),
+                        new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Submits a single input for inference.
+     *
+     * @param input the input
+     * @return a {@link CompletableFuture} that completes with the output, or exceptionally with a
+     *     {@link RejectedExecutionException} if the queue is full
+     */
+    public CompletableFuture<O> submit(I input) {
+        return execute(p -> p.predict(input));
+    }
+
+    /**
+     * Submits a batch of inputs that is run as a single {@link Predictor#batchPredict(List)} by
+     * one worker.
+     *
+     * @param inputs the list of inputs
+     * @return a {@link CompletableFuture} that completes with the list of outputs, or exceptionally
+     *     with a {@link RejectedExecutionException} if the queue is full
+     */
+    public CompletableFuture<List<O>> submitBatch(List<I> inputs) {
+        return execute(p -> p.batchPredict(inputs));
+    }
+
+    /**
+     * Attaches a {@link Metrics} to the pool and to all of its predictors.
+     *
+     * @param metrics the {@link Metrics} to record into
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        for (Predictor<I, O> predictor : allPredictors) {
+            predictor.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting for a worker.
+     *
+     * @return the number of requests waiting for a worker
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting new requests, waits for the admitted requests to finish and closes all
+     * predictors.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for {} pending requests.", executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            for (Runnable runnable : executor.shutdownNow()) {
+                ((Task) runnable)
+                        .future
+                        .completeExceptionally(new IllegalStateException("Predictor is closed."));
+            }
+            Thread.currentThread().interrupt();
+        }
+        for (Predictor<I, O> predictor : allPredictors) {
+            predictor.close();
+        }
+    }
+
+    private <T> CompletableFuture<T> execute(PredictFunction<I, O, T> function) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueued = System.nanoTime();
+        try {
+            executor.execute(new Task(() -> run(function, future, enqueued), future));
+        } catch (RejectedExecutionException e) {
+            if (metrics != null) {
+                metrics.addMetric("Rejected", 1);
+            }
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (metrics != null) {
+            metrics.addMetric("QueueDepth", executor.getQueue().size());
+        }
+        return future;
+    }
+
+    private <T> void run(
+            PredictFunction<I, O, T> function, CompletableFuture<T> future, long enqueued) {
+        long begin = System.nanoTime();
+        Predictor<I, O> predictor = predictors.poll();
+        if (predictor == null) {
+            // cannot happen, there are as many predictors as worker threads
+            future.completeExceptionally(new IllegalStateException("No predictor available."));
+            return;
+        }
+        try {
+            future.complete(function.apply(predictor));
+        } catch (Throwable e) { // NOPMD
+            // the caller must not wait forever, even if the predictor fails with an Error
+            future.completeExceptionally(e);
+        } finally {
+            predictors.add(predictor);
+            if (metrics != null) {
+                long end = System.nanoTime();
+                metrics.addMetric("WaitTime", begin - enqueued, "nano");
+                metrics.addMetric("ServiceTime", end - begin, "nano");
+            }
+        }
+    }
+
+    /** A request queued for a worker. */
+    private static final class Task implements Runnable {
+
+        private Runnable body;
+        private CompletableFuture<?> future;
+
+        Task(Runnable body, CompletableFuture<?> future) {
+            this.body = body;
+            this.future = future;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            body.run();
+        }
+    }
+
+    /**
+     * A function that runs inference with a {@link Predictor}.
+     *
+     * @param <I> the input type
+     * @param <O> the output type
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    private interface PredictFunction<I, O, T> {
+
+        T apply(Predictor<I, O> predictor) throws TranslateException;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-memory, lock-free histogram of {@code double} values with logarithmic buckets.
+ *
+ * <p>Every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so a recorded value
+ * is reported with a relative error of less than 2%. Values whose magnitude lies outside of
+ * [2<sup>{@value #MIN_EXPONENT}</sup>, 2<sup>{@value #MAX_EXPONENT}</sup>) are counted in the
+ * lowest or highest bucket. Small integers (up to {@value #SUB_BUCKETS}) are recorded exactly.
+ *
+ * <p>{@link #record(double)} is O(1) and never blocks; {@link #percentile(int)} is O(buckets).
+ * The count, sum, minimum and maximum are exact.
+ *
+ * @see Metrics
+ */
+public class Histogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MIN_EXPONENT = -32;
+    static final int MAX_EXPONENT = 64;
+    private static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKETS;
+
+    private AtomicLongArray positive;
+    private AtomicReference<AtomicLongArray> negative;
+    private LongAdder zeros;
+    private LongAdder count;
+    private DoubleAdder sum;
+    private DoubleAccumulator min;
+    private DoubleAccumulator max;
+    private AtomicLong latest;
+
+    /** Constructs an empty {@code Histogram}. */
+    public Histogram() {
+        positive = new AtomicLongArray(BUCKETS);
+        negative = new AtomicReference<>();
+        zeros = new LongAdder();
+        count = new LongAdder();
+        sum = new DoubleAdder();
+        min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+        latest = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+    }
+
+    /**
+     * Records a value. {@code NaN} values are ignored.
+     *
+     * @param value the value to record
+     */
+    public void record(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > 0) {
+            positive.incrementAndGet(indexOf(value));
+        } else if (value < 0) {
+            AtomicLongArray buckets = negative.get();
+            if (buckets == null) {
+                negative.compareAndSet(null, new AtomicLongArray(BUCKETS));
+                buckets = negative.get();
+            }
+            buckets.incrementAndGet(indexOf(-value));
+        } else {
+            zeros.increment();
+        }
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+        latest.set(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return the sum of all recorded values
+     */
+    public double getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the smallest recorded value, or {@code NaN} if the histogram is empty.
+     *
+     * @return the smallest recorded value
+     */
+    public double getMin() {
+        return getCount() == 0 ? Double.NaN : min.get();
+    }
+
+    /**
+     * Returns the largest recorded value, or {@code NaN} if the histogram is empty.
+     *
+     * @return the largest recorded value
+     */
+    public double getMax() {
+        return getCount() == 0 ? Double.NaN : max.get();
+    }
+
+    /**
+     * Returns the most recently recorded value, or {@code NaN} if the histogram is empty.
+     *
+     * @return the most recently recorded value
+     */
+    public double getLatest() {
+        return Double.longBitsToDouble(latest.get());
+    }
+
+    /**
+     * Returns the average of all recorded values, or {@code NaN} if the histogram is empty.
+     *
+     * @return the average of all recorded values
+     */
+    public double mean() {
+        long n = getCount();
+        return n == 0 ? Double.NaN : getSum() / n;
+    }
+
+    /**
+     * Returns an estimate of the value at the given percentile.
+     *
+     * <p>The percentile is computed with the same rank as {@link Metrics#percentile(String, int)}
+     * does on raw samples.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return an estimate of the value at the given percentile, or {@code NaN} if the histogram is
+     *     empty
+     */
+    public double percentile(int percentile) {
+        long n = getCount();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.min(n * percentile / 100, n - 1);
+        long seen = 0;
+
+        AtomicLongArray buckets = negative.get();
+        if (buckets != null) {
+            for (int i = BUCKETS - 1; i >= 0; --i) {
+                seen += buckets.get(i);
+                if (seen > rank) {
+                    return clamp(-valueOf(i));
+                }
+            }
+        }
+        seen += zeros.sum();
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += positive.get(i);
+            if (seen > rank) {
+                return clamp(valueOf(i));
+            }
+        }
+        // values recorded concurrently with this call may not be visible in the buckets yet
+        return getMax();
+    }
+
+    private double clamp(double value) {
+        return Math.max(min.get(), Math.min(max.get(), value));
+    }
+
+    static int indexOf(double value) {
+        int exponent = Math.getExponent(value);
+        if (exponent < MIN_EXPONENT) {
+            return 0;
+        } else if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        int sub = (int) (bits >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    static double valueOf(int index) {
+        int exponent = index / SUB_BUCKETS + MIN_EXPONENT;
+        int sub = index % SUB_BUCKETS;
+        double lower = Math.scalb(1d + (double) sub / SUB_BUCKETS, exponent);
+        if (exponent <= SUB_BUCKET_BITS && lower == Math.rint(lower)) {
+            // integers that fit in the sub-bucket resolution are recorded exactly
+            return lower;
+        }
+        return Math.scalb(1d + (sub + 0.5) / SUB_BUCKETS, exponent);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * A {@link MetricsExporter} that registers each {@link Timer} as a {@link TimerMXBean} on the
+ * platform {@code MBeanServer}.
+ *
+ * <p>The beans read the live state of the timers, so {@link #export(String, List)} only needs to be
+ * called once. The beans are registered as {@code ai.djl:type=Timer,source=<source>,name=<timer>}.
+ * The owner of the timers should call {@link #unregister(List)} when it is closed.
+ */
+public class JmxExporter implements MetricsExporter {
+
+    private static final Map<ObjectName, Timer> REGISTERED = new ConcurrentHashMap<>();
+
+    private MBeanServer server;
+
+    /** Constructs a {@code JmxExporter} that uses the platform {@code MBeanServer}. */
+    public JmxExporter() {
+        server = ManagementFactory.getPlatformMBeanServer();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void export(String source, List<Timer> timers) {
+        for (Timer timer : timers) {
+            try {
+                ObjectName name =
+                        new ObjectName(
+                                "ai.djl:type=Timer,source="
+                                        + ObjectName.quote(source)
+                                        + ",name="
+                                        + ObjectName.quote(timer.getName()));
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(
+                            new StandardMBean(new TimerBean(timer), TimerMXBean.class, true),
+                            name);
+                    REGISTERED.put(name, timer);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException("Failed to register timer: " + timer.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the beans of the given {@link Timer}s, whichever {@code JmxExporter} registered
+     * them.
+     *
+     * @param timers the timers to unregister
+     */
+    public static void unregister(List<Timer> timers) {
+        if (REGISTERED.isEmpty()) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<ObjectName, Timer> entry : REGISTERED.entrySet()) {
+            if (timers.contains(entry.getValue())
+                    && REGISTERED.remove(entry.getKey(), entry.getValue())) {
+                try {
+                    server.unregisterMBean(entry.getKey());
+                } catch (JMException e) {
+                    throw new IllegalStateException(
+                            "Failed to unregister timer: " + entry.getValue().getName(), e);
+                }
+            }
+        }
+    }
+
+    private static final class TimerBean implements TimerMXBean {
+
+        private Histogram histogram;
+
+        TimerBean(Timer timer) {
+            histogram = timer.getHistogram();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMean() {
+            return histogram.mean();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getMax() {
+            return histogram.getMax();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getP50() {
+            return histogram.percentile(50);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getP90() {
+            return histogram.percentile(90);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getP99() {
+            return histogram.percentile(99);
+        }
+    }
+}
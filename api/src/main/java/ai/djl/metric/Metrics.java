@@ -34,6 +34,13 @@ import java.util.stream.Collectors;
  * performance indicators (KPIs) during inference and training runs. These KPIs include various
  * latencies, CPU and GPU memory consumption, losses, etc.
  *
+ * <p>By default, every recorded {@link Metric} is kept, which is useful for benchmarks and
+ * short-lived runs. For long-running services, {@code Metrics} can be created in histogram mode
+ * with {@link #Metrics(boolean)}. In histogram mode, each metric name is backed by a fixed-memory
+ * {@link Histogram}: recording a value is O(1) and lock-free, and percentiles are estimated from
+ * the histogram buckets instead of sorting all samples. Only the latest value of each metric is
+ * available as a {@link Metric}.
+ *
  * <p>For more details about using the metrics, see the <a
  * href="https://github.com/awslabs/djl/blob/master/docs/how_to_collect_metrics.md">metrics
  * tutorial</a>.
@@ -43,10 +50,34 @@ public class Metrics {
     private static final MetricValueComparator VALUE_COMPARATOR = new MetricValueComparator();
 
     private Map<String, List<Metric>> metrics;
+    private Map<String, HistogramEntry> histograms;
 
-    /** Constructs an empty {@code Metrics} instance. */
+    /** Constructs an empty {@code Metrics} instance that keeps every recorded sample. */
     public Metrics() {
-        metrics = new ConcurrentHashMap<>();
+        this(false);
+    }
+
+    /**
+     * Constructs an empty {@code Metrics} instance.
+     *
+     * @param histogram {@code true} to aggregate the values into fixed-memory histograms, {@code
+     *     false} to keep every recorded sample
+     */
+    public Metrics(boolean histogram) {
+        if (histogram) {
+            histograms = new ConcurrentHashMap<>();
+        } else {
+            metrics = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this {@code Metrics} aggregates values into histograms.
+     *
+     * @return {@code true} if this {@code Metrics} aggregates values into histograms
+     */
+    public boolean isHistogram() {
+        return histograms != null;
     }
 
     /**
@@ -55,6 +86,10 @@ public class Metrics {
      * @param metric the {@link Metric} to be added
      */
     public void addMetric(Metric metric) {
+        if (histograms != null) {
+            addMetric(metric.getMetricName(), metric.getValue(), metric.getUnit());
+            return;
+        }
         List<Metric> list =
                 metrics.computeIfAbsent(
                         metric.getMetricName(),
@@ -69,7 +104,7 @@ public class Metrics {
      * @param value the metric value
      */
     public void addMetric(String name, Number value) {
-        addMetric(new Metric(name, value));
+        addMetric(name, value, "count");
     }
 
     /**
@@ -80,6 +115,14 @@ public class Metrics {
      * @param unit the metric unit
      */
     public void addMetric(String name, Number value, String unit) {
+        if (histograms != null) {
+            HistogramEntry entry = histograms.computeIfAbsent(name, k -> new HistogramEntry(unit));
+            if (entry.integral && (value instanceof Double || value instanceof Float)) {
+                entry.integral = false;
+            }
+            entry.histogram.record(value.doubleValue());
+            return;
+        }
         addMetric(new Metric(name, value, unit));
     }
 
@@ -90,16 +133,43 @@ public class Metrics {
      * @return {@code true} if the metrics object has a metric with the given name
      */
     public boolean hasMetric(String name) {
+        if (histograms != null) {
+            return histograms.containsKey(name);
+        }
         return metrics.containsKey(name);
     }
 
+    /**
+     * Returns the {@link Histogram} of the specified metric name.
+     *
+     * @param name the name of the metric
+     * @return the {@link Histogram} of the specified metric name, or {@code null} if this {@code
+     *     Metrics} is not in histogram mode or the metric is not found
+     */
+    public Histogram getHistogram(String name) {
+        if (histograms == null) {
+            return null;
+        }
+        HistogramEntry entry = histograms.get(name);
+        return entry == null ? null : entry.histogram;
+    }
+
     /**
      * Returns all {@link Metric}s with the specified metric name.
      *
+     * <p>In histogram mode, only the latest {@link Metric} is returned.
+     *
      * @param name the name of the metric
      * @return a list of {@link Metric} with the specified metric name
      */
     public List<Metric> getMetric(String name) {
+        if (histograms != null) {
+            HistogramEntry entry = histograms.get(name);
+            if (entry == null) {
+                return Collections.emptyList();
+            }
+            return Collections.singletonList(entry.toMetric(name, entry.histogram.getLatest()));
+        }
         List<Metric> list = metrics.get(name);
         if (list == null) {
             return Collections.emptyList();
@@ -115,6 +185,10 @@ public class Metrics {
      * @throws IllegalArgumentException if the given name is not found
      */
     public Metric latestMetric(String name) {
+        if (histograms != null) {
+            HistogramEntry entry = getEntry(name);
+            return entry.toMetric(name, entry.histogram.getLatest());
+        }
         List<Metric> list = metrics.get(name);
         if (list == null || list.isEmpty()) {
             throw new IllegalArgumentException("Could not find metric: " + name);
@@ -130,6 +204,10 @@ public class Metrics {
      * @return the {@link Metric} object at specified {@code percentile}
      */
     public Metric percentile(String metricName, int percentile) {
+        if (histograms != null) {
+            HistogramEntry entry = getEntry(metricName);
+            return entry.toMetric(metricName, entry.histogram.percentile(percentile));
+        }
         List<Metric> metric = metrics.get(metricName);
         if (metric == null || metrics.isEmpty()) {
             throw new IllegalArgumentException("Metric name not found: " + metricName);
@@ -148,6 +226,9 @@ public class Metrics {
      * @return the average value of the specified metric
      */
     public double mean(String metricName) {
+        if (histograms != null) {
+            return getEntry(metricName).histogram.mean();
+        }
         List<Metric> metric = metrics.get(metricName);
         if (metric == null || metrics.isEmpty()) {
             throw new IllegalArgumentException("Metric name not found: " + metricName);
@@ -156,6 +237,35 @@ public class Metrics {
         return metric.stream().collect(Collectors.averagingDouble(m -> m.getValue().doubleValue()));
     }
 
+    private HistogramEntry getEntry(String metricName) {
+        HistogramEntry entry = histograms.get(metricName);
+        if (entry == null) {
+            throw new IllegalArgumentException("Metric name not found: " + metricName);
+        }
+        return entry;
+    }
+
+    /** A {@link Histogram} together with the unit and value type of its metric. */
+    private static final class HistogramEntry {
+
+        Histogram histogram;
+        String unit;
+        boolean integral;
+
+        HistogramEntry(String unit) {
+            this.unit = unit;
+            histogram = new Histogram();
+            integral = true;
+        }
+
+        Metric toMetric(String name, double value) {
+            if (integral) {
+                return new Metric(name, Math.round(value), unit);
+            }
+            return new Metric(name, value, unit);
+        }
+    }
+
     /** Comparator based on {@code Metric}'s value field. */
     private static final class MetricValueComparator implements Comparator<Metric>, Serializable {
 
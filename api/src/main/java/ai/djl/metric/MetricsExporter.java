@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An interface that publishes {@link Timer}s to an external monitoring system.
+ *
+ * @see JmxExporter
+ * @see PrometheusExporter
+ */
+public interface MetricsExporter {
+
+    /**
+     * Publishes the current state of the given {@link Timer}s.
+     *
+     * @param source the name of the component that owns the timers, for example the model name
+     * @param timers the timers to publish
+     * @throws IOException if the timers cannot be published
+     */
+    void export(String source, List<Timer> timers) throws IOException;
+}
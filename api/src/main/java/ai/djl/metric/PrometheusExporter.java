@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * A {@link MetricsExporter} that writes {@link Timer}s in the Prometheus text exposition format.
+ *
+ * <p>Each timer is written as a summary named {@code djl_latency_seconds} with the {@code source}
+ * and {@code stage} labels and the 0.5, 0.9 and 0.99 quantiles. The file is replaced atomically so
+ * that it can be served by the node exporter textfile collector. Use {@link #write(Writer, String,
+ * List)} to write to any other destination, such as a socket.
+ */
+public class PrometheusExporter implements MetricsExporter {
+
+    private static final String NAME = "djl_latency_seconds";
+    private static final int[] PERCENTILES = {50, 90, 99};
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99"};
+
+    private Path file;
+
+    /**
+     * Constructs a {@code PrometheusExporter} that writes to the given file.
+     *
+     * @param file the file to write to
+     */
+    public PrometheusExporter(Path file) {
+        this.file = file;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void export(String source, List<Timer> timers) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            write(writer, source, timers);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the given {@link Timer}s in the Prometheus text exposition format.
+     *
+     * @param writer the {@link Writer} to write to
+     * @param source the name of the component that owns the timers
+     * @param timers the timers to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(Writer writer, String source, List<Timer> timers)
+            throws IOException {
+        writer.write("# TYPE " + NAME + " summary\n");
+        for (Timer timer : timers) {
+            Histogram histogram = timer.getHistogram();
+            String labels =
+                    "source=\"" + escape(source) + "\",stage=\"" + escape(timer.getName()) + '"';
+            for (int i = 0; i < PERCENTILES.length; ++i) {
+                double value = histogram.percentile(PERCENTILES[i]);
+                writer.write(NAME + '{' + labels + ",quantile=\"" + QUANTILES[i] + "\"} ");
+                writer.write(seconds(value) + '\n');
+            }
+            writer.write(NAME + "_sum{" + labels + "} " + seconds(histogram.getSum()) + '\n');
+            writer.write(NAME + "_count{" + labels + "} " + histogram.getCount() + '\n');
+        }
+        writer.flush();
+    }
+
+    private static String seconds(double nanos) {
+        if (Double.isNaN(nanos)) {
+            return "NaN";
+        }
+        return String.valueOf(nanos / 1_000_000_000d);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
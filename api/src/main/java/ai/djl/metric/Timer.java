@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+/**
+ * A named, always-on latency recorder backed by a {@link Histogram}.
+ *
+ * <p>Recording a duration does not allocate and does not lock, so a {@code Timer} can be kept
+ * enabled in production. Timers are published by a {@link MetricsExporter}.
+ */
+public class Timer {
+
+    private String name;
+    private Histogram histogram;
+
+    /**
+     * Constructs a {@code Timer} with the given name.
+     *
+     * @param name the name of the timer
+     */
+    public Timer(String name) {
+        this.name = name;
+        histogram = new Histogram();
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Returns the name of the {@code Timer}.
+     *
+     * @return the name of the {@code Timer}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the {@link Histogram} of recorded durations in nanoseconds.
+     *
+     * @return the {@link Histogram} of recorded durations in nanoseconds
+     */
+    public Histogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+/**
+ * The JMX management interface of a {@link Timer}.
+ *
+ * <p>All durations are in nanoseconds.
+ *
+ * @see JmxExporter
+ */
+public interface TimerMXBean {
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the number of recorded durations
+     */
+    long getCount();
+
+    /**
+     * Returns the average duration.
+     *
+     * @return the average duration
+     */
+    double getMean();
+
+    /**
+     * Returns the longest duration.
+     *
+     * @return the longest duration
+     */
+    double getMax();
+
+    /**
+     * Returns the 50th percentile duration.
+     *
+     * @return the 50th percentile duration
+     */
+    double getP50();
+
+    /**
+     * Returns the 90th percentile duration.
+     *
+     * @return the 90th percentile duration
+     */
+    double getP90();
+
+    /**
+     * Returns the 99th percentile duration.
+     *
+     * @return the 99th percentile duration
+     */
+    double getP99();
+}
@@ -13,6 +13,7 @@
 package ai.djl.modality.cv;
 
 import ai.djl.modality.cv.util.BufferedImageUtils;
+import ai.djl.modality.cv.util.ImagePreprocessor;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
@@ -30,6 +31,7 @@ public abstract class ImageTranslator<T> implements Translator<BufferedImage, T>
 
     private NDImageUtils.Flag flag;
     private Pipeline pipeline;
+    private ImagePreprocessor preprocessor;
 
     /**
      * Constructs an ImageTranslator with the provided builder.
@@ -39,6 +41,7 @@ public abstract class ImageTranslator<T> implements Translator<BufferedImage, T>
     public ImageTranslator(BaseBuilder<?> builder) {
         flag = builder.flag;
         pipeline = builder.pipeline;
+        preprocessor = builder.preprocessor;
     }
 
     /** {@inheritDoc} */
@@ -50,14 +53,23 @@ public abstract class ImageTranslator<T> implements Translator<BufferedImage, T>
     /**
      * Processes the {@code BufferedImage} input and converts it to NDList.
      *
+     * <p>If an {@link ImagePreprocessor} is set, the image is converted by it and the {@link
+     * Pipeline}, if any, is applied to its output.
+     *
      * @param ctx the toolkit that helps create the input NDArray
      * @param input the {@code BufferedImage} input
      * @return a {@link NDList}
      */
     @Override
     public NDList processInput(TranslatorContext ctx, BufferedImage input) {
-        NDArray array = BufferedImageUtils.toNDArray(ctx.getNDManager(), input, flag);
-        return pipeline.transform(new NDList(array));
+        NDArray array;
+        if (preprocessor != null) {
+            array = preprocessor.preprocess(ctx.getNDManager(), input);
+        } else {
+            array = BufferedImageUtils.toNDArray(ctx.getNDManager(), input, flag);
+        }
+        NDList list = new NDList(array);
+        return pipeline == null ? list : pipeline.transform(list);
     }
 
     /**
@@ -70,6 +82,7 @@ public abstract class ImageTranslator<T> implements Translator<BufferedImage, T>
 
         protected NDImageUtils.Flag flag = NDImageUtils.Flag.COLOR;
         protected Pipeline pipeline;
+        protected ImagePreprocessor preprocessor;
 
         /**
          * Sets the optional {@link ai.djl.modality.cv.util.NDImageUtils.Flag} (default is {@link
@@ -94,6 +107,21 @@ public abstract class ImageTranslator<T> implements Translator<BufferedImage, T>
             return self();
         }
 
+        /**
+         * Sets the {@link ImagePreprocessor} that converts the image to an {@link NDArray}.
+         *
+         * <p>The preprocessor resizes, crops, and normalizes the image in a single pass, replacing
+         * the equivalent transforms of the {@link Pipeline}. Its flag takes precedence over the
+         * flag of this builder.
+         *
+         * @param preprocessor the image preprocessor
+         * @return this builder
+         */
+        public T optImagePreprocessor(ImagePreprocessor preprocessor) {
+            this.preprocessor = preprocessor;
+            return self();
+        }
+
         protected abstract T self();
     }
 }
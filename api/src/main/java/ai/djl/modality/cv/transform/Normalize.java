@@ -38,4 +38,10 @@ public class Normalize implements Transform {
     public NDArray transform(NDArray array) {
         return NDImageUtils.normalize(array, mean, std);
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isBatchable() {
+        return true;
+    }
 }
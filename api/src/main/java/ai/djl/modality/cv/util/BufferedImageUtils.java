@@ -113,7 +113,28 @@ public final class BufferedImageUtils {
             channel = 3;
         }
 
-        ByteBuffer bb = manager.allocateDirect(channel * height * width);
+        ByteBuffer bb = manager.borrowDirect(channel * height * width);
+        toByteBuffer(image, flag, bb);
+        bb.rewind();
+        NDArray array = manager.create(bb, new Shape(height, width, channel), DataType.UINT8);
+        manager.releaseDirect(bb);
+        return array;
+    }
+
+    /**
+     * Writes the pixels of a {@code BufferedImage} to a buffer in HWC layout, one unsigned byte per
+     * channel.
+     *
+     * <p>The buffer must have {@code height * width * channels} bytes remaining, its position is
+     * advanced by that amount.
+     *
+     * @param image the buffered image to be converted
+     * @param flag the color mode
+     * @param bb the buffer to write the pixels to
+     */
+    public static void toByteBuffer(BufferedImage image, NDImageUtils.Flag flag, ByteBuffer bb) {
+        int width = image.getWidth();
+        int height = image.getHeight();
         if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
             byte[] data = ((DataBufferByte) image.getData().getDataBuffer()).getData();
             for (byte gray : data) {
@@ -141,8 +162,6 @@ public final class BufferedImageUtils {
                 }
             }
         }
-        bb.rewind();
-        return manager.create(bb, new Shape(height, width, channel), DataType.UINT8);
     }
 
     /**
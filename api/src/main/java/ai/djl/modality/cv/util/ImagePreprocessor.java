@@ -0,0 +1,559 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * {@code ImagePreprocessor} converts a {@link BufferedImage} into a normalized CHW float tensor in
+ * a single pass.
+ *
+ * <p>It produces the same result as the {@link ai.djl.modality.cv.transform.Resize}, {@link
+ * ai.djl.modality.cv.transform.CenterCrop}, {@link ai.djl.modality.cv.transform.ToTensor}, and
+ * {@link ai.djl.modality.cv.transform.Normalize} transforms applied in that order, up to rounding.
+ * Instead of converting the whole image to an NDArray and running one native operation per
+ * transform, it reads the pixels straight from the raster of the image, only decodes the rows and
+ * columns that survive the crop, and writes the normalized result into a pooled direct buffer that
+ * is copied to native memory once.
+ *
+ * <pre>
+ * ImagePreprocessor preprocessor =
+ *         ImagePreprocessor.builder()
+ *                 .optResize(256, 256)
+ *                 .optCenterCrop(224, 224)
+ *                 .optNormalize(new float[] {0.485f, 0.456f, 0.406f},
+ *                         new float[] {0.229f, 0.224f, 0.225f})
+ *                 .build();
+ * NDArray array = preprocessor.preprocess(manager, image);
+ * </pre>
+ *
+ * <p>An {@code ImagePreprocessor} is immutable and can be shared between threads.
+ */
+public final class ImagePreprocessor {
+
+    private int resizeWidth;
+    private int resizeHeight;
+    private boolean crop;
+    private int cropWidth;
+    private int cropHeight;
+    private Interpolation interpolation;
+    private int channels;
+    private float[] scale;
+    private float[] offset;
+    private ThreadLocal<Scratch> scratch;
+
+    ImagePreprocessor(Builder builder) {
+        resizeWidth = builder.resizeWidth;
+        resizeHeight = builder.resizeHeight;
+        crop = builder.crop;
+        cropWidth = builder.cropWidth;
+        cropHeight = builder.cropHeight;
+        interpolation = builder.interpolation;
+        channels = builder.flag == NDImageUtils.Flag.GRAYSCALE ? 1 : 3;
+        // (pixel / 255 - mean) / std is folded into pixel * scale + offset
+        scale = new float[channels];
+        offset = new float[channels];
+        for (int c = 0; c < channels; ++c) {
+            float mean = builder.mean == null ? 0f : builder.mean[c];
+            float std = builder.std == null ? 1f : builder.std[c];
+            scale[c] = 1f / (255f * std);
+            offset[c] = -mean / std;
+        }
+        scratch = ThreadLocal.withInitial(Scratch::new);
+    }
+
+    /**
+     * Creates a builder to build an {@code ImagePreprocessor}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the {@link Shape} of the tensor produced for an image of the given size.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @return the {@link Shape} of the tensor, in CHW layout
+     */
+    public Shape getOutputShape(int width, int height) {
+        Region region = new Region(width, height);
+        return new Shape(channels, region.height, region.width);
+    }
+
+    /**
+     * Preprocesses an image into a new {@link NDArray} of {@link DataType#FLOAT32} in CHW layout.
+     *
+     * @param manager the {@link NDManager} to create the {@link NDArray} with
+     * @param image the image to preprocess
+     * @return the preprocessed image
+     */
+    public NDArray preprocess(NDManager manager, BufferedImage image) {
+        Shape shape = getOutputShape(image.getWidth(), image.getHeight());
+        return create(manager, shape, new BufferedImage[] {image});
+    }
+
+    /**
+     * Preprocesses a batch of images into a single {@link NDArray} of {@link DataType#FLOAT32} in
+     * NCHW layout.
+     *
+     * <p>Each image is written straight into its row of the batch, so the batch is copied to
+     * native memory once and never stacked.
+     *
+     * @param manager the {@link NDManager} to create the {@link NDArray} with
+     * @param images the images to preprocess
+     * @return the preprocessed batch
+     * @throws IllegalArgumentException if the images do not all produce the same shape
+     */
+    public NDArray preprocess(NDManager manager, List<BufferedImage> images) {
+        BufferedImage[] array = images.toArray(new BufferedImage[0]);
+        Shape shape = getOutputShape(array[0].getWidth(), array[0].getHeight());
+        for (BufferedImage image : array) {
+            Shape other = getOutputShape(image.getWidth(), image.getHeight());
+            if (!shape.equals(other)) {
+                throw new IllegalArgumentException(
+                        "All images must have the same output shape, expected "
+                                + shape
+                                + " but got "
+                                + other);
+            }
+        }
+        return create(manager, new Shape(array.length).addAll(shape), array);
+    }
+
+    /**
+     * Preprocesses an image into a buffer.
+     *
+     * <p>The tensor is written in CHW layout at the current position of the buffer, whose
+     * position is advanced by the size of the tensor.
+     *
+     * @param image the image to preprocess
+     * @param dest the buffer to write the tensor into
+     */
+    public void preprocess(BufferedImage image, FloatBuffer dest) {
+        int srcWidth = image.getWidth();
+        int srcHeight = image.getHeight();
+        Region region = new Region(srcWidth, srcHeight);
+        int width = region.width;
+        int height = region.height;
+        int resizedWidth = resizeWidth > 0 ? resizeWidth : srcWidth;
+        int resizedHeight = resizeHeight > 0 ? resizeHeight : srcHeight;
+        Taps xTaps = new Taps(srcWidth, resizedWidth, region.x, width, interpolation);
+        Taps yTaps = new Taps(srcHeight, resizedHeight, region.y, height, interpolation);
+
+        Scratch s = scratch.get();
+        int srcX = xTaps.first;
+        int srcCols = xTaps.last - srcX;
+        int srcY = yTaps.first;
+        int srcRows = yTaps.last - srcY;
+        int[] pixels = s.pixels(srcCols);
+        float[] rows = s.rows(channels * srcRows * width);
+        float[] out = s.out(width);
+
+        // horizontal pass: decode every source row once and resample it to the output width,
+        // one plane per channel
+        int plane = srcRows * width;
+        for (int r = 0; r < srcRows; ++r) {
+            readRow(image, srcX, srcY + r, srcCols, pixels);
+            int base = r * width;
+            for (int x = 0; x < width; ++x) {
+                int start = xTaps.start[x] - srcX;
+                int index = x * xTaps.maxCount;
+                float red = 0;
+                float green = 0;
+                float blue = 0;
+                for (int k = 0; k < xTaps.count[x]; ++k) {
+                    int rgb = pixels[start + k];
+                    float w = xTaps.weights[index + k];
+                    red += w * ((rgb >> 16) & 0xFF);
+                    green += w * ((rgb >> 8) & 0xFF);
+                    blue += w * (rgb & 0xFF);
+                }
+                if (channels == 1) {
+                    rows[base + x] = (red + green + blue) / 3f;
+                } else {
+                    rows[base + x] = red;
+                    rows[plane + base + x] = green;
+                    rows[2 * plane + base + x] = blue;
+                }
+            }
+        }
+
+        // vertical pass: blend the resampled rows and normalize, row by row of the output
+        for (int c = 0; c < channels; ++c) {
+            int channelBase = c * plane;
+            float a = scale[c];
+            float b = offset[c];
+            for (int y = 0; y < height; ++y) {
+                int start = yTaps.start[y] - srcY;
+                int index = y * yTaps.maxCount;
+                int count = yTaps.count[y];
+                float w0 = yTaps.weights[index];
+                int row0 = channelBase + start * width;
+                for (int x = 0; x < width; ++x) {
+                    out[x] = w0 * rows[row0 + x];
+                }
+                for (int k = 1; k < count; ++k) {
+                    float w = yTaps.weights[index + k];
+                    int row = channelBase + (start + k) * width;
+                    for (int x = 0; x < width; ++x) {
+                        out[x] += w * rows[row + x];
+                    }
+                }
+                for (int x = 0; x < width; ++x) {
+                    out[x] = out[x] * a + b;
+                }
+                dest.put(out, 0, width);
+            }
+        }
+    }
+
+    private NDArray create(NDManager manager, Shape shape, BufferedImage[] images) {
+        int size = Math.toIntExact(shape.size());
+        ByteBuffer bb = manager.borrowDirect(size * 4);
+        try {
+            FloatBuffer fb = bb.asFloatBuffer();
+            for (BufferedImage image : images) {
+                preprocess(image, fb);
+            }
+            fb.rewind();
+            return manager.create(fb, shape, DataType.FLOAT32);
+        } finally {
+            manager.releaseDirect(bb);
+        }
+    }
+
+    /**
+     * Reads a row of pixels as {@code 0xRRGGBB} integers.
+     *
+     * <p>Common image types are read from their backing arrays directly, other types go through
+     * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+     */
+    private static void readRow(BufferedImage image, int x, int y, int width, int[] dest) {
+        Raster raster = image.getRaster();
+        SampleModel model = raster.getSampleModel();
+        int sx = x - raster.getSampleModelTranslateX();
+        int sy = y - raster.getSampleModelTranslateY();
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_INT_BGR:
+                {
+                    DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+                    int[] data = buffer.getData();
+                    int pos =
+                            ((SinglePixelPackedSampleModel) model).getOffset(sx, sy)
+                                    + buffer.getOffset();
+                    boolean bgr = image.getType() == BufferedImage.TYPE_INT_BGR;
+                    for (int i = 0; i < width; ++i) {
+                        int pixel = data[pos + i];
+                        dest[i] =
+                                bgr
+                                        ? (pixel & 0xFF) << 16
+                                                | (pixel & 0xFF00)
+                                                | (pixel >> 16) & 0xFF
+                                        : pixel & 0xFFFFFF;
+                    }
+                    return;
+                }
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_4BYTE_ABGR:
+            case BufferedImage.TYPE_BYTE_GRAY:
+                {
+                    ComponentSampleModel components = (ComponentSampleModel) model;
+                    DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+                    byte[] data = buffer.getData();
+                    int stride = components.getPixelStride();
+                    int pos =
+                            sy * components.getScanlineStride() + sx * stride + buffer.getOffset();
+                    int[] bands = components.getBandOffsets();
+                    int r = bands[0];
+                    int g = bands.length > 1 ? bands[1] : r;
+                    int b = bands.length > 1 ? bands[2] : r;
+                    for (int i = 0; i < width; ++i) {
+                        dest[i] =
+                                (data[pos + r] & 0xFF) << 16
+                                        | (data[pos + g] & 0xFF) << 8
+                                        | data[pos + b] & 0xFF;
+                        pos += stride;
+                    }
+                    return;
+                }
+            default:
+                image.getRGB(x, y, width, 1, dest, 0, width);
+        }
+    }
+
+    /** The interpolation used to resize images. */
+    public enum Interpolation {
+        /** Bilinear interpolation between the four nearest pixels. */
+        BILINEAR,
+        /**
+         * The average of the pixels covered by the output pixel, which avoids aliasing when
+         * shrinking images. Bilinear interpolation is used to enlarge images.
+         */
+        AREA
+    }
+
+    /** The region of the resized image that is kept by the center crop. */
+    private final class Region {
+
+        int x;
+        int y;
+        int width;
+        int height;
+
+        Region(int srcWidth, int srcHeight) {
+            width = resizeWidth > 0 ? resizeWidth : srcWidth;
+            height = resizeHeight > 0 ? resizeHeight : srcHeight;
+            if (!crop) {
+                return;
+            }
+            int w = cropWidth;
+            int h = cropHeight;
+            if (w < 0) {
+                w = Math.min(width, height);
+                h = w;
+            }
+            // same as NDImageUtils.centerCrop, a crop larger than the image keeps that dimension
+            int dw = (width - w) / 2;
+            int dh = (height - h) / 2;
+            if (dw > 0) {
+                x = dw;
+                width = w;
+            }
+            if (dh > 0) {
+                y = dh;
+                height = h;
+            }
+        }
+    }
+
+    /**
+     * The source pixels and weights that contribute to each output pixel along one axis, for
+     * separable resampling.
+     */
+    private static final class Taps {
+
+        int[] start;
+        int[] count;
+        float[] weights;
+        int maxCount;
+        int first;
+        int last;
+
+        Taps(int srcSize, int dstSize, int dstOffset, int length, Interpolation interpolation) {
+            float ratio = (float) srcSize / dstSize;
+            boolean area = interpolation == Interpolation.AREA && ratio > 1f;
+            maxCount = area ? (int) Math.ceil(ratio) + 1 : 2;
+            start = new int[length];
+            count = new int[length];
+            weights = new float[length * maxCount];
+            first = Integer.MAX_VALUE;
+            last = 0;
+            for (int i = 0; i < length; ++i) {
+                int dst = i + dstOffset;
+                int index = i * maxCount;
+                if (area) {
+                    float begin = dst * ratio;
+                    float end = Math.min((dst + 1) * ratio, srcSize);
+                    int s = (int) begin;
+                    int n = 0;
+                    for (int p = s; p < end; ++p) {
+                        float covered = Math.min(p + 1, end) - Math.max(p, begin);
+                        weights[index + n++] = covered / (end - begin);
+                    }
+                    start[i] = s;
+                    count[i] = n;
+                } else {
+                    // pixel centers are aligned, as in OpenCV and the MXNet resize operator
+                    float src = Math.max((dst + 0.5f) * ratio - 0.5f, 0f);
+                    int s = Math.min((int) src, srcSize - 1);
+                    float w = src - s;
+                    start[i] = s;
+                    if (w > 0f && s + 1 < srcSize) {
+                        weights[index] = 1f - w;
+                        weights[index + 1] = w;
+                        count[i] = 2;
+                    } else {
+                        weights[index] = 1f;
+                        count[i] = 1;
+                    }
+                }
+                first = Math.min(first, start[i]);
+                last = Math.max(last, start[i] + count[i]);
+            }
+        }
+    }
+
+    /** Per thread buffers that are reused across images. */
+    private static final class Scratch {
+
+        private int[] pixels = new int[0];
+        private float[] rows = new float[0];
+        private float[] out = new float[0];
+
+        int[] pixels(int size) {
+            if (pixels.length < size) {
+                pixels = new int[size];
+            }
+            return pixels;
+        }
+
+        float[] rows(int size) {
+            if (rows.length < size) {
+                rows = new float[size];
+            }
+            return rows;
+        }
+
+        float[] out(int size) {
+            if (out.length < size) {
+                out = new float[size];
+            }
+            return out;
+        }
+    }
+
+    /** The Builder to construct an {@link ImagePreprocessor}. */
+    public static final class Builder {
+
+        int resizeWidth = -1;
+        int resizeHeight = -1;
+        boolean crop;
+        int cropWidth = -1;
+        int cropHeight = -1;
+        Interpolation interpolation = Interpolation.BILINEAR;
+        NDImageUtils.Flag flag = NDImageUtils.Flag.COLOR;
+        float[] mean;
+        float[] std;
+
+        Builder() {}
+
+        /**
+         * Sets the size to resize the images to.
+         *
+         * @param width the desired width
+         * @param height the desired height
+         * @return this builder
+         */
+        public Builder optResize(int width, int height) {
+            this.resizeWidth = width;
+            this.resizeHeight = height;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Interpolation} used to resize (default {@link
+         * Interpolation#BILINEAR}).
+         *
+         * @param interpolation the interpolation
+         * @return this builder
+         */
+        public Builder optInterpolation(Interpolation interpolation) {
+            this.interpolation = interpolation;
+            return this;
+        }
+
+        /**
+         * Crops the center of the resized images to a square of size {@code min(width, height)}.
+         *
+         * @return this builder
+         */
+        public Builder optCenterCrop() {
+            crop = true;
+            cropWidth = -1;
+            cropHeight = -1;
+            return this;
+        }
+
+        /**
+         * Crops the center of the resized images to the given size.
+         *
+         * @param width the desired width of the cropped image
+         * @param height the desired height of the cropped image
+         * @return this builder
+         */
+        public Builder optCenterCrop(int width, int height) {
+            crop = true;
+            cropWidth = width;
+            cropHeight = height;
+            return this;
+        }
+
+        /**
+         * Sets the mean and standard deviation to normalize each channel with, after the pixel
+         * values have been scaled to {@code [0, 1]}.
+         *
+         * @param mean the mean of each channel
+         * @param std the standard deviation of each channel
+         * @return this builder
+         * @throws IllegalArgumentException if mean or std is null, or their lengths differ
+         */
+        public Builder optNormalize(float[] mean, float[] std) {
+            if (mean == null || std == null) {
+                throw new IllegalArgumentException("mean and std must not be null");
+            }
+            if (mean.length != std.length) {
+                throw new IllegalArgumentException(
+                        "mean and std must have the same length, got "
+                                + mean.length
+                                + " and "
+                                + std.length);
+            }
+            this.mean = mean;
+            this.std = std;
+            return this;
+        }
+
+        /**
+         * Sets the color mode of the output (default {@link NDImageUtils.Flag#COLOR}).
+         *
+         * @param flag the color mode
+         * @return this builder
+         */
+        public Builder optFlag(NDImageUtils.Flag flag) {
+            this.flag = flag;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ImagePreprocessor}.
+         *
+         * @return the {@link ImagePreprocessor}
+         */
+        public ImagePreprocessor build() {
+            int channels = flag == NDImageUtils.Flag.GRAYSCALE ? 1 : 3;
+            if (mean != null && (mean.length < channels || std.length < channels)) {
+                throw new IllegalArgumentException(
+                        "mean and std must have a value for each of the " + channels + " channels");
+            }
+            return new ImagePreprocessor(this);
+        }
+    }
+}
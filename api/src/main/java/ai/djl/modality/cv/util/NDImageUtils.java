@@ -81,7 +81,7 @@ public final class NDImageUtils {
      *
      * <p>Converts an image NDArray of shape HWC in the range {@code [0, 255]} to a {@link
      * ai.djl.ndarray.types.DataType#FLOAT32} tensor NDArray of shape CHW in the range {@code [0,
-     * 1]}.
+     * 1]}. A batch of images of shape NHWC is converted to NCHW.
      *
      * @param image the image to convert
      * @return the converted image
@@ -15,29 +15,85 @@ package ai.djl.ndarray;
 import ai.djl.Device;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** {@code BaseNDManager} is the default implementation of {@link NDManager}. */
+/**
+ * {@code BaseNDManager} is the default implementation of {@link NDManager}.
+ *
+ * <p>Resources are tracked in a concurrent map without locking the manager, so that many threads
+ * can create and close {@link NDArray}s and sub-managers of a shared manager without contending
+ * with each other.
+ */
 public abstract class BaseNDManager implements NDManager {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseNDManager.class);
+    private static final AtomicLong ID_GENERATOR = new AtomicLong();
 
     protected NDManager parent;
     protected String uid;
     protected Device device;
     protected Map<String, Reference<AutoCloseable>> resources;
     protected AtomicBoolean closed = new AtomicBoolean(false);
+    protected DirectBufferPool bufferPool;
+    private Set<ByteBuffer> borrowed;
+    private Queue<ArenaEntry> arena;
+    private Set<String> detached;
 
     protected BaseNDManager(NDManager parent, Device device) {
         this.parent = parent;
         this.device = Device.defaultIfNull(device);
         resources = new ConcurrentHashMap<>();
-        uid = UUID.randomUUID().toString();
+        uid = "NDManager-" + ID_GENERATOR.incrementAndGet();
+        if (parent instanceof BaseNDManager) {
+            bufferPool = ((BaseNDManager) parent).bufferPool;
+        } else {
+            bufferPool = new DirectBufferPool();
+        }
+        borrowed = Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Resources attached to the arena are appended to a queue instead of being registered in
+     * the resource map, which avoids a hash lookup and a {@link WeakReference} per resource.
+     */
+    @Override
+    public NDManager newArenaManager() {
+        BaseNDManager manager = (BaseNDManager) newSubManager();
+        manager.arena = new ConcurrentLinkedQueue<>();
+        manager.detached = ConcurrentHashMap.newKeySet();
+        return manager;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer borrowDirect(int capacity) {
+        if (closed.get()) {
+            throw new IllegalStateException("NDManager has been closed already.");
+        }
+        ByteBuffer buf = bufferPool.acquire(capacity);
+        borrowed.add(buf);
+        return buf;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void releaseDirect(ByteBuffer buffer) {
+        if (borrowed.remove(buffer)) {
+            bufferPool.release(buffer);
+        }
     }
 
     /** {@inheritDoc} */
@@ -69,45 +125,83 @@ public abstract class BaseNDManager implements NDManager {
                 + " isOpen: "
                 + isOpen()
                 + " Resource size: "
-                + resources.size();
+                + getResourceCount();
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void attach(String resourceId, AutoCloseable resource) {
+    public void attach(String resourceId, AutoCloseable resource) {
         if (closed.get()) {
             throw new IllegalStateException("NDManager has been closed already.");
         }
-        WeakReference<AutoCloseable> ref = new WeakReference<>(resource);
-        resources.put(resourceId, ref);
+        if (arena != null) {
+            detached.remove(resourceId);
+            arena.add(new ArenaEntry(resourceId, resource));
+        } else {
+            resources.put(resourceId, new WeakReference<>(resource));
+        }
+        if (closed.get() && (arena != null || resources.remove(resourceId) != null)) {
+            // close() started concurrently and may have missed this resource
+            closeQuietly(resource);
+            throw new IllegalStateException("NDManager has been closed already.");
+        }
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void detach(String resourceId) {
+    public void detach(String resourceId) {
         if (closed.get()) {
             // This may happen in the middle of BaseNDManager.close()
             return;
         }
-        resources.remove(resourceId);
+        if (arena != null) {
+            detached.add(resourceId);
+        } else {
+            resources.remove(resourceId);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void detachCollected(String resourceId) {
+        if (arena != null) {
+            // the arena holds its resources strongly, they can't be collected
+            return;
+        }
+        Reference<AutoCloseable> ref = resources.get(resourceId);
+        if (ref != null && ref.get() == null) {
+            resources.remove(resourceId, ref);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void close() {
+    public void close() {
         if (!closed.getAndSet(true)) {
             for (Reference<AutoCloseable> resource : resources.values()) {
                 AutoCloseable closeable = resource.get();
                 if (closeable != null) {
-                    try {
-                        closeable.close();
-                    } catch (Exception e) {
-                        logger.error("Resource close failed.", e);
+                    closeQuietly(closeable);
+                }
+            }
+            if (arena != null) {
+                for (ArenaEntry entry = arena.poll(); entry != null; entry = arena.poll()) {
+                    if (!detached.contains(entry.resourceId)) {
+                        closeQuietly(entry.resource);
                     }
                 }
+                detached.clear();
+            }
+            if (parent != null) {
+                parent.detach(uid);
             }
-            parent.detach(uid);
             resources.clear();
+            // buffers that were never released may still be in use, leave them to the GC
+            borrowed.clear();
+            if (!(parent instanceof BaseNDManager)) {
+                // the root manager created the pool, no other manager uses it anymore
+                bufferPool.clear();
+            }
         }
     }
 
@@ -122,9 +216,9 @@ public abstract class BaseNDManager implements NDManager {
             sb.append("    ");
         }
         sb.append("\\--- NDManager(")
-                .append(uid.substring(24))
+                .append(uid)
                 .append(") resource count: ")
-                .append(resources.size());
+                .append(getResourceCount());
 
         System.out.println(sb.toString()); // NOPMD
         for (Reference<AutoCloseable> ref : resources.values()) {
@@ -134,4 +228,27 @@ public abstract class BaseNDManager implements NDManager {
             }
         }
     }
+
+    private int getResourceCount() {
+        return arena == null ? resources.size() : arena.size();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.error("Resource close failed.", e);
+        }
+    }
+
+    private static final class ArenaEntry {
+
+        String resourceId;
+        AutoCloseable resource;
+
+        ArenaEntry(String resourceId, AutoCloseable resource) {
+            this.resourceId = resourceId;
+            this.resource = resource;
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code DirectBufferPool} recycles direct {@link ByteBuffer}s that are used to copy data between
+ * the JVM heap and native memory.
+ *
+ * <p>Buffers are grouped in power of two size classes from {@value #MIN_CLASS_SIZE} bytes up to
+ * {@value #MAX_CLASS_SIZE} bytes. Each thread keeps one buffer per size class for itself, the rest
+ * are shared. Requests larger than the biggest size class are not pooled. The total number of idle
+ * bytes held by the pool is bounded; buffers released beyond that bound are left to the garbage
+ * collector.
+ *
+ * <p>Buffers returned by {@link #acquire(int)} are in native byte order and their content is
+ * undefined.
+ *
+ * @see NDManager#borrowDirect(int)
+ */
+public class DirectBufferPool {
+
+    static final int MIN_CLASS_SIZE = 1 << 12;
+    static final int MAX_CLASS_SIZE = 1 << 26;
+    private static final int MIN_CLASS_BITS = 12;
+    private static final int CLASSES = 26 - MIN_CLASS_BITS + 1;
+
+    private long maxPooledBytes;
+    private AtomicLong pooledBytes;
+    private List<Queue<ByteBuffer>> shared;
+    private ThreadLocal<ByteBuffer[]> local;
+
+    /** Constructs a {@code DirectBufferPool} that keeps at most 256 MB of idle buffers. */
+    public DirectBufferPool() {
+        this(256L << 20);
+    }
+
+    /**
+     * Constructs a {@code DirectBufferPool}.
+     *
+     * @param maxPooledBytes the maximum number of bytes held by idle buffers
+     */
+    public DirectBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        pooledBytes = new AtomicLong();
+        shared = new ArrayList<>(CLASSES);
+        for (int i = 0; i < CLASSES; ++i) {
+            shared.add(new ConcurrentLinkedQueue<>());
+        }
+        local = ThreadLocal.withInitial(() -> new ByteBuffer[CLASSES]);
+    }
+
+    /**
+     * Returns a direct buffer with the given capacity remaining.
+     *
+     * @param capacity the number of bytes required
+     * @return a direct buffer in native byte order with position 0 and limit {@code capacity}
+     */
+    public ByteBuffer acquire(int capacity) {
+        int sizeClass = sizeClassOf(capacity);
+        if (sizeClass < 0) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer[] cache = local.get();
+        ByteBuffer buf = cache[sizeClass];
+        if (buf != null) {
+            cache[sizeClass] = null;
+        } else {
+            buf = shared.get(sizeClass).poll();
+        }
+        if (buf == null) {
+            buf = ByteBuffer.allocateDirect(MIN_CLASS_SIZE << sizeClass);
+        } else {
+            pooledBytes.addAndGet(-buf.capacity());
+        }
+        buf.clear();
+        buf.limit(capacity);
+        return buf.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)} to the pool.
+     *
+     * <p>The buffer must not be used after it has been released. Buffers that were not created by
+     * a {@code DirectBufferPool} are ignored.
+     *
+     * @param buf the buffer to release
+     */
+    public void release(ByteBuffer buf) {
+        int cap = buf.capacity();
+        if (!buf.isDirect() || Integer.bitCount(cap) != 1 || sizeClassOf(cap) < 0) {
+            return;
+        }
+        if (pooledBytes.addAndGet(cap) > maxPooledBytes) {
+            pooledBytes.addAndGet(-cap);
+            return;
+        }
+        int sizeClass = sizeClassOf(cap);
+        ByteBuffer[] cache = local.get();
+        if (cache[sizeClass] == null) {
+            cache[sizeClass] = buf;
+        } else {
+            shared.get(sizeClass).offer(buf);
+        }
+    }
+
+    /**
+     * Returns the number of bytes held by idle buffers.
+     *
+     * @return the number of bytes held by idle buffers
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /** Drops all shared idle buffers so that their memory can be reclaimed. */
+    public void clear() {
+        for (Queue<ByteBuffer> queue : shared) {
+            ByteBuffer buf = queue.poll();
+            while (buf != null) {
+                pooledBytes.addAndGet(-buf.capacity());
+                buf = queue.poll();
+            }
+        }
+    }
+
+    static int sizeClassOf(int capacity) {
+        if (capacity > MAX_CLASS_SIZE) {
+            return -1;
+        }
+        if (capacity <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_CLASS_BITS;
+    }
+}
@@ -22,6 +22,7 @@ import ai.djl.translate.TranslatorContext;
 import ai.djl.util.PairList;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -133,6 +134,31 @@ public interface NDManager extends AutoCloseable {
      */
     ByteBuffer allocateDirect(int capacity);
 
+    /**
+     * Borrows a direct byte buffer to copy data between the JVM heap and native memory.
+     *
+     * <p>Unlike {@link #allocateDirect(int)}, the buffer may be recycled from a pool and its
+     * content is undefined. It should only be used for copies whose lifetime is bounded by the
+     * caller, and given back with {@link #releaseDirect(ByteBuffer)} as soon as the copy is done.
+     * Buffers that are never released are not recycled and are left to the garbage collector.
+     *
+     * @param capacity the number of bytes required
+     * @return a direct byte buffer in native byte order with {@code capacity} bytes remaining
+     */
+    default ByteBuffer borrowDirect(int capacity) {
+        return allocateDirect(capacity);
+    }
+
+    /**
+     * Gives back a buffer obtained from {@link #borrowDirect(int)}.
+     *
+     * <p>The buffer must not be used after it has been released. Buffers that were not borrowed
+     * from this {@code NDManager} are ignored.
+     *
+     * @param buffer the buffer to release
+     */
+    default void releaseDirect(ByteBuffer buffer) {}
+
     /**
      * Creates an uninitialized instance of {@link DataType#FLOAT32} {@link NDArray} with specified
      * {@link Shape}.
@@ -397,6 +423,35 @@ public interface NDManager extends AutoCloseable {
         return array;
     }
 
+    /**
+     * Creates an {@link NDArray} backed by the remaining bytes of a direct {@link ByteBuffer}.
+     *
+     * <p>When the engine supports it, the {@code NDArray} is a view over the buffer and no data is
+     * copied, so a region of a {@link java.nio.MappedByteBuffer} can be fed to a model straight
+     * from disk. The buffer is referenced by the {@code NDArray} and must not be modified while
+     * the {@code NDArray} is in use. Otherwise, this falls back to {@link #create(Buffer, Shape,
+     * DataType)} and the data is copied. Read-only buffers are always copied.
+     *
+     * <p>The data is always read in native byte order, regardless of {@link ByteBuffer#order()}.
+     *
+     * @param data the buffer holding the data of the {@code NDArray}
+     * @param shape the {@link Shape} of the {@link NDArray}
+     * @param dataType the {@link DataType} of the {@link NDArray}
+     * @return a new instance of {@link NDArray}
+     * @throws IllegalArgumentException if the number of remaining bytes does not match the shape
+     *     and data type
+     */
+    default NDArray wrap(ByteBuffer data, Shape shape, DataType dataType) {
+        long expected = shape.size() * dataType.getNumOfBytes();
+        if (data.remaining() != expected) {
+            throw new IllegalArgumentException(
+                    "Expected " + expected + " bytes, but buffer has " + data.remaining());
+        }
+        // slice() so that the view starts at the current position, whatever the data type
+        ByteBuffer bb = data.slice().order(ByteOrder.nativeOrder());
+        return create(dataType.asDataType(bb), shape, dataType);
+    }
+
     /**
      * Creates and initializes an instance of {@link NDArray} with specified {@link Shape} and float
      * array.
@@ -888,6 +943,20 @@ public interface NDManager extends AutoCloseable {
      */
     NDManager newSubManager(Device device);
 
+    /**
+     * Creates a child {@code NDManager} that is optimized for short-lived scopes with many
+     * temporary resources, such as a single inference request or a single training batch.
+     *
+     * <p>An arena manager keeps strong references to its resources and frees all of them in one
+     * pass when it is closed. Resources that are closed individually are only forgotten when the
+     * arena is closed, so an arena manager should not be kept open for a long time.
+     *
+     * @return a child {@code NDManager}
+     */
+    default NDManager newArenaManager() {
+        return newSubManager();
+    }
+
     /**
      * Returns the default {@link Device} of this {@code NDManager}.
      *
@@ -916,6 +985,16 @@ public interface NDManager extends AutoCloseable {
      */
     void detach(String resourceId);
 
+    /**
+     * Detaches a resource that has been garbage collected without being closed.
+     *
+     * <p>Unlike {@link #detach(String)}, the resource is only removed if {@code resourceId} does
+     * not map to a live resource, because the id of a collected resource may have been reused.
+     *
+     * @param resourceId the resourceId to be removed from this {@code NDManager}'s lifecycle
+     */
+    default void detachCollected(String resourceId) {}
+
     /**
      * An engine specific generic invocation to native operation.
      *
@@ -237,6 +237,26 @@ public interface NDArrayEx {
             float momentum,
             boolean lazyUpdate);
 
+    void multiSgdUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum);
+
+    void multiAdamUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float epsilon);
+
     ////////////////////////////////////////
     // Neural network
     ////////////////////////////////////////
@@ -424,6 +444,16 @@ public interface NDArrayEx {
         return pick(index, axis, keepDims, "clip");
     }
 
+    /**
+     * Takes the slices of the {@code NDArray} along the first axis at the given indices.
+     *
+     * <p>Out-of-bound indices are clipped to the valid range.
+     *
+     * @param indices the 1-D array of indices
+     * @return a new array whose first dimension is the number of indices
+     */
+    NDArray take(NDArray indices);
+
     /**
      * Returns elements chosen from the {@code NDArray} or the other {@code NDArray} depending on
      * condition.
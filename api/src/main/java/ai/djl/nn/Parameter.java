@@ -280,7 +280,7 @@ public class Parameter implements AutoCloseable {
 
         // Data
         int length = dis.readInt();
-        ByteBuffer data = manager.allocateDirect(length);
+        ByteBuffer data = manager.borrowDirect(length);
 
         if (length > 0) {
             byte[] buf = new byte[BUFFER_SIZE];
@@ -296,6 +296,7 @@ public class Parameter implements AutoCloseable {
         }
 
         array = manager.create(dataType.asDataType(data), shape);
+        manager.releaseDirect(data);
     }
 
     /** {@inheritDoc} */
@@ -36,6 +36,7 @@ public class DefaultTrainingConfig implements TrainingConfig {
     private List<Evaluator> evaluators;
     private List<TrainingListener> listeners;
     private int batchSize;
+    private String parameterServerType;
 
     /**
      * Creates an instance of {@code DefaultTrainingConfig} with the given {@link Loss}. {@code
@@ -121,6 +122,20 @@ public class DefaultTrainingConfig implements TrainingConfig {
         return this;
     }
 
+    /**
+     * Sets the type of {@link ParameterServer} used to update the parameters (default {@link
+     * LocalParameterServer}).
+     *
+     * @param parameterServerType the type of {@link ParameterServer}, or {@code null} for the
+     *     default
+     * @return this {@code DefaultTrainingConfig}
+     * @see TrainingConfig#getParameterServerType()
+     */
+    public DefaultTrainingConfig optParameterServerType(String parameterServerType) {
+        this.parameterServerType = parameterServerType;
+        return this;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Device[] getDevices() {
@@ -165,4 +180,10 @@ public class DefaultTrainingConfig implements TrainingConfig {
     public int getBatchSize() {
         return batchSize;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getParameterServerType() {
+        return parameterServerType;
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.ndarray.NDArray;
+
+/**
+ * {@code GradientReducer} is the strategy used by the {@link LocalParameterServer} to sum the
+ * gradients of a parameter across devices and to copy the updated parameter back to all devices.
+ *
+ * <p>The reduction is issued as soon as the gradients are pushed, so engines that execute
+ * operations asynchronously overlap it with the rest of the backward pass and with the reduction
+ * of the other parameters.
+ */
+public interface GradientReducer {
+
+    /**
+     * Sums the arrays pairwise along a binary tree. It takes log2(n) rounds, and the copies within
+     * a round run in parallel.
+     */
+    GradientReducer TREE = new TreeGradientReducer();
+
+    /**
+     * Reduce-scatter and all-gather along a ring of devices. Each device only sends 1/n of the
+     * array per round, so the traffic per link stays constant as devices are added.
+     */
+    GradientReducer RING = new RingGradientReducer();
+
+    /**
+     * Sums the given arrays, one for each device.
+     *
+     * <p>The arrays may be modified in place.
+     *
+     * @param grads the arrays to sum
+     * @return the sum on the device of the first array
+     */
+    NDArray reduce(NDArray[] grads);
+
+    /**
+     * Copies the first array to all other arrays.
+     *
+     * @param arrays the arrays, one for each device
+     */
+    void broadcast(NDArray[] arrays);
+
+    /**
+     * Returns the {@code GradientReducer} with the given name.
+     *
+     * @param name the name, either {@code tree} or {@code ring}
+     * @return the {@code GradientReducer}, or {@code null} if there is none with the given name
+     */
+    static GradientReducer fromName(String name) {
+        switch (name) {
+            case "tree":
+                return TREE;
+            case "ring":
+                return RING;
+            default:
+                return null;
+        }
+    }
+}
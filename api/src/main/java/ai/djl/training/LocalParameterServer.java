@@ -12,18 +12,23 @@
  */
 package ai.djl.training;
 
-import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.training.optimizer.Optimizer;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-/** {@code LocalParameterServer} is an implementation of the {@code ParameterServer} interface. */
+/**
+ * {@code LocalParameterServer} is an implementation of the {@code ParameterServer} interface.
+ *
+ * <p>Gradients are reduced with a {@link GradientReducer} as soon as they are pushed. On pull, the
+ * optimizer updates the parameter once on the first device and the result is broadcast to the
+ * other devices.
+ */
 public class LocalParameterServer implements ParameterServer {
 
     private Optimizer optimizer;
-    private Map<String, NDArray[]> gradMap;
+    private GradientReducer reducer;
+    private Map<String, NDArray> gradMap;
 
     /**
      * Create a new instance of {@code LocalParameterServer} for the given optimizer.
@@ -31,7 +36,18 @@ public class LocalParameterServer implements ParameterServer {
      * @param optimizer an optimizer
      */
     public LocalParameterServer(Optimizer optimizer) {
+        this(optimizer, GradientReducer.TREE);
+    }
+
+    /**
+     * Create a new instance of {@code LocalParameterServer} for the given optimizer.
+     *
+     * @param optimizer an optimizer
+     * @param reducer the strategy used to reduce gradients across devices
+     */
+    public LocalParameterServer(Optimizer optimizer, GradientReducer reducer) {
         this.optimizer = optimizer;
+        this.reducer = reducer;
         gradMap = new ConcurrentHashMap<>();
     }
 
@@ -42,37 +58,54 @@ public class LocalParameterServer implements ParameterServer {
     /** {@inheritDoc} */
     @Override
     public void push(String parameterId, NDArray[] grads, int priority) {
-        NDArray[] oldGrads = gradMap.put(parameterId, grads);
-        if (oldGrads != null) {
-            Arrays.stream(oldGrads).forEach(NDArray::close);
+        NDArray oldGrad = gradMap.put(parameterId, reducer.reduce(grads));
+        if (oldGrad != null) {
+            oldGrad.close();
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public void pull(String parameterId, NDArray[] weights, int priority) {
-        NDArray[] grads = gradMap.get(parameterId);
-        Device firstDevice = grads[0].getDevice();
-        // reduce gradient from all devices to first device
-        for (int i = 1; i < grads.length; i++) {
-            try (NDArray gradCopy = grads[i].toDevice(firstDevice, true)) {
-                grads[0].addi(gradCopy);
-            }
+        NDArray grad = takeGradient(parameterId, weights[0]);
+        optimizer.update(parameterId, weights[0], grad);
+        grad.close();
+        reducer.broadcast(weights);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pull(String[] parameterIds, NDArray[][] weights) {
+        NDArray[] firstWeights = new NDArray[parameterIds.length];
+        NDArray[] grads = new NDArray[parameterIds.length];
+        for (int i = 0; i < parameterIds.length; ++i) {
+            firstWeights[i] = weights[i][0];
+            grads[i] = takeGradient(parameterIds[i], firstWeights[i]);
         }
-        // update weights on different devices with reduced gradient
-        for (NDArray weight : weights) {
-            if (weight.getDevice().equals(firstDevice)) {
-                optimizer.update(parameterId, weight, grads[0]);
-            } else {
-                try (NDArray gradSumCopy = grads[0].toDevice(weight.getDevice(), true)) {
-                    optimizer.update(parameterId, weight, gradSumCopy);
-                }
-            }
+        optimizer.update(parameterIds, firstWeights, grads);
+        for (int i = 0; i < parameterIds.length; ++i) {
+            grads[i].close();
+            reducer.broadcast(weights[i]);
         }
-        Arrays.stream(grads).forEach(NDArray::close);
     }
 
     /** {@inheritDoc} */
     @Override
-    public void close() {}
+    public void close() {
+        gradMap.values().forEach(NDArray::close);
+        gradMap.clear();
+    }
+
+    private NDArray takeGradient(String parameterId, NDArray weight) {
+        NDArray grad = gradMap.remove(parameterId);
+        if (grad == null) {
+            throw new IllegalStateException("No gradient pushed for parameter: " + parameterId);
+        }
+        if (!grad.getDevice().equals(weight.getDevice())) {
+            NDArray gradCopy = grad.toDevice(weight.getDevice(), true);
+            grad.close();
+            grad = gradCopy;
+        }
+        return grad;
+    }
 }
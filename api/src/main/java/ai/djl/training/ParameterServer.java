@@ -48,6 +48,22 @@ public interface ParameterServer extends AutoCloseable {
      */
     void pull(String parameterId, NDArray[] weights, int priority);
 
+    /**
+     * Pulls the values of several keys from Parameter Server to NDArrays.
+     *
+     * <p>This lets the Parameter Server update all parameters together, see {@link
+     * ai.djl.training.optimizer.Optimizer#update(String[], NDArray[], NDArray[])}. The default
+     * implementation pulls one key at a time, with decreasing priority.
+     *
+     * @param parameterIds the keys to pull
+     * @param weights the NDArrays to store the values, one array of NDArrays for each key
+     */
+    default void pull(String[] parameterIds, NDArray[][] weights) {
+        for (int i = 0; i < parameterIds.length; ++i) {
+            pull(parameterIds[i], weights[i], -i);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     void close();
@@ -18,7 +18,9 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.nn.Parameter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,7 +45,8 @@ public class ParameterStore {
     public ParameterStore(NDManager manager, boolean copy) {
         this.manager = manager;
         this.copy = copy;
-        parameterMap = new ConcurrentHashMap<>();
+        // keep the parameters in the order of the network, which is the order used for priorities
+        parameterMap = Collections.synchronizedMap(new LinkedHashMap<>());
         deviceMap = new ConcurrentHashMap<>();
         deviceMap.put(manager.getDevice(), 0);
     }
@@ -64,33 +67,49 @@ public class ParameterStore {
         }
     }
 
-    /** Updates all the mirrored parameters. */
+    /**
+     * Updates all the mirrored parameters.
+     *
+     * <p>The gradients of all parameters are pushed before any parameter is pulled, so that a
+     * {@link ParameterServer} that works asynchronously can overlap the reduction of a parameter
+     * with the update of the others. Parameters earlier in the network get a higher priority
+     * because they are needed first by the next forward pass. All parameters are then pulled
+     * together so that the optimizer can update them in as few operations as possible.
+     */
     public void updateAllParameters() {
-        int priority = 0;
-        for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
-            String parameterId = entry.getKey();
-            ParameterData data = entry.getValue();
-            if (data.requireGradient()) {
-                NDArray[] grads =
-                        data.getNDArrays()
-                                .stream()
-                                .map(NDArray::getGradient)
-                                .toArray(NDArray[]::new);
-                parameterServer.push(parameterId, grads, -priority);
-                ++priority;
+        List<NDArray> gradients = new ArrayList<>();
+        synchronized (parameterMap) {
+            int priority = 0;
+            for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
+                String parameterId = entry.getKey();
+                ParameterData data = entry.getValue();
+                if (data.requireGradient()) {
+                    NDArray[] grads =
+                            data.getNDArrays()
+                                    .stream()
+                                    .map(NDArray::getGradient)
+                                    .toArray(NDArray[]::new);
+                    parameterServer.push(parameterId, grads, -priority);
+                    gradients.addAll(Arrays.asList(grads));
+                    ++priority;
+                }
             }
-        }
 
-        priority = 0;
-        for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
-            String parameterId = entry.getKey();
-            ParameterData data = entry.getValue();
-            if (data.requireGradient()) {
-                NDArray[] values = data.toArray();
-                parameterServer.pull(parameterId, values, -priority);
-                ++priority;
+            String[] parameterIds = new String[priority];
+            NDArray[][] values = new NDArray[priority][];
+            int i = 0;
+            for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
+                ParameterData data = entry.getValue();
+                if (data.requireGradient()) {
+                    parameterIds[i] = entry.getKey();
+                    values[i] = data.toArray();
+                    ++i;
+                }
             }
+            parameterServer.pull(parameterIds, values);
         }
+        // only the handles are released, the gradient memory stays attached to the parameters
+        gradients.forEach(NDArray::close);
     }
 
     /**
@@ -140,8 +159,10 @@ public class ParameterStore {
 
     /** Synchronizes the values on all mirrors with the main parameter. */
     public void sync() {
-        for (ParameterData data : parameterMap.values()) {
-            data.sync();
+        synchronized (parameterMap) {
+            for (ParameterData data : parameterMap.values()) {
+                data.sync();
+            }
         }
     }
 
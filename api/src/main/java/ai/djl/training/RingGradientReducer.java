@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrays;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.Shape;
+
+/**
+ * {@code RingGradientReducer} splits every array into one chunk per device and passes the chunks
+ * around a ring of devices.
+ */
+final class RingGradientReducer implements GradientReducer {
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray reduce(NDArray[] grads) {
+        int n = grads.length;
+        Shape shape = grads[0].getShape();
+        if (n == 1 || shape.size() < n) {
+            return TREE.reduce(grads);
+        }
+
+        int[] indices = chunkIndices(shape.size(), n);
+        NDList[] chunks = new NDList[n];
+        for (int d = 0; d < n; ++d) {
+            try (NDArray flat = grads[d].flatten()) {
+                chunks[d] = flat.split(indices);
+            }
+        }
+
+        // reduce-scatter: in each step, device d adds its chunk (d - step) into device d + 1.
+        // After n - 1 steps, device d holds the full sum of chunk (d + 1) % n.
+        for (int step = 0; step < n - 1; ++step) {
+            for (int d = 0; d < n; ++d) {
+                int dst = (d + 1) % n;
+                int c = Math.floorMod(d - step, n);
+                NDArray target = chunks[dst].get(c);
+                try (NDArray copy = chunks[d].get(c).toDevice(target.getDevice(), true)) {
+                    target.addi(copy);
+                }
+            }
+        }
+
+        // gather the reduced chunks on the first device
+        Device device = grads[0].getDevice();
+        NDList gathered = new NDList(n);
+        for (int c = 0; c < n; ++c) {
+            gathered.add(chunks[Math.floorMod(c - 1, n)].get(c).toDevice(device, true));
+        }
+        NDArray sum;
+        try (NDArray flat = NDArrays.concat(gathered)) {
+            sum = flat.reshape(shape);
+        }
+        gathered.close();
+        for (NDList list : chunks) {
+            list.close();
+        }
+        return sum;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void broadcast(NDArray[] arrays) {
+        int n = arrays.length;
+        Shape shape = arrays[0].getShape();
+        if (n == 1 || shape.size() < n) {
+            TREE.broadcast(arrays);
+            return;
+        }
+
+        // every chunk travels along the ring, so the copies of different chunks are pipelined
+        // and each link carries the array only once
+        NDList chunks;
+        try (NDArray flat = arrays[0].flatten()) {
+            chunks = flat.split(chunkIndices(shape.size(), n));
+        }
+        for (int d = 1; d < n; ++d) {
+            Device device = arrays[d].getDevice();
+            NDList next = new NDList(n);
+            for (NDArray chunk : chunks) {
+                next.add(chunk.toDevice(device, true));
+            }
+            try (NDArray flat = NDArrays.concat(next);
+                    NDArray value = flat.reshape(shape)) {
+                value.copyTo(arrays[d]);
+            }
+            chunks.close();
+            chunks = next;
+        }
+        chunks.close();
+    }
+
+    private static int[] chunkIndices(long size, int n) {
+        int[] indices = new int[n - 1];
+        for (int i = 1; i < n; ++i) {
+            indices[i - 1] = Math.toIntExact(size * i / n);
+        }
+        return indices;
+    }
+}
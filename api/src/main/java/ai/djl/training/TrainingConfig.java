@@ -82,4 +82,19 @@ public interface TrainingConfig {
      * @return the batch size
      */
     int getBatchSize();
+
+    /**
+     * Returns the type of {@link ParameterServer} that aggregates the gradients from all devices
+     * and updates the parameters.
+     *
+     * <p>{@code null}, {@code tree}, and {@code ring} select the {@link LocalParameterServer} with
+     * the {@link GradientReducer} of that name, {@code null} meaning {@link GradientReducer#TREE}.
+     * Other types are engine specific, for example the MXNet engine accepts the KVStore types
+     * {@code local}, {@code device}, {@code dist_sync}, and {@code dist_device_sync}.
+     *
+     * @return the type of {@link ParameterServer}, or {@code null} for the default
+     */
+    default String getParameterServerType() {
+        return null;
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.ndarray.NDArray;
+
+/** {@code TreeGradientReducer} reduces and broadcasts arrays along a binary tree. */
+final class TreeGradientReducer implements GradientReducer {
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray reduce(NDArray[] grads) {
+        // after the round with a given stride, grads[i] holds the sum of grads[i, i + 2 * stride)
+        for (int stride = 1; stride < grads.length; stride <<= 1) {
+            for (int i = 0; i + stride < grads.length; i += stride << 1) {
+                try (NDArray copy = grads[i + stride].toDevice(grads[i].getDevice(), true)) {
+                    grads[i].addi(copy);
+                }
+            }
+        }
+        return grads[0];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void broadcast(NDArray[] arrays) {
+        for (int stride = Integer.highestOneBit(arrays.length - 1); stride > 0; stride >>= 1) {
+            for (int i = 0; i + stride < arrays.length; i += stride << 1) {
+                arrays[i].copyTo(arrays[i + stride]);
+            }
+        }
+    }
+}
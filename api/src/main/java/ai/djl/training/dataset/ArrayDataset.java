@@ -15,6 +15,7 @@ package ai.djl.training.dataset;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import java.io.IOException;
 import java.util.stream.Stream;
 
 /**
@@ -86,6 +87,63 @@ public class ArrayDataset extends RandomAccessDataset {
         return new Record(datum, label);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The batch is gathered with {@link #gather(NDManager, long[])}. If the {@link
+     * ai.djl.translate.Pipeline} of the dataset is {@link ai.djl.translate.Pipeline#isBatchable()
+     * batchable}, it is then applied to the whole batch. Otherwise, this falls back to applying it
+     * to each record.
+     *
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    @Override
+    public Record getBatch(NDManager manager, long[] indices) throws IOException {
+        long size = size();
+        for (long index : indices) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(
+                        "Index " + index + " out of range for dataset of size " + size);
+            }
+        }
+        if (pipeline != null && !pipeline.isBatchable()) {
+            return super.getBatch(manager, indices);
+        }
+        Record record = gather(manager, indices);
+        if (pipeline == null) {
+            return record;
+        }
+        return new Record(pipeline.transform(record.getData()), record.getLabels());
+    }
+
+    /**
+     * Gathers the untransformed data and labels at the given indices into a single batch.
+     *
+     * <p>Each array of the dataset is gathered with a single {@code take} along its first axis.
+     * The indices have already been checked to be in range.
+     *
+     * @param manager the manager used to create the arrays
+     * @param indices the indices of the requested data items
+     * @return a {@link Record} that contains the batched data and labels
+     */
+    protected Record gather(NDManager manager, long[] indices) {
+        NDList datum = new NDList();
+        NDList label = new NDList();
+        try (NDArray index = data[0].getManager().create(indices)) {
+            for (NDArray array : data) {
+                datum.add(array.getNDArrayInternal().take(index));
+            }
+            if (labels != null) {
+                for (NDArray array : labels) {
+                    label.add(array.getNDArrayInternal().take(index));
+                }
+            }
+        }
+        datum.attach(manager);
+        label.attach(manager);
+        return new Record(datum, label);
+    }
+
     /** The Builder to construct an {@link ArrayDataset}. */
     public static final class Builder extends BaseBuilder<Builder> {
 
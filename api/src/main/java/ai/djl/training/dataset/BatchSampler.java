@@ -13,8 +13,11 @@
 package ai.djl.training.dataset;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
  * {@code BatchSampler} is a {@link Sampler} that returns a single epoch over the data.
@@ -49,7 +52,7 @@ public class BatchSampler implements Sampler {
      * @param subSampler the {@link ai.djl.training.dataset.Sampler.SubSampler} to sample from
      * @param batchSize the required batch size
      * @param dropLast whether the {@code BatchSampler} should drop the last few samples in case the
-     *     size of the dataset is not a multiple of batch size
+     *     number of sampled items is not a multiple of batch size
      */
     public BatchSampler(Sampler.SubSampler subSampler, int batchSize, boolean dropLast) {
         this.subSampler = subSampler;
@@ -60,7 +63,32 @@ public class BatchSampler implements Sampler {
     /** {@inheritDoc} */
     @Override
     public Iterator<List<Long>> sample(RandomAccessDataset dataset) {
-        return new Iterate(dataset);
+        Iterator<long[]> it = sampleIndices(dataset);
+        return new Iterator<List<Long>>() {
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public List<Long> next() {
+                long[] batch = it.next();
+                List<Long> list = new ArrayList<>(batch.length);
+                for (long index : batch) {
+                    list.add(index);
+                }
+                return list;
+            }
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<long[]> sampleIndices(RandomAccessDataset dataset) {
+        return new Iterate(subSampler.sampleIndices(dataset));
     }
 
     /** {@inheritDoc} */
@@ -69,40 +97,46 @@ public class BatchSampler implements Sampler {
         return batchSize;
     }
 
-    class Iterate implements Iterator<List<Long>> {
+    class Iterate implements Iterator<long[]> {
 
-        private long size;
-        private long current;
-        private Iterator<Long> itemSampler;
+        private PrimitiveIterator.OfLong itemSampler;
+        private long[] next;
 
-        Iterate(RandomAccessDataset dataset) {
-            current = 0;
-            if (dropLast) {
-                this.size = dataset.size() / batchSize;
-            } else {
-                this.size = (dataset.size() + batchSize - 1) / batchSize;
-            }
-            itemSampler = subSampler.sample(dataset);
+        Iterate(PrimitiveIterator.OfLong itemSampler) {
+            this.itemSampler = itemSampler;
+            next = fill();
         }
 
         /** {@inheritDoc} */
         @Override
         public boolean hasNext() {
-            return current < size;
+            return next != null;
         }
 
         /** {@inheritDoc} */
         @Override
-        public List<Long> next() {
-            List<Long> batchIndices = new ArrayList<>();
-            while (itemSampler.hasNext()) {
-                batchIndices.add(itemSampler.next());
-                if (batchIndices.size() == batchSize) {
-                    break;
-                }
+        public long[] next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            long[] batch = next;
+            next = fill();
+            return batch;
+        }
+
+        private long[] fill() {
+            long[] batch = new long[batchSize];
+            int size = 0;
+            while (size < batchSize && itemSampler.hasNext()) {
+                batch[size++] = itemSampler.nextLong();
+            }
+            if (size == batchSize) {
+                return batch;
+            }
+            if (size == 0 || dropLast) {
+                return null;
             }
-            current++;
-            return batchIndices;
+            return Arrays.copyOf(batch, size);
         }
     }
 }
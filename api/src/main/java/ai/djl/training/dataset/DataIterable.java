@@ -17,11 +17,11 @@ import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Pipeline;
+import ai.djl.translate.StackBatchifier;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -50,7 +50,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     private long maxIteration;
     private Device device;
 
-    private Iterator<List<Long>> sample;
+    private Iterator<long[]> sample;
     // for multithreading
     private Queue<Future<Batch>> queue;
     private long count;
@@ -89,7 +89,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         this.maxIteration = maxIteration;
         this.device = device;
 
-        sample = sampler.sample(dataset);
+        sample = sampler.sampleIndices(dataset);
         if (executor != null) {
             queue = new LinkedList<>();
             // prefetch
@@ -131,7 +131,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     public Batch next() {
         if (executor == null) {
             // single thread data loading with blocking fetch
-            List<Long> indices = sample.next();
+            long[] indices = sample.next();
             try {
                 return fetch(indices);
             } catch (IOException e) {
@@ -151,25 +151,34 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         }
     }
 
-    private Batch fetch(List<Long> indices) throws IOException {
-        NDManager subManager = manager.newSubManager();
-        NDList[] data = new NDList[indices.size()];
-        NDList[] labels = new NDList[indices.size()];
-        for (int i = 0; i < indices.size(); i++) {
-            Record record = dataset.get(subManager, indices.get(i));
-            data[i] = record.getData();
-            // apply transform
-            if (pipeline != null) {
-                data[i] = pipeline.transform(data[i]);
+    private Batch fetch(long[] indices) throws IOException {
+        NDManager subManager = manager.newArenaManager();
+        NDList batchData;
+        NDList batchLabels;
+        if (pipeline == dataset.pipeline && batchifier instanceof StackBatchifier) {
+            // the dataset can build the whole batch at once
+            Record record = dataset.getBatch(subManager, indices);
+            batchData = record.getData();
+            batchLabels = record.getLabels();
+        } else {
+            NDList[] data = new NDList[indices.length];
+            NDList[] labels = new NDList[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                Record record = dataset.get(subManager, indices[i]);
+                data[i] = record.getData();
+                // apply transform
+                if (pipeline != null) {
+                    data[i] = pipeline.transform(data[i]);
+                }
+
+                labels[i] = record.getLabels();
             }
+            batchData = batchifier.batchify(data);
+            batchLabels = batchifier.batchify(labels);
 
-            labels[i] = record.getLabels();
+            Arrays.stream(data).forEach(NDList::close);
+            Arrays.stream(labels).forEach(NDList::close);
         }
-        NDList batchData = batchifier.batchify(data);
-        NDList batchLabels = batchifier.batchify(labels);
-
-        Arrays.stream(data).forEach(NDList::close);
-        Arrays.stream(labels).forEach(NDList::close);
 
         // apply label transform
         if (targetPipeline != null) {
@@ -184,11 +193,10 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     }
 
     private void preFetch() {
-        List<Long> indices;
         if (!sample.hasNext()) {
             return;
         }
-        indices = sample.next();
+        long[] indices = sample.next();
         Callable<Batch> task = new PreFetchCallable(indices);
         Future<Batch> result = executor.submit(task);
         queue.offer(result);
@@ -196,9 +204,9 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
 
     class PreFetchCallable implements Callable<Batch> {
 
-        private List<Long> indices;
+        private long[] indices;
 
-        public PreFetchCallable(List<Long> indices) {
+        public PreFetchCallable(long[] indices) {
             this.indices = indices;
         }
 
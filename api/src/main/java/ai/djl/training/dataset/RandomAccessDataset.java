@@ -13,10 +13,12 @@
 package ai.djl.training.dataset;
 
 import ai.djl.Device;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Pipeline;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.RandomAccess;
 import java.util.concurrent.ExecutorService;
 
@@ -62,6 +64,57 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
      */
     public abstract Record get(NDManager manager, long index) throws IOException;
 
+    /**
+     * Gets the {@link Record}s for the given indices with the {@link Pipeline} of the dataset
+     * applied, stacked into a single batch.
+     *
+     * <p>The result is the same as calling {@link #get(NDManager, long)} for each index, applying
+     * the {@link Pipeline} to the data, and stacking the data and labels with {@link
+     * Batchifier#STACK}. The default implementation does exactly that. Datasets that can gather the
+     * whole batch at once, without creating an {@link ai.djl.ndarray.NDArray} per record, should
+     * override it.
+     *
+     * <p>{@link DataIterable} uses this method for every batch that it stacks. The target {@link
+     * Pipeline} is not applied.
+     *
+     * @param manager the manager used to create the arrays
+     * @param indices the indices of the requested data items
+     * @return a {@link Record} that contains the batched data and labels
+     * @throws IOException if an I/O error occurs
+     */
+    public Record getBatch(NDManager manager, long[] indices) throws IOException {
+        NDList[] data = new NDList[indices.length];
+        NDList[] labels = new NDList[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            Record record = get(manager, indices[i]);
+            data[i] = record.getData();
+            labels[i] = record.getLabels();
+        }
+        return batchify(data, labels);
+    }
+
+    /**
+     * Applies the {@link Pipeline} to the data of each record and stacks the records into a batch.
+     *
+     * <p>The per record {@link NDList}s are closed.
+     *
+     * @param data the data of each record
+     * @param labels the labels of each record
+     * @return a {@link Record} that contains the batched data and labels
+     */
+    protected Record batchify(NDList[] data, NDList[] labels) {
+        if (pipeline != null) {
+            for (int i = 0; i < data.length; i++) {
+                data[i] = pipeline.transform(data[i]);
+            }
+        }
+        NDList batchData = Batchifier.STACK.batchify(data);
+        NDList batchLabels = Batchifier.STACK.batchify(labels);
+        Arrays.stream(data).forEach(NDList::close);
+        Arrays.stream(labels).forEach(NDList::close);
+        return new Record(batchData, batchLabels);
+    }
+
     /** {@inheritDoc} */
     @Override
     public Iterable<Batch> getData(NDManager manager) {
@@ -15,16 +15,24 @@ package ai.djl.training.dataset;
 import ai.djl.util.RandomUtils;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.Random;
-import java.util.stream.LongStream;
 
 /**
  * {@code RandomSampler} is an implementation of the {@link
  * ai.djl.training.dataset.Sampler.SubSampler} interface.
  *
  * <p>{@code RandomSampler} samples the data from [0, dataset.size) randomly.
+ *
+ * <p>The permutation is computed lazily by a keyed Feistel network over the smallest power of four
+ * that covers the dataset, and values outside the dataset are skipped by cycle walking. It takes
+ * constant memory and supports datasets of any size, including beyond {@link Integer#MAX_VALUE}
+ * records.
  */
 public class RandomSampler implements Sampler.SubSampler {
+
+    private static final int ROUNDS = 4;
+
     private Integer seed;
 
     /** Creates a new instance of {@code RandomSampler}. */
@@ -39,50 +47,73 @@ public class RandomSampler implements Sampler.SubSampler {
         this.seed = seed;
     }
 
-    private static void swap(long[] arr, int i, int j) {
-        long tmp = arr[i];
-        arr[i] = arr[j];
-        arr[j] = tmp;
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Long> sample(RandomAccessDataset dataset) {
+        return sampleIndices(dataset);
     }
 
     /** {@inheritDoc} */
     @Override
-    public Iterator<Long> sample(RandomAccessDataset dataset) {
-        return new Iterate(dataset, seed);
+    public PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+        Random rnd = (seed != null) ? new Random(seed) : RandomUtils.RANDOM;
+        return new Iterate(dataset.size(), rnd);
     }
 
-    static class Iterate implements Iterator<Long> {
+    static final class Iterate implements PrimitiveIterator.OfLong {
 
-        private long[] indices;
+        private long size;
         private long current;
+        private int halfBits;
+        private long mask;
+        private long[] keys;
 
-        Iterate(RandomAccessDataset dataset, Integer seed) {
-            long size = dataset.size();
-            current = 0;
-            indices = LongStream.range(0, size).toArray();
-            Random rnd = (seed != null) ? new Random(seed) : RandomUtils.RANDOM;
-            // java array didn't support index greater than max integer
-            // so cast to int for now
-            for (int i = Math.toIntExact(size) - 1; i > 0; --i) {
-                swap(indices, i, rnd.nextInt(i));
+        Iterate(long size, Random rnd) {
+            this.size = size;
+            int bits = 64 - Long.numberOfLeadingZeros(Math.max(size - 1, 1));
+            halfBits = (bits + 1) / 2;
+            mask = (1L << halfBits) - 1;
+            keys = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; ++i) {
+                keys[i] = rnd.nextLong();
             }
         }
 
         /** {@inheritDoc} */
         @Override
         public boolean hasNext() {
-            return current < indices.length;
+            return current < size;
         }
 
         /** {@inheritDoc} */
         @Override
-        public Long next() {
+        public long nextLong() {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            // java array didn't support index greater than max integer
-            // so cast to int for now
-            return indices[Math.toIntExact(current++)];
+            long value = current++;
+            // the network permutes [0, 4^halfBits), walk until the value lands in [0, size)
+            do {
+                value = encrypt(value);
+            } while (Long.compareUnsigned(value, size) >= 0);
+            return value;
+        }
+
+        private long encrypt(long value) {
+            long left = value >>> halfBits;
+            long right = value & mask;
+            for (long key : keys) {
+                long tmp = right;
+                right = left ^ (mix(right ^ key) & mask);
+                left = tmp;
+            }
+            return left << halfBits | right;
+        }
+
+        private static long mix(long value) {
+            long z = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
         }
     }
 }
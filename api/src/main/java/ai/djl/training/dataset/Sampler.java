@@ -14,6 +14,7 @@ package ai.djl.training.dataset;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 /**
  * An interface for sampling data items from a {@link RandomAccessDataset}.
@@ -25,6 +26,12 @@ import java.util.List;
  *
  * <p>Many of the samplers may also make use of {@link SubSampler}s which sample not in batches but
  * in individual data item indices.
+ *
+ * <p>{@link #sampleIndices(RandomAccessDataset)} and {@link
+ * SubSampler#sampleIndices(RandomAccessDataset)} are the primitive forms of the iterators, which
+ * yield {@code long[]} batches and unboxed indices. The built-in samplers implement them directly,
+ * and the data loading of {@link RandomAccessDataset} only uses them. Samplers that only implement
+ * the boxed forms are adapted.
  */
 public interface Sampler {
 
@@ -38,6 +45,34 @@ public interface Sampler {
      */
     Iterator<List<Long>> sample(RandomAccessDataset dataset);
 
+    /**
+     * Fetches an iterator that iterates through the given {@link RandomAccessDataset} in
+     * mini-batches of indices, without boxing the indices.
+     *
+     * <p>The default implementation converts the batches of {@link #sample(RandomAccessDataset)}.
+     *
+     * @param dataset the {@link RandomAccessDataset} to sample from
+     * @return an iterator that iterates through the given {@link RandomAccessDataset} in
+     *     mini-batches of indices
+     */
+    default Iterator<long[]> sampleIndices(RandomAccessDataset dataset) {
+        Iterator<List<Long>> it = sample(dataset);
+        return new Iterator<long[]>() {
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long[] next() {
+                return it.next().stream().mapToLong(Long::longValue).toArray();
+            }
+        };
+    }
+
     /**
      * Returns the batch size of the {@code Sampler}.
      *
@@ -57,5 +92,37 @@ public interface Sampler {
          *     RandomAccessDataset}
          */
         Iterator<Long> sample(RandomAccessDataset dataset);
+
+        /**
+         * Fetches an iterator that iterates through the indices of the given {@link
+         * RandomAccessDataset}, without boxing the indices.
+         *
+         * <p>The default implementation unboxes the indices of {@link
+         * #sample(RandomAccessDataset)}.
+         *
+         * @param dataset the {@link RandomAccessDataset} to sample from
+         * @return an iterator that iterates through the indices of the given {@link
+         *     RandomAccessDataset}
+         */
+        default PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+            Iterator<Long> it = sample(dataset);
+            if (it instanceof PrimitiveIterator.OfLong) {
+                return (PrimitiveIterator.OfLong) it;
+            }
+            return new PrimitiveIterator.OfLong() {
+
+                /** {@inheritDoc} */
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                /** {@inheritDoc} */
+                @Override
+                public long nextLong() {
+                    return it.next();
+                }
+            };
+        }
     }
 }
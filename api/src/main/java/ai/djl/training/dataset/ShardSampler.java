@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * {@code ShardSampler} is a {@link ai.djl.training.dataset.Sampler.SubSampler} that restricts
+ * another {@link ai.djl.training.dataset.Sampler.SubSampler} to one shard of its output, for
+ * distributed training.
+ *
+ * <p>Of the indices produced by the wrapped sampler, the shard {@code k} of {@code n} keeps those
+ * at positions {@code k, k + n, k + 2n, ...}. When every worker wraps a sampler that produces the
+ * same sequence, for example a {@link RandomSampler} with the same seed, the shards are disjoint
+ * and together cover the whole sequence.
+ *
+ * <p>All the shards have the same length: if the length of the sequence is not a multiple of
+ * {@code n}, the last round is padded by wrapping around to the start of the sequence, so every
+ * shard yields {@code ceil(length / n)} indices and a few indices are sampled twice per epoch.
+ * This keeps workers that synchronize on every batch, such as with a {@code dist_sync} parameter
+ * server, in lockstep.
+ *
+ * <p>Every shard still iterates over the whole sequence of the wrapped sampler and skips the
+ * indices of the other shards, so each worker pays the cost of generating the full permutation.
+ *
+ * <pre>
+ * Sampler sampler =
+ *         new BatchSampler(new ShardSampler(new RandomSampler(epoch), numWorkers, rank), 32);
+ * </pre>
+ */
+public class ShardSampler implements Sampler.SubSampler {
+
+    private Sampler.SubSampler subSampler;
+    private int numShards;
+    private int shardIndex;
+
+    /**
+     * Creates a new instance of {@code ShardSampler}.
+     *
+     * @param subSampler the {@link ai.djl.training.dataset.Sampler.SubSampler} to shard
+     * @param numShards the total number of shards
+     * @param shardIndex the index of the shard to sample, from 0 to {@code numShards - 1}
+     */
+    public ShardSampler(Sampler.SubSampler subSampler, int numShards, int shardIndex) {
+        if (numShards < 1 || shardIndex < 0 || shardIndex >= numShards) {
+            throw new IllegalArgumentException(
+                    "Invalid shard " + shardIndex + " of " + numShards + " shards");
+        }
+        this.subSampler = subSampler;
+        this.numShards = numShards;
+        this.shardIndex = shardIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Long> sample(RandomAccessDataset dataset) {
+        return sampleIndices(dataset);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+        return new Iterate(subSampler.sampleIndices(dataset));
+    }
+
+    final class Iterate implements PrimitiveIterator.OfLong {
+
+        private PrimitiveIterator.OfLong it;
+        // the first round of the sequence, used to pad the last round
+        private long[] head;
+        private int headSize;
+        private long next;
+        private boolean hasNext;
+
+        Iterate(PrimitiveIterator.OfLong it) {
+            this.it = it;
+            head = new long[numShards];
+            advance();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long nextLong() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            long ret = next;
+            advance();
+            return ret;
+        }
+
+        private void advance() {
+            int count = 0;
+            while (count < numShards && it.hasNext()) {
+                long index = it.nextLong();
+                if (headSize < numShards) {
+                    head[headSize++] = index;
+                }
+                if (count == shardIndex) {
+                    next = index;
+                }
+                ++count;
+            }
+            hasNext = count > 0;
+            if (hasNext && count <= shardIndex) {
+                // the last round is short, wrap around to the start of the sequence
+                next = head[(shardIndex - count) % headSize];
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.util.RandomUtils;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+/**
+ * {@code WeightedRandomSampler} is a {@link ai.djl.training.dataset.Sampler.SubSampler} that
+ * samples indices with replacement, each with a probability proportional to its weight.
+ *
+ * <p>It is typically used to rebalance datasets with skewed classes. The weights are preprocessed
+ * into an alias table, so each index is drawn in constant time.
+ */
+public class WeightedRandomSampler implements Sampler.SubSampler {
+
+    private double[] probabilities;
+    private int[] aliases;
+    private long numSamples;
+    private Integer seed;
+
+    /**
+     * Creates a new instance of {@code WeightedRandomSampler} that draws as many samples as there
+     * are weights.
+     *
+     * @param weights the weight of each index of the dataset, which need not sum to one
+     */
+    public WeightedRandomSampler(double[] weights) {
+        this(weights, weights.length, null);
+    }
+
+    /**
+     * Creates a new instance of {@code WeightedRandomSampler}.
+     *
+     * @param weights the weight of each index of the dataset, which need not sum to one
+     * @param numSamples the number of samples to draw per epoch
+     * @param seed the value of the seed, or {@code null} for a random seed
+     */
+    public WeightedRandomSampler(double[] weights, long numSamples, Integer seed) {
+        this.numSamples = numSamples;
+        this.seed = seed;
+        buildAliasTable(weights);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Long> sample(RandomAccessDataset dataset) {
+        return sampleIndices(dataset);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+        if (dataset.size() < probabilities.length) {
+            throw new IllegalArgumentException(
+                    "The dataset has "
+                            + dataset.size()
+                            + " items, but "
+                            + probabilities.length
+                            + " weights are given");
+        }
+        Random rnd = (seed != null) ? new Random(seed) : RandomUtils.RANDOM;
+        return new Iterate(rnd);
+    }
+
+    /** Builds the alias table with Vose's method. */
+    private void buildAliasTable(double[] weights) {
+        int n = weights.length;
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            sum += weight;
+        }
+        if (n == 0 || sum <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        probabilities = new double[n];
+        aliases = new int[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; ++i) {
+            probabilities[i] = weights[i] * n / sum;
+            if (probabilities[i] < 1) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+        while (numSmall > 0 && numLarge > 0) {
+            int less = small[--numSmall];
+            int more = large[--numLarge];
+            aliases[less] = more;
+            probabilities[more] += probabilities[less] - 1;
+            if (probabilities[more] < 1) {
+                small[numSmall++] = more;
+            } else {
+                large[numLarge++] = more;
+            }
+        }
+        // whatever is left is 1 up to rounding errors
+        while (numLarge > 0) {
+            probabilities[large[--numLarge]] = 1;
+        }
+        while (numSmall > 0) {
+            probabilities[small[--numSmall]] = 1;
+        }
+    }
+
+    final class Iterate implements PrimitiveIterator.OfLong {
+
+        private Random rnd;
+        private long current;
+
+        Iterate(Random rnd) {
+            this.rnd = rnd;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return current < numSamples;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current++;
+            int column = rnd.nextInt(probabilities.length);
+            return rnd.nextDouble() < probabilities[column] ? column : aliases[column];
+        }
+    }
+}
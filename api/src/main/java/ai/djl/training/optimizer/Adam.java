@@ -12,13 +12,10 @@
  */
 package ai.djl.training.optimizer;
 
-import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.internal.NDArrayEx;
 import ai.djl.training.optimizer.learningrate.LearningRateTracker;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@code Adam} is a generalization of the AdaGrad {@link Optimizer}.
@@ -34,13 +31,16 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Adam extends Optimizer {
 
+    // bounded by the number of arrays a multi-tensor Adam kernel accepts
+    private static final int MAX_GROUP_SIZE = 32;
+
     private LearningRateTracker learningRateTracker;
     private float beta1;
     private float beta2;
     private float epsilon;
 
-    private Map<String, Map<Device, NDArray>> means;
-    private Map<String, Map<Device, NDArray>> variances;
+    private OptimizerState means;
+    private OptimizerState variances;
 
     /**
      * Creates a new instance of {@code Adam} optimizer.
@@ -53,37 +53,18 @@ public class Adam extends Optimizer {
         beta1 = builder.beta1;
         beta2 = builder.beta2;
         epsilon = builder.epsilon;
-        means = new ConcurrentHashMap<>();
-        variances = new ConcurrentHashMap<>();
+        means = new OptimizerState();
+        variances = new OptimizerState();
     }
 
     /** {@inheritDoc} */
     @Override
     public void update(String parameterId, NDArray weight, NDArray grad) {
-        int t = updateCount(parameterId);
-        double coef1 = 1.0 - Math.pow(beta1, t);
-        double coef2 = 1.0 - Math.pow(beta2, t);
-        float lr = learningRateTracker.getNewLearningRate(t);
-        float newLearningRate = (float) (lr * Math.sqrt(coef2) / coef1);
+        int index = getIndex(parameterId);
+        float newLearningRate = getNewLearningRate(index);
         float weightDecay = getWeightDecay();
-
-        if (Float.isNaN(newLearningRate)
-                || Float.isNaN(weightDecay)
-                || Float.isInfinite(newLearningRate)
-                || Float.isInfinite(weightDecay)) {
-            throw new IllegalStateException("learning rate or weight decay is nan or infinite");
-        }
         NDList inputs =
-                new NDList(
-                        weight,
-                        grad,
-                        withDefaultState(
-                                means, parameterId, weight.getDevice(), k -> weight.zerosLike()),
-                        withDefaultState(
-                                variances,
-                                parameterId,
-                                weight.getDevice(),
-                                k -> weight.zerosLike()));
+                new NDList(weight, grad, means.get(index, weight), variances.get(index, weight));
         NDList weights = new NDList(weight);
 
         NDArrayEx ex = weight.getNDArrayInternal();
@@ -100,6 +81,70 @@ public class Adam extends Optimizer {
                 epsilon,
                 true);
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Parameters are only updated together when the weight decay is 0. The multi-tensor kernel
+     * decouples the weight decay from the gradient, which is not equivalent to Adam otherwise.
+     */
+    @Override
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        if (getWeightDecay() != 0f) {
+            super.update(parameterIds, weights, grads);
+            return;
+        }
+        for (int[] group : groupParameters(weights, grads, MAX_GROUP_SIZE)) {
+            if (group.length == 1) {
+                int i = group[0];
+                update(parameterIds[i], weights[i], grads[i]);
+                continue;
+            }
+            float[] learningRates = new float[group.length];
+            NDList inputs = new NDList(group.length * 4);
+            NDList outputs = new NDList(group.length);
+            for (int j = 0; j < group.length; ++j) {
+                int i = group[j];
+                int index = getIndex(parameterIds[i]);
+                learningRates[j] = getNewLearningRate(index);
+                inputs.add(weights[i]);
+                inputs.add(grads[i]);
+                inputs.add(means.get(index, weights[i]));
+                inputs.add(variances.get(index, weights[i]));
+                outputs.add(weights[i]);
+            }
+
+            NDArrayEx ex = outputs.head().getNDArrayInternal();
+            ex.multiAdamUpdate(
+                    inputs,
+                    outputs,
+                    learningRates,
+                    new float[group.length],
+                    rescaleGrad,
+                    clipGrad,
+                    beta1,
+                    beta2,
+                    epsilon);
+        }
+    }
+
+    private float getNewLearningRate(int index) {
+        int t = updateCount(index);
+        double coef1 = 1.0 - Math.pow(beta1, t);
+        double coef2 = 1.0 - Math.pow(beta2, t);
+        float lr = learningRateTracker.getNewLearningRate(t);
+        float newLearningRate = (float) (lr * Math.sqrt(coef2) / coef1);
+        float weightDecay = getWeightDecay();
+
+        if (Float.isNaN(newLearningRate)
+                || Float.isNaN(weightDecay)
+                || Float.isInfinite(newLearningRate)
+                || Float.isInfinite(weightDecay)) {
+            throw new IllegalStateException("learning rate or weight decay is nan or infinite");
+        }
+        return newLearningRate;
+    }
+
     /** The Builder to construct an {@link Adam} object. */
     public static final class Builder extends OptimizerBuilder<Builder> {
 
@@ -13,13 +13,10 @@
 
 package ai.djl.training.optimizer;
 
-import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.internal.NDArrayEx;
 import ai.djl.training.optimizer.learningrate.LearningRateTracker;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@code Nag} is a Nesterov accelerated gradient optimizer.
@@ -32,7 +29,7 @@ public class Nag extends Optimizer {
 
     private LearningRateTracker learningRateTracker;
     private float momentum;
-    private Map<String, Map<Device, NDArray>> momentumStates;
+    private OptimizerState momentumStates;
 
     /**
      * Creates a new instance of {@code Nag} optimizer.
@@ -43,26 +40,19 @@ public class Nag extends Optimizer {
         super(builder);
         learningRateTracker = builder.learningRateTracker;
         momentum = builder.momentum;
-        momentumStates = new ConcurrentHashMap<>();
+        momentumStates = new OptimizerState();
     }
 
     /** {@inheritDoc} */
     @Override
     public void update(String parameterId, NDArray weight, NDArray grad) {
         // TODO: Support Mixed precision Sparse
-        float newLearningRate = learningRateTracker.getNewLearningRate(updateCount(parameterId));
+        int index = getIndex(parameterId);
+        float newLearningRate = learningRateTracker.getNewLearningRate(updateCount(index));
         float weightDecay = getWeightDecay();
         NDList inputs;
         if (momentum != 0f) {
-            inputs =
-                    new NDList(
-                            weight,
-                            grad,
-                            withDefaultState(
-                                    momentumStates,
-                                    parameterId,
-                                    weight.getDevice(),
-                                    k -> weight.zerosLike()));
+            inputs = new NDList(weight, grad, momentumStates.get(index, weight));
         } else {
             inputs = new NDList(weight, grad);
         }
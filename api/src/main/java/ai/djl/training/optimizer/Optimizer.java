@@ -14,8 +14,14 @@ package ai.djl.training.optimizer;
 
 import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.types.SparseFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
@@ -29,7 +35,9 @@ public abstract class Optimizer {
     private float weightDecays;
     private int beginNumUpdate;
     private int numUpdate;
-    private Map<String, Integer> updateCounts = new ConcurrentHashMap<>();
+    private Map<String, Integer> indices = new ConcurrentHashMap<>();
+    private AtomicInteger nextIndex = new AtomicInteger();
+    private int[] updateCounts = new int[16];
 
     /**
      * Creates a new instance of {@code Optimizer}.
@@ -82,11 +90,29 @@ public abstract class Optimizer {
         return weightDecays;
     }
 
+    /**
+     * Returns the index of a parameter, assigned in the order the parameters are first updated.
+     *
+     * <p>Optimizers should keep per parameter state in arrays indexed by this value.
+     *
+     * @param parameterId the parameter ID
+     * @return the index of the parameter
+     */
+    protected final int getIndex(String parameterId) {
+        return indices.computeIfAbsent(parameterId, k -> nextIndex.getAndIncrement());
+    }
+
     protected int updateCount(String parameterId) {
-        // if index exists, increment update count, if not, use begin number of update + 1
-        int count =
-                updateCounts.compute(
-                        parameterId, (key, val) -> (val == null) ? beginNumUpdate + 1 : val + 1);
+        return updateCount(getIndex(parameterId));
+    }
+
+    protected synchronized int updateCount(int index) {
+        if (index >= updateCounts.length) {
+            int length = Math.max(index + 1, updateCounts.length * 2);
+            updateCounts = Arrays.copyOf(updateCounts, length);
+        }
+        // the first update of a parameter is counted as the begin number of update + 1
+        int count = beginNumUpdate + ++updateCounts[index];
         numUpdate = Math.max(numUpdate, count);
         return numUpdate;
     }
@@ -100,6 +126,61 @@ public abstract class Optimizer {
      */
     public abstract void update(String parameterId, NDArray weight, NDArray grad);
 
+    /**
+     * Updates several parameters according to their gradients.
+     *
+     * <p>Optimizers that support it update all parameters that share a device and data type with
+     * a single native operation, which saves an operator launch per parameter. The default
+     * implementation calls {@link #update(String, NDArray, NDArray)} for each parameter.
+     *
+     * @param parameterIds the parameters to be updated
+     * @param weights the weights of each parameter
+     * @param grads the gradients of each parameter
+     */
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        for (int i = 0; i < parameterIds.length; ++i) {
+            update(parameterIds[i], weights[i], grads[i]);
+        }
+    }
+
+    /**
+     * Splits parameters into groups that can be updated by a single multi-tensor operation.
+     *
+     * <p>The parameters of a group share the same device and data type, and have dense
+     * gradients. Parameters with sparse weights or gradients are returned in groups of one.
+     *
+     * @param weights the weights of each parameter
+     * @param grads the gradients of each parameter
+     * @param maxGroupSize the maximum number of parameters in a group
+     * @return the groups, as indices into {@code weights}
+     */
+    protected static List<int[]> groupParameters(
+            NDArray[] weights, NDArray[] grads, int maxGroupSize) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        List<int[]> ret = new ArrayList<>();
+        for (int i = 0; i < weights.length; ++i) {
+            NDArray weight = weights[i];
+            if (weight.getSparseFormat() != SparseFormat.DENSE
+                    || grads[i].getSparseFormat() != SparseFormat.DENSE) {
+                ret.add(new int[] {i});
+                continue;
+            }
+            String key = weight.getDevice().toString() + weight.getDataType();
+            List<Integer> group = groups.computeIfAbsent(key, k -> new ArrayList<>());
+            group.add(i);
+            if (group.size() == maxGroupSize) {
+                ret.add(group.stream().mapToInt(Integer::intValue).toArray());
+                group.clear();
+            }
+        }
+        for (List<Integer> group : groups.values()) {
+            if (!group.isEmpty()) {
+                ret.add(group.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        return ret;
+    }
+
     protected NDArray withDefaultState(
             Map<String, Map<Device, NDArray>> state,
             String key,
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.optimizer;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import java.util.Arrays;
+
+/**
+ * {@code OptimizerState} holds a state array, such as a momentum, for every parameter and device.
+ *
+ * <p>States are indexed by {@link Optimizer#getIndex(String)}, and created as zeros on first use.
+ */
+final class OptimizerState {
+
+    private NDArray[][] states = new NDArray[16][];
+
+    /**
+     * Returns the state of a parameter on the device of the given weight.
+     *
+     * @param index the index of the parameter
+     * @param weight the weight of the parameter
+     * @return the state of the parameter
+     */
+    synchronized NDArray get(int index, NDArray weight) {
+        if (index >= states.length) {
+            states = Arrays.copyOf(states, Math.max(index + 1, states.length * 2));
+        }
+        NDArray[] copies = states[index];
+        if (copies == null) {
+            NDArray state = weight.zerosLike();
+            // the state outlives the managers of the weights passed to the optimizer, it is
+            // closed by the GC once the optimizer is out of scope
+            state.detach();
+            states[index] = new NDArray[] {state};
+            return state;
+        }
+        Device device = weight.getDevice();
+        for (NDArray copy : copies) {
+            if (copy.getDevice().equals(device)) {
+                return copy;
+            }
+        }
+        NDArray state = copies[0].toDevice(device, true);
+        copies = Arrays.copyOf(copies, copies.length + 1);
+        copies[copies.length - 1] = state;
+        states[index] = copies;
+        return state;
+    }
+}
@@ -12,13 +12,11 @@
  */
 package ai.djl.training.optimizer;
 
-import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.internal.NDArrayEx;
 import ai.djl.training.optimizer.learningrate.LearningRateTracker;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
 
 /**
  * {@code Sgd} is a Stochastic Gradient Descent (SDG) optimizer.
@@ -33,9 +31,12 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Sgd extends Optimizer {
 
+    // bounded by the number of arrays a multi_sgd kernel accepts
+    private static final int MAX_GROUP_SIZE = 32;
+
     private LearningRateTracker learningRateTracker;
     private float momentum;
-    private Map<String, Map<Device, NDArray>> momentumStates;
+    private OptimizerState momentumStates;
 
     /**
      * Creates a new instance of {@code Sgd}.
@@ -46,7 +47,7 @@ public class Sgd extends Optimizer {
         super(builder);
         learningRateTracker = builder.learningRateTracker;
         momentum = builder.momentum;
-        momentumStates = new ConcurrentHashMap<>();
+        momentumStates = new OptimizerState();
     }
 
     /** {@inheritDoc} */
@@ -54,16 +55,11 @@ public class Sgd extends Optimizer {
     public void update(String parameterId, NDArray weight, NDArray grad) {
         // TODO: Support Mixed precision Sparse
         float weightDecay = getWeightDecay();
-        float learningRate = learningRateTracker.getNewLearningRate(updateCount(parameterId));
+        int index = getIndex(parameterId);
+        float learningRate = learningRateTracker.getNewLearningRate(updateCount(index));
         NDList inputs;
         if (momentum != 0f) {
-            NDArray state =
-                    withDefaultState(
-                            momentumStates,
-                            parameterId,
-                            weight.getDevice(),
-                            k -> weight.zerosLike());
-            inputs = new NDList(weight, grad, state);
+            inputs = new NDList(weight, grad, momentumStates.get(index, weight));
         } else {
             inputs = new NDList(weight, grad);
         }
@@ -74,6 +70,45 @@ public class Sgd extends Optimizer {
                 inputs, weights, learningRate, weightDecay, rescaleGrad, clipGrad, momentum, true);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        float weightDecay = getWeightDecay();
+        for (int[] group : groupParameters(weights, grads, MAX_GROUP_SIZE)) {
+            if (group.length == 1) {
+                int i = group[0];
+                update(parameterIds[i], weights[i], grads[i]);
+                continue;
+            }
+            float[] learningRates = new float[group.length];
+            float[] weightDecays = new float[group.length];
+            Arrays.fill(weightDecays, weightDecay);
+            NDList inputs = new NDList(group.length * (momentum != 0f ? 3 : 2));
+            NDList outputs = new NDList(group.length);
+            for (int j = 0; j < group.length; ++j) {
+                int i = group[j];
+                int index = getIndex(parameterIds[i]);
+                learningRates[j] = learningRateTracker.getNewLearningRate(updateCount(index));
+                inputs.add(weights[i]);
+                inputs.add(grads[i]);
+                if (momentum != 0f) {
+                    inputs.add(momentumStates.get(index, weights[i]));
+                }
+                outputs.add(weights[i]);
+            }
+
+            NDArrayEx ex = outputs.head().getNDArrayInternal();
+            ex.multiSgdUpdate(
+                    inputs,
+                    outputs,
+                    learningRates,
+                    weightDecays,
+                    rescaleGrad,
+                    clipGrad,
+                    momentum);
+        }
+    }
+
     /** The Builder to construct an {@link Sgd} object. */
     public static final class Builder extends OptimizerBuilder<Builder> {
 
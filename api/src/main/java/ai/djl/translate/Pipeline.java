@@ -175,6 +175,21 @@ public class Pipeline {
         return new NDList(arrays);
     }
 
+    /**
+     * Returns whether all the transforms of this {@code Pipeline} can be applied to a stacked batch
+     * at once.
+     *
+     * @return {@code true} if all the transforms are {@link Transform#isBatchable() batchable}
+     */
+    public boolean isBatchable() {
+        for (Pair<IndexKey, Transform> transform : transforms) {
+            if (!transform.getValue().isBatchable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static final class IndexKey {
         private String key;
         private int index;
@@ -29,4 +29,17 @@ public interface Transform {
      * @return the output of the {@code Transform}
      */
     NDArray transform(NDArray array);
+
+    /**
+     * Returns whether the {@code Transform} can be applied to a stacked batch at once.
+     *
+     * <p>A batchable {@code Transform} gives the same result when it is applied to an {@link
+     * NDArray} with an extra leading batch axis as when it is applied to each element of the batch
+     * and the results are stacked.
+     *
+     * @return {@code true} if the {@code Transform} can be applied to a stacked batch
+     */
+    default boolean isBatchable() {
+        return false;
+    }
 }
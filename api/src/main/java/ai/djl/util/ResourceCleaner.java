@@ -0,0 +1,285 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDManager;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code ResourceCleaner} frees native resources whose Java objects became unreachable without
+ * being closed, and keeps track of the native memory that is still alive.
+ *
+ * <p>It plays the role of {@code java.lang.ref.Cleaner} for Java 8: every registered object is
+ * watched by a {@link PhantomReference} and its cleanup action runs on a single daemon thread once
+ * the object has been collected. Unlike {@code finalize()}, the object itself is never
+ * resurrected, so it can be reclaimed in a single GC cycle.
+ *
+ * <p>If the system property {@code ai.djl.leak_detection} is set to {@code true}, or trace logging
+ * is enabled for this class, the allocation site of every resource is recorded. {@link
+ * #getLeakReport()} then groups the resources that are still open by allocation site, and every
+ * resource that is reclaimed by the garbage collector is logged with its allocation site.
+ */
+public final class ResourceCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCleaner.class);
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+    private static final Set<Cleanable> LIVE = ConcurrentHashMap.newKeySet();
+    private static final Map<String, LongAdder> LIVE_BYTES = new ConcurrentHashMap<>();
+    private static final LongAdder LEAKED = new LongAdder();
+    private static final boolean TRACK_SITES =
+            Boolean.getBoolean("ai.djl.leak_detection") || logger.isTraceEnabled();
+
+    static {
+        Thread thread = new Thread(ResourceCleaner::run, "djl-resource-cleaner"); // NOPMD
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private ResourceCleaner() {}
+
+    /**
+     * Registers an object and the action that frees its native resource.
+     *
+     * <p>The action must not reference the object, otherwise the object never becomes
+     * unreachable.
+     *
+     * @param owner the object that owns the native resource
+     * @param action the action that frees the native resource
+     * @return a {@link Cleanable} to call when the resource is freed explicitly
+     */
+    public static Cleanable register(Object owner, Runnable action) {
+        String site = TRACK_SITES ? allocationSite(new Throwable().getStackTrace()) : null;
+        Cleanable cleanable = new Cleanable(owner, action, site);
+        LIVE.add(cleanable);
+        return cleanable;
+    }
+
+    /**
+     * Registers a native handle that is attached to an {@link NDManager}.
+     *
+     * <p>Once the owner is collected, the handle is detached from the manager last set in {@code
+     * manager} before it is freed, so that closing the manager can't free it a second time.
+     *
+     * @param owner the object that owns the native handle
+     * @param uid the id the owner is attached to its manager with
+     * @param handle the native handle, set to {@code null} once it is freed
+     * @param manager the manager the owner is attached to, or holds {@code null}
+     * @param free the function that frees the native handle, it must not reference the owner
+     * @param <T> the type of the native handle
+     * @return a {@link Cleanable} to call when the resource is freed explicitly
+     */
+    public static <T> Cleanable register(
+            Object owner,
+            String uid,
+            AtomicReference<T> handle,
+            AtomicReference<NDManager> manager,
+            Consumer<T> free) {
+        return register(
+                owner,
+                () -> {
+                    T pointer = handle.getAndSet(null);
+                    if (pointer != null) {
+                        NDManager m = manager.get();
+                        if (m != null) {
+                            m.detachCollected(uid);
+                        }
+                        free.accept(pointer);
+                    }
+                });
+    }
+
+    /**
+     * Returns the number of native bytes that are alive on the given device.
+     *
+     * @param device the name of the device, as given to {@link Cleanable#setSize(String, long)}
+     * @return the number of native bytes that are alive on the given device
+     */
+    public static long getLiveBytes(String device) {
+        LongAdder adder = LIVE_BYTES.get(device);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Returns the number of native resources that are not freed yet.
+     *
+     * @return the number of native resources that are not freed yet
+     */
+    public static int getLiveCount() {
+        return LIVE.size();
+    }
+
+    /**
+     * Returns the number of native resources that were freed by the garbage collector because they
+     * were not closed.
+     *
+     * @return the number of leaked native resources
+     */
+    public static long getLeakedCount() {
+        return LEAKED.sum();
+    }
+
+    /**
+     * Records the current native memory usage into a {@link Metrics}.
+     *
+     * <p>A {@code LiveNativeBytes-<device>} metric is added for every device, along with {@code
+     * LiveNativeResources} and {@code LeakedNativeResources}.
+     *
+     * @param metrics the {@link Metrics} to record into
+     */
+    public static void addMetrics(Metrics metrics) {
+        for (Map.Entry<String, LongAdder> entry : LIVE_BYTES.entrySet()) {
+            metrics.addMetric("LiveNativeBytes-" + entry.getKey(), entry.getValue().sum(), "bytes");
+        }
+        metrics.addMetric("LiveNativeResources", getLiveCount());
+        metrics.addMetric("LeakedNativeResources", getLeakedCount());
+    }
+
+    /**
+     * Returns the number of resources that are still open, grouped by allocation site and sorted
+     * by descending count.
+     *
+     * <p>The report is empty unless allocation sites are tracked.
+     *
+     * @return a map from allocation site to the number of open resources
+     */
+    public static Map<String, Long> getLeakReport() {
+        Map<String, Long> counts =
+                LIVE.stream()
+                        .map(c -> c.site)
+                        .filter(s -> s != null)
+                        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return counts.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(
+                        Collectors.toMap(
+                                Map.Entry::getKey,
+                                Map.Entry::getValue,
+                                (a, b) -> a,
+                                LinkedHashMap::new));
+    }
+
+    static String allocationSite(StackTraceElement[] stack) {
+        for (StackTraceElement element : stack) {
+            String className = element.getClassName();
+            if (!className.startsWith("ai.djl.util.")
+                    && !className.startsWith("ai.djl.ndarray.")
+                    && !className.startsWith("ai.djl.mxnet.")
+                    && !className.startsWith("ai.djl.pytorch.")
+                    && !className.startsWith("java.")) {
+                return element.toString();
+            }
+        }
+        return stack.length > 0 ? stack[stack.length - 1].toString() : "unknown";
+    }
+
+    private static void run() {
+        while (true) {
+            try {
+                Cleanable cleanable = (Cleanable) QUEUE.remove();
+                if (cleanable.clean()) {
+                    LEAKED.increment();
+                    if (cleanable.site != null) {
+                        logger.warn("Native resource was not closed: {}", cleanable.site);
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to free native resource.", e);
+            }
+        }
+    }
+
+    /** A handle to a registered native resource. */
+    public static final class Cleanable extends PhantomReference<Object> {
+
+        private Runnable action;
+        private String site;
+        private String device;
+        private long bytes;
+        private AtomicBoolean done;
+
+        Cleanable(Object owner, Runnable action, String site) {
+            super(owner, QUEUE);
+            this.action = action;
+            this.site = site;
+            done = new AtomicBoolean();
+        }
+
+        /**
+         * Sets the amount of native memory held by the resource.
+         *
+         * <p>This should only be called once, right after the resource is created.
+         *
+         * @param device the name of the device that holds the memory
+         * @param bytes the number of bytes
+         */
+        public void setSize(String device, long bytes) {
+            if (done.get() || this.device != null) {
+                return;
+            }
+            this.device = device;
+            this.bytes = bytes;
+            LIVE_BYTES.computeIfAbsent(device, k -> new LongAdder()).add(bytes);
+        }
+
+        /**
+         * Runs the cleanup action if it has not run yet.
+         *
+         * @return {@code true} if the action ran
+         */
+        public boolean clean() {
+            if (!release()) {
+                return false;
+            }
+            action.run();
+            return true;
+        }
+
+        /**
+         * Marks the resource as freed without running the cleanup action, for resources that are
+         * closed explicitly or whose ownership moved elsewhere.
+         */
+        public void cancel() {
+            release();
+        }
+
+        private boolean release() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            LIVE.remove(this);
+            clear();
+            if (device != null) {
+                LIVE_BYTES.get(device).add(-bytes);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ProfilerTest {
+
+    @Test
+    public void testDump() throws IOException {
+        Profiler.record("predictor", "Ignored", 0, 1);
+        Path file = Files.createTempFile("profile", ".json");
+        try (Profiler profiler = Engine.getInstance().newProfiler()) {
+            profiler.start();
+            Assert.assertTrue(Profiler.isActive());
+            Assert.assertThrows(IllegalStateException.class, () -> new Profiler().start());
+
+            long begin = System.nanoTime();
+            Profiler.record("predictor", "Pre\"process", begin, begin + 2500);
+            profiler.dump(file);
+            Assert.assertFalse(Profiler.isActive());
+
+            String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Assert.assertTrue(content.startsWith("{\"traceEvents\": ["));
+            Assert.assertTrue(content.contains("\"name\":\"Pre\\\"process\",\"cat\":\"predictor\""));
+            Assert.assertTrue(content.contains("\"dur\":2.5,"));
+            Assert.assertFalse(content.contains("Ignored"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
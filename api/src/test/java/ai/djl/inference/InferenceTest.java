@@ -14,7 +14,9 @@ package ai.djl.inference;
 
 import ai.djl.Model;
 import ai.djl.ModelException;
+import ai.djl.metric.JmxExporter;
 import ai.djl.metric.Metrics;
+import ai.djl.metric.Timer;
 import ai.djl.modality.Classifications;
 import ai.djl.modality.cv.DetectedObjects;
 import ai.djl.ndarray.NDList;
@@ -25,15 +27,29 @@ import ai.djl.test.mock.EchoTranslator;
 import ai.djl.test.mock.MockImageTranslator;
 import ai.djl.test.mock.MockModel;
 import ai.djl.test.mock.MockNDArray;
+import ai.djl.translate.Batchifier;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -108,6 +124,169 @@ public class InferenceTest {
         }
     }
 
+    @Test
+    public void testBatchPredictor() throws InterruptedException, ExecutionException {
+        Translator<String, String> translator = new AttachmentTranslator(null);
+        Model model = new MockModel();
+        Metrics metrics = new Metrics();
+        int numOfThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+        try (Predictor<String, String> predictor =
+                new BatchPredictor<>(model.newPredictor(translator), 4, 10000)) {
+            predictor.setMetrics(metrics);
+            List<Future<String>> futures = new ArrayList<>(numOfThreads);
+            for (int i = 0; i < numOfThreads; ++i) {
+                String input = "input" + i;
+                futures.add(executor.submit(() -> predictor.predict(input)));
+            }
+            for (int i = 0; i < numOfThreads; ++i) {
+                Assert.assertEquals(futures.get(i).get(), "input" + i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(metrics.hasMetric("BatchSize"));
+        Assert.assertTrue(metrics.latestMetric("BatchSize").getValue().intValue() <= 4);
+    }
+
+    @Test
+    public void testBatchPredictorError() throws TranslateException {
+        Model model = new MockModel();
+        BatchPredictor<String, String> predictor =
+                new BatchPredictor<>(model.newPredictor(new ErrorTranslator()), 4, 0);
+        for (int i = 0; i < 2; ++i) {
+            // the dispatcher survives the error and keeps serving requests
+            Assert.assertThrows(LinkageError.class, () -> predictor.predict("input"));
+        }
+        predictor.close();
+        Assert.assertThrows(IllegalStateException.class, () -> predictor.predict("closed"));
+    }
+
+    @Test
+    public void testPredictorPool() throws InterruptedException, ExecutionException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Translator<String, String> translator = new AttachmentTranslator(latch);
+        Model model = new MockModel();
+        Metrics metrics = new Metrics();
+        try (PredictorPool<String, String> pool = new PredictorPool<>(model, translator, 1, 1)) {
+            pool.setMetrics(metrics);
+            CompletableFuture<String> running = pool.submit("running");
+            CompletableFuture<List<String>> queued =
+                    pool.submitBatch(Arrays.asList("queued1", "queued2"));
+            CompletableFuture<String> rejected = pool.submit("rejected");
+            Assert.assertTrue(rejected.isCompletedExceptionally());
+            Assert.assertEquals(pool.getQueueDepth(), 1);
+
+            latch.countDown();
+            Assert.assertEquals(running.get(), "running");
+            Assert.assertEquals(queued.get(), Arrays.asList("queued1", "queued2"));
+        }
+        Assert.assertEquals(metrics.getMetric("Rejected").size(), 1);
+        Assert.assertEquals(metrics.getMetric("ServiceTime").size(), 2);
+    }
+
+    @Test
+    public void testPredictorPoolError() throws InterruptedException {
+        Model model = new MockModel();
+        try (PredictorPool<String, String> pool =
+                new PredictorPool<>(model, new ErrorTranslator(), 1, 1)) {
+            CompletableFuture<String> future = pool.submit("input");
+            try {
+                future.get();
+                Assert.fail("The error is not propagated.");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof LinkageError);
+            }
+        }
+    }
+
+    @Test
+    public void testPredictorPoolInterruptedClose() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Model model = new MockModel();
+        PredictorPool<String, String> pool =
+                new PredictorPool<>(model, new AttachmentTranslator(latch), 1, 1);
+        pool.submit("running");
+        CompletableFuture<String> queued = pool.submit("queued");
+        Thread.currentThread().interrupt();
+        pool.close();
+        Assert.assertTrue(Thread.interrupted());
+        Assert.assertTrue(queued.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testPipelinedPredictor()
+            throws InterruptedException, ExecutionException, TranslateException {
+        Translator<String, String> translator = new AttachmentTranslator(null);
+        Model model = new MockModel();
+        Metrics metrics = new Metrics();
+        try (PipelinedPredictor<String, String> predictor =
+                new PipelinedPredictor<>(model.newPredictor(translator), 2, 1, 2)) {
+            predictor.setMetrics(metrics);
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                futures.add(predictor.predictAsync("input" + i));
+            }
+            for (int i = 0; i < 4; ++i) {
+                Assert.assertEquals(futures.get(i).get(), "input" + i);
+            }
+            Assert.assertEquals(predictor.predict("sync"), "sync");
+            Timer total = predictor.getTimers().get(3);
+            Assert.assertEquals(total.getName(), "Total");
+            Assert.assertEquals(total.getHistogram().getCount(), 5);
+        }
+        Assert.assertEquals(metrics.getMetric("Inference").size(), 5);
+
+        // close() lets the requests already in the pipeline finish
+        List<CompletableFuture<String>> pending = new ArrayList<>();
+        PipelinedPredictor<String, String> predictor =
+                new PipelinedPredictor<>(model.newPredictor(translator), 1, 1, 1);
+        for (int i = 0; i < 8; ++i) {
+            pending.add(predictor.predictAsync("pending" + i));
+        }
+        predictor.close();
+        for (int i = 0; i < 8; ++i) {
+            Assert.assertTrue(pending.get(i).isDone());
+            Assert.assertEquals(pending.get(i).get(), "pending" + i);
+        }
+    }
+
+    @Test
+    public void testPipelinedPredictorError() {
+        Model model = new MockModel();
+        try (PipelinedPredictor<String, String> predictor =
+                new PipelinedPredictor<>(model.newPredictor(new ErrorTranslator()), 1, 1, 1)) {
+            Assert.assertThrows(LinkageError.class, () -> predictor.predict("input"));
+        }
+    }
+
+    @Test
+    public void testTimers() throws TranslateException, JMException {
+        Translator<String, String> translator = new AttachmentTranslator(null);
+        Model model = new MockModel();
+        ObjectName name = new ObjectName("ai.djl:type=Timer,source=\"timers\",name=\"Total\"");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try (BasePredictor<String, String> predictor =
+                (BasePredictor<String, String>) model.newPredictor(translator)) {
+            predictor.setTimerSampleRate(2);
+            for (int i = 0; i < 4; ++i) {
+                predictor.predict("input");
+            }
+            List<Timer> timers = predictor.getTimers();
+            Assert.assertEquals(timers.size(), 4);
+            Assert.assertEquals(timers.get(0).getName(), "Preprocess");
+            Assert.assertEquals(timers.get(0).getHistogram().getCount(), 2);
+            Assert.assertEquals(timers.get(2).getName(), "Postprocess");
+            Assert.assertEquals(timers.get(2).getHistogram().getCount(), 2);
+            Assert.assertEquals(timers.get(3).getName(), "Total");
+            Assert.assertEquals(timers.get(3).getHistogram().getCount(), 4);
+
+            new JmxExporter().export("timers", timers);
+            Assert.assertEquals(server.getAttribute(name, "Count"), 4L);
+        }
+        Assert.assertFalse(server.isRegistered(name));
+    }
+
     @Test(expectedExceptions = TranslateException.class)
     public void testTranslateException() throws TranslateException {
         EchoTranslator<String> translator = new EchoTranslator<>();
@@ -127,4 +306,57 @@ public class InferenceTest {
             model.load(modelDir, modelName);
         }
     }
+
+    private static final class ErrorTranslator implements Translator<String, String> {
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList processInput(TranslatorContext ctx, String input) {
+            throw new LinkageError("Failed to load native library.");
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String processOutput(TranslatorContext ctx, NDList list) {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Batchifier getBatchifier() {
+            return null;
+        }
+    }
+
+    private static final class AttachmentTranslator implements Translator<String, String> {
+
+        private CountDownLatch latch;
+
+        AttachmentTranslator(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList processInput(TranslatorContext ctx, String input)
+                throws InterruptedException {
+            if (latch != null) {
+                latch.await();
+            }
+            ctx.setAttachment("input", input);
+            return new NDList();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String processOutput(TranslatorContext ctx, NDList list) {
+            return (String) ctx.getAttachment("input");
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Batchifier getBatchifier() {
+            return null;
+        }
+    }
 }
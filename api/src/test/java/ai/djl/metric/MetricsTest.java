@@ -12,6 +12,9 @@
  */
 package ai.djl.metric;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.List;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -56,6 +59,61 @@ public class MetricsTest {
         Assert.assertEquals(mean, 1.5d);
     }
 
+    @Test
+    public void testHistogramMetrics() {
+        Metrics metrics = new Metrics(true);
+        Assert.assertTrue(metrics.isHistogram());
+        metrics.addMetric(new Metric("m1", 1L));
+        metrics.addMetric("m1", 3L, "count");
+        metrics.addMetric("m1", 2L);
+        Metric p50 = metrics.percentile("m1", 50);
+        Assert.assertEquals(p50.getValue().longValue(), 2L);
+        Assert.assertEquals(metrics.latestMetric("m1").getValue().longValue(), 2L);
+        Assert.assertEquals(metrics.getMetric("m1").size(), 1);
+
+        metrics.addMetric("m2", 2.4d);
+        metrics.addMetric("m2", 3.4d);
+        metrics.addMetric("m2", -1.3d);
+        Assert.assertEquals(metrics.mean("m2"), 1.5d, 1e-9);
+        Assert.assertEquals(metrics.percentile("m2", 0).getValue().doubleValue(), -1.3d, 0.05);
+        Assert.assertEquals(metrics.percentile("m2", 100).getValue().doubleValue(), 3.4d, 0.05);
+
+        for (long i = 1; i <= 100_000; ++i) {
+            metrics.addMetric("Inference", i * 1000, "nano");
+        }
+        Histogram histogram = metrics.getHistogram("Inference");
+        Assert.assertEquals(histogram.getCount(), 100_000);
+        long p90 = metrics.percentile("Inference", 90).getValue().longValue();
+        Assert.assertEquals(p90, 90_000_000d, 90_000_000d * 0.02);
+        long p99 = metrics.percentile("Inference", 99).getValue().longValue();
+        Assert.assertEquals(p99, 99_000_000d, 99_000_000d * 0.02);
+    }
+
+    @Test
+    public void testPrometheusExporter() throws IOException {
+        Timer inference = new Timer("Inference");
+        Timer total = new Timer("Total");
+        for (int i = 1; i <= 100; ++i) {
+            inference.record(i * 1_000_000L);
+            total.record(i * 2_000_000L);
+        }
+        StringWriter writer = new StringWriter();
+        PrometheusExporter.write(writer, "resnet", Arrays.asList(inference, total));
+        String text = writer.toString();
+        Assert.assertTrue(text.startsWith("# TYPE djl_latency_seconds summary\n"));
+        Assert.assertTrue(
+                text.contains(
+                        "djl_latency_seconds_count{source=\"resnet\",stage=\"Inference\"} 100\n"));
+        String p99 = "djl_latency_seconds{source=\"resnet\",stage=\"Total\",quantile=\"0.99\"}";
+        Assert.assertTrue(text.contains(p99));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testHistogramPercentileException() {
+        Metrics metrics = new Metrics(true);
+        metrics.percentile("not_found", 1);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testMeanException() {
         Metrics metrics = new Metrics();
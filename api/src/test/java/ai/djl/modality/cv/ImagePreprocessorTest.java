@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv;
+
+import ai.djl.modality.cv.util.ImagePreprocessor;
+import ai.djl.modality.cv.util.NDImageUtils;
+import ai.djl.ndarray.types.Shape;
+import java.awt.image.BufferedImage;
+import java.nio.FloatBuffer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ImagePreprocessorTest {
+
+    @Test
+    public void testToTensor() {
+        BufferedImage image = createImage(3, 2, BufferedImage.TYPE_INT_RGB);
+        ImagePreprocessor preprocessor = ImagePreprocessor.builder().build();
+        Assert.assertEquals(preprocessor.getOutputShape(3, 2), new Shape(3, 2, 3));
+
+        float[] actual = run(preprocessor, image);
+        for (int y = 0; y < 2; ++y) {
+            for (int x = 0; x < 3; ++x) {
+                int rgb = image.getRGB(x, y);
+                Assert.assertEquals(actual[y * 3 + x], ((rgb >> 16) & 0xFF) / 255f, 1e-6);
+                Assert.assertEquals(actual[6 + y * 3 + x], ((rgb >> 8) & 0xFF) / 255f, 1e-6);
+                Assert.assertEquals(actual[12 + y * 3 + x], (rgb & 0xFF) / 255f, 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testResize() {
+        BufferedImage image = createImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        // halving the size samples between 2x2 blocks, so both interpolations average them
+        for (ImagePreprocessor.Interpolation interpolation :
+                ImagePreprocessor.Interpolation.values()) {
+            ImagePreprocessor preprocessor =
+                    ImagePreprocessor.builder()
+                            .optResize(2, 2)
+                            .optInterpolation(interpolation)
+                            .build();
+            float[] actual = run(preprocessor, image);
+            for (int y = 0; y < 2; ++y) {
+                for (int x = 0; x < 2; ++x) {
+                    float expected = 0;
+                    for (int dy = 0; dy < 2; ++dy) {
+                        for (int dx = 0; dx < 2; ++dx) {
+                            int rgb = image.getRGB(x * 2 + dx, y * 2 + dy);
+                            expected += ((rgb >> 8) & 0xFF) / 255f / 4;
+                        }
+                    }
+                    Assert.assertEquals(actual[4 + y * 2 + x], expected, 1e-5);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCenterCropAndNormalize() {
+        BufferedImage image = createImage(6, 4, BufferedImage.TYPE_INT_RGB);
+        float[] mean = {0.5f, 0.4f, 0.3f};
+        float[] std = {0.2f, 0.3f, 0.4f};
+        ImagePreprocessor preprocessor =
+                ImagePreprocessor.builder().optCenterCrop().optNormalize(mean, std).build();
+        Assert.assertEquals(preprocessor.getOutputShape(6, 4), new Shape(3, 4, 4));
+
+        float[] actual = run(preprocessor, image);
+        for (int y = 0; y < 4; ++y) {
+            for (int x = 0; x < 4; ++x) {
+                int rgb = image.getRGB(x + 1, y);
+                float blue = ((rgb & 0xFF) / 255f - mean[2]) / std[2];
+                Assert.assertEquals(actual[32 + y * 4 + x], blue, 1e-5);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidNormalize() {
+        ImagePreprocessor.Builder builder = ImagePreprocessor.builder();
+        float[] mean = {0.5f, 0.4f, 0.3f};
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.optNormalize(mean, null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.optNormalize(null, mean));
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> builder.optNormalize(mean, new float[] {0.2f, 0.3f}));
+    }
+
+    @Test
+    public void testImageTypes() {
+        ImagePreprocessor preprocessor = ImagePreprocessor.builder().optResize(5, 3).build();
+        BufferedImage reference = createImage(7, 6, BufferedImage.TYPE_INT_RGB);
+        float[] expected = run(preprocessor, reference);
+        int[] types = {
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_USHORT_555_RGB
+        };
+        for (int type : types) {
+            BufferedImage image = new BufferedImage(7, 6, type);
+            image.getGraphics().drawImage(reference, 0, 0, null);
+            BufferedImage converted = new BufferedImage(7, 6, BufferedImage.TYPE_INT_RGB);
+            converted.getGraphics().drawImage(image, 0, 0, null);
+            Assert.assertEquals(run(preprocessor, image), run(preprocessor, converted), 1e-6f);
+        }
+        Assert.assertEquals(run(preprocessor, reference), expected, 1e-6f);
+
+        ImagePreprocessor gray =
+                ImagePreprocessor.builder().optFlag(NDImageUtils.Flag.GRAYSCALE).build();
+        Assert.assertEquals(gray.getOutputShape(7, 6), new Shape(1, 6, 7));
+        BufferedImage image = new BufferedImage(7, 6, BufferedImage.TYPE_BYTE_GRAY);
+        image.getGraphics().drawImage(reference, 0, 0, null);
+        float[] actual = run(gray, image);
+        Assert.assertEquals(actual[8], (image.getRaster().getSample(1, 1, 0)) / 255f, 1e-6);
+    }
+
+    private static float[] run(ImagePreprocessor preprocessor, BufferedImage image) {
+        Shape shape = preprocessor.getOutputShape(image.getWidth(), image.getHeight());
+        FloatBuffer buffer = FloatBuffer.allocate((int) shape.size());
+        preprocessor.preprocess(image, buffer);
+        Assert.assertEquals(buffer.remaining(), 0);
+        return buffer.array();
+    }
+
+    private static BufferedImage createImage(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int red = (x * 37 + y * 11) & 0xFF;
+                int green = (x * 13 + y * 53) & 0xFF;
+                int blue = (x * 71 + y * 29) & 0xFF;
+                image.setRGB(x, y, red << 16 | green << 8 | blue);
+            }
+        }
+        return image;
+    }
+}
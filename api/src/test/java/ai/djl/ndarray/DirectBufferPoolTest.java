@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testAcquireRelease() {
+        DirectBufferPool pool = new DirectBufferPool();
+        ByteBuffer buf = pool.acquire(5000);
+        Assert.assertTrue(buf.isDirect());
+        Assert.assertEquals(buf.order(), ByteOrder.nativeOrder());
+        Assert.assertEquals(buf.remaining(), 5000);
+        Assert.assertEquals(buf.capacity(), 8192);
+
+        pool.release(buf);
+        Assert.assertEquals(pool.getPooledBytes(), 8192);
+        ByteBuffer reused = pool.acquire(8000);
+        Assert.assertSame(reused, buf);
+        Assert.assertEquals(reused.remaining(), 8000);
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+
+        ByteBuffer large = pool.acquire(DirectBufferPool.MAX_CLASS_SIZE + 1);
+        pool.release(large);
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+    }
+
+    @Test
+    public void testMaxPooledBytes() {
+        DirectBufferPool pool = new DirectBufferPool(4096);
+        ByteBuffer first = pool.acquire(100);
+        ByteBuffer second = pool.acquire(100);
+        pool.release(first);
+        pool.release(second);
+        Assert.assertEquals(pool.getPooledBytes(), 4096);
+    }
+
+    @Test
+    public void testSizeClass() {
+        Assert.assertEquals(DirectBufferPool.sizeClassOf(1), 0);
+        Assert.assertEquals(DirectBufferPool.sizeClassOf(4096), 0);
+        Assert.assertEquals(DirectBufferPool.sizeClassOf(4097), 1);
+        Assert.assertEquals(DirectBufferPool.sizeClassOf(DirectBufferPool.MAX_CLASS_SIZE), 14);
+        Assert.assertEquals(DirectBufferPool.sizeClassOf(DirectBufferPool.MAX_CLASS_SIZE + 1), -1);
+    }
+}
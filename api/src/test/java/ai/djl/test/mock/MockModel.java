@@ -13,6 +13,7 @@
 package ai.djl.test.mock;
 
 import ai.djl.Model;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.inference.BasePredictor;
 import ai.djl.inference.Predictor;
 import ai.djl.ndarray.NDManager;
@@ -39,6 +40,7 @@ public class MockModel implements Model {
 
     private Map<String, Object> artifacts = new ConcurrentHashMap<>();
     private AtomicBoolean first = new AtomicBoolean(true);
+    private ExecutionProfile executionProfile;
 
     /** {@inheritDoc} */
     @Override
@@ -83,6 +85,18 @@ public class MockModel implements Model {
     @Override
     public void setProperty(String key, String value) {}
 
+    /** {@inheritDoc} */
+    @Override
+    public ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutionProfile(ExecutionProfile profile) {
+        this.executionProfile = profile;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Trainer newTrainer(TrainingConfig trainingConfig) {
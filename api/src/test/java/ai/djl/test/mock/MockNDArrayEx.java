@@ -263,6 +263,30 @@ public class MockNDArrayEx implements NDArrayEx {
             float momentum,
             boolean lazyUpdate) {}
 
+    /** {@inheritDoc} */
+    @Override
+    public void multiSgdUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiAdamUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float epsilon) {}
+
     /** {@inheritDoc} */
     @Override
     public NDList convolution(
@@ -389,6 +413,12 @@ public class MockNDArrayEx implements NDArrayEx {
         return null;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public NDArray take(NDArray indices) {
+        return null;
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray where(NDArray condition, NDArray other) {
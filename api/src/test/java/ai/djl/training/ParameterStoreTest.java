@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.ndarray.types.SparseFormat;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.ParameterType;
+import ai.djl.test.mock.MockNDArray;
+import ai.djl.test.mock.MockNDManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ParameterStoreTest {
+
+    @Test
+    public void testGradientsClosedAfterPull() {
+        NDManager manager = new MockNDManager();
+        RecordingServer server = new RecordingServer();
+        ParameterStore store = new ParameterStore(manager, false);
+        store.setParameterServer(server, new Device[] {Device.cpu()});
+
+        for (int i = 0; i < 3; ++i) {
+            Parameter parameter = new Parameter("w" + i, null, ParameterType.WEIGHT);
+            parameter.setArray(new GradientArray(manager));
+            store.getValue(parameter, Device.cpu());
+        }
+        // a parameter without gradient is neither pushed nor pulled
+        Parameter frozen = new Parameter("frozen", null, ParameterType.WEIGHT, false);
+        frozen.setArray(new GradientArray(manager));
+        store.getValue(frozen, Device.cpu());
+
+        store.updateAllParameters();
+        Assert.assertEquals(server.pushed.size(), 3);
+        Assert.assertEquals(server.pulled, 3);
+        for (ClosingArray grad : server.pushed) {
+            Assert.assertFalse(grad.closedBeforePull);
+            Assert.assertEquals(grad.closed, 1);
+        }
+    }
+
+    private static final class RecordingServer implements ParameterServer {
+
+        List<ClosingArray> pushed = new ArrayList<>();
+        int pulled;
+
+        /** {@inheritDoc} */
+        @Override
+        public void init(String parameterId, NDArray[] value) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void push(String parameterId, NDArray[] grads, int priority) {
+            for (NDArray grad : grads) {
+                pushed.add((ClosingArray) grad);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void pull(String parameterId, NDArray[] weights, int priority) {
+            for (ClosingArray grad : pushed) {
+                grad.closedBeforePull |= grad.closed > 0;
+            }
+            ++pulled;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {}
+    }
+
+    private static final class GradientArray extends MockNDArray {
+
+        GradientArray(NDManager manager) {
+            super(manager, Device.cpu(), new Shape(2), DataType.FLOAT32, SparseFormat.DENSE);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray getGradient() {
+            return new ClosingArray(getManager());
+        }
+    }
+
+    private static final class ClosingArray extends MockNDArray {
+
+        int closed;
+        boolean closedBeforePull;
+
+        ClosingArray(NDManager manager) {
+            super(manager, Device.cpu(), new Shape(2), DataType.FLOAT32, SparseFormat.DENSE);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            ++closed;
+        }
+    }
+}
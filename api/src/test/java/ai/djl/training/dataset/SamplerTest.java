@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDManager;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SamplerTest {
+
+    @Test
+    public void testRandomSampler() {
+        for (long size : new long[] {0, 1, 2, 7, 64, 1000}) {
+            long[] indices = drain(new RandomSampler(3).sampleIndices(new SizedDataset(size)));
+            long[] sorted = indices.clone();
+            Arrays.sort(sorted);
+            Assert.assertEquals(sorted, LongStream.range(0, size).toArray());
+            long[] again = drain(new RandomSampler(3).sampleIndices(new SizedDataset(size)));
+            Assert.assertEquals(again, indices);
+        }
+
+        // the permutation is lazy, so sampling a huge dataset is cheap
+        long size = 3L << 31;
+        PrimitiveIterator.OfLong it = new RandomSampler().sampleIndices(new SizedDataset(size));
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 1000; ++i) {
+            long index = it.nextLong();
+            Assert.assertTrue(index >= 0 && index < size);
+            Assert.assertTrue(seen.add(index));
+        }
+    }
+
+    @Test
+    public void testBatchSampler() {
+        RandomAccessDataset dataset = new SizedDataset(10);
+        Iterator<long[]> it = new BatchSampler(new SequenceSampler(), 4).sampleIndices(dataset);
+        Assert.assertEquals(it.next(), new long[] {0, 1, 2, 3});
+        Assert.assertEquals(it.next(), new long[] {4, 5, 6, 7});
+        Assert.assertEquals(it.next(), new long[] {8, 9});
+        Assert.assertFalse(it.hasNext());
+
+        it = new BatchSampler(new SequenceSampler(), 4, true).sampleIndices(dataset);
+        Assert.assertEquals(it.next(), new long[] {0, 1, 2, 3});
+        Assert.assertEquals(it.next(), new long[] {4, 5, 6, 7});
+        Assert.assertFalse(it.hasNext());
+
+        Iterator<List<Long>> boxed = new BatchSampler(new SequenceSampler(), 8).sample(dataset);
+        Assert.assertEquals(boxed.next(), Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L));
+        Assert.assertEquals(boxed.next(), Arrays.asList(8L, 9L));
+        Assert.assertFalse(boxed.hasNext());
+    }
+
+    @Test
+    public void testShardSampler() {
+        RandomAccessDataset dataset = new SizedDataset(101);
+        long[] all = drain(new RandomSampler(7).sampleIndices(dataset));
+        Set<Long> union = new HashSet<>();
+        for (int shard = 0; shard < 4; ++shard) {
+            ShardSampler sampler = new ShardSampler(new RandomSampler(7), 4, shard);
+            long[] indices = drain(sampler.sampleIndices(dataset));
+            // every shard has the same length, the last round wraps around
+            Assert.assertEquals(indices.length, 26);
+            for (int i = 0; i < indices.length; ++i) {
+                Assert.assertEquals(indices[i], all[(i * 4 + shard) % all.length]);
+                union.add(indices[i]);
+            }
+        }
+        Assert.assertEquals(union.size(), 101);
+
+        // fewer indices than shards
+        dataset = new SizedDataset(3);
+        for (int shard = 0; shard < 4; ++shard) {
+            ShardSampler sampler = new ShardSampler(new SequenceSampler(), 4, shard);
+            long[] indices = drain(sampler.sampleIndices(dataset));
+            Assert.assertEquals(indices, new long[] {shard % 3});
+        }
+        ShardSampler sampler = new ShardSampler(new SequenceSampler(), 4, 1);
+        Assert.assertFalse(sampler.sampleIndices(new SizedDataset(0)).hasNext());
+    }
+
+    @Test
+    public void testWeightedRandomSampler() {
+        double[] weights = {0, 1, 3};
+        WeightedRandomSampler sampler = new WeightedRandomSampler(weights, 40000, 11);
+        long[] counts = new long[weights.length];
+        for (long index : drain(sampler.sampleIndices(new SizedDataset(3)))) {
+            counts[(int) index]++;
+        }
+        Assert.assertEquals(counts[0], 0);
+        Assert.assertEquals(counts[1] + counts[2], 40000);
+        Assert.assertEquals(counts[2] / (double) counts[1], 3, 0.2);
+
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> new WeightedRandomSampler(new double[] {0, 0}));
+    }
+
+    private static long[] drain(PrimitiveIterator.OfLong it) {
+        LongStream.Builder builder = LongStream.builder();
+        while (it.hasNext()) {
+            builder.add(it.nextLong());
+        }
+        return builder.build().toArray();
+    }
+
+    private static final class SizedDataset extends RandomAccessDataset {
+
+        private long size;
+
+        SizedDataset(long size) {
+            super(new Builder().setSampling(1, false));
+            this.size = size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Record get(NDManager manager, long index) {
+            throw new UnsupportedOperationException();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long size() {
+            return size;
+        }
+
+        private static final class Builder extends BaseBuilder<Builder> {
+
+            /** {@inheritDoc} */
+            @Override
+            protected Builder self() {
+                return this;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDManager;
+import ai.djl.test.mock.MockNDManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ResourceCleanerTest {
+
+    @Test
+    public void testCleanable() {
+        AtomicInteger freed = new AtomicInteger();
+        Object owner = new Object();
+        String device = "test(0)";
+        int live = ResourceCleaner.getLiveCount();
+
+        ResourceCleaner.Cleanable closed = ResourceCleaner.register(owner, freed::incrementAndGet);
+        closed.setSize(device, 100);
+        ResourceCleaner.Cleanable leaked = ResourceCleaner.register(owner, freed::incrementAndGet);
+        leaked.setSize(device, 20);
+        Assert.assertEquals(ResourceCleaner.getLiveBytes(device), 120);
+        Assert.assertEquals(ResourceCleaner.getLiveCount(), live + 2);
+
+        closed.cancel();
+        Assert.assertEquals(freed.get(), 0);
+        Assert.assertEquals(ResourceCleaner.getLiveBytes(device), 20);
+
+        Assert.assertTrue(leaked.clean());
+        Assert.assertFalse(leaked.clean());
+        Assert.assertEquals(freed.get(), 1);
+        Assert.assertEquals(ResourceCleaner.getLiveBytes(device), 0);
+        Assert.assertEquals(ResourceCleaner.getLiveCount(), live);
+
+        Metrics metrics = new Metrics();
+        ResourceCleaner.addMetrics(metrics);
+        Assert.assertEquals(metrics.latestMetric("LiveNativeBytes-" + device).getValue(), 0L);
+    }
+
+    @Test
+    public void testDetachBeforeFree() {
+        List<String> events = new ArrayList<>();
+        NDManager manager =
+                new MockNDManager() {
+                    /** {@inheritDoc} */
+                    @Override
+                    public void detachCollected(String resourceId) {
+                        events.add("detach " + resourceId);
+                    }
+                };
+        AtomicReference<String> handle = new AtomicReference<>("pointer");
+        ResourceCleaner.Cleanable cleanable =
+                ResourceCleaner.register(
+                        new Object(),
+                        "uid",
+                        handle,
+                        new AtomicReference<>(manager),
+                        p -> events.add("free " + p));
+
+        Assert.assertTrue(cleanable.clean());
+        Assert.assertNull(handle.get());
+        Assert.assertEquals(events, Arrays.asList("detach uid", "free pointer"));
+    }
+
+    @Test
+    public void testAllocationSite() {
+        StackTraceElement[] stack = {
+            new StackTraceElement("ai.djl.util.ResourceCleaner", "register", null, 1),
+            new StackTraceElement("ai.djl.mxnet.engine.MxNDArray", "<init>", null, 2),
+            new StackTraceElement("com.example.Translator", "processInput", "Translator.java", 3)
+        };
+        Assert.assertEquals(
+                ResourceCleaner.allocationSite(stack),
+                "com.example.Translator.processInput(Translator.java:3)");
+    }
+}
@@ -12,8 +12,8 @@
  */
 package ai.djl.basicdataset;
 
+import ai.djl.basicdataset.utils.ImageDecoder;
 import ai.djl.modality.cv.transform.ToTensor;
-import ai.djl.modality.cv.util.BufferedImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils.Flag;
 import ai.djl.ndarray.NDArray;
@@ -43,6 +43,7 @@ public abstract class AbstractImageFolder extends RandomAccessDataset implements
 
     protected Repository repository;
     protected Flag flag;
+    protected ImageDecoder decoder;
     protected List<String> synset;
     protected PairList<String, Integer> items;
 
@@ -50,6 +51,7 @@ public abstract class AbstractImageFolder extends RandomAccessDataset implements
         super(builder);
         this.flag = builder.flag;
         this.repository = builder.repository;
+        this.decoder = builder.decoder;
         this.synset = new ArrayList<>();
         this.items = new PairList<>();
     }
@@ -60,12 +62,34 @@ public abstract class AbstractImageFolder extends RandomAccessDataset implements
         Pair<String, Integer> item = items.get(Math.toIntExact(index));
 
         Path imagePath = getImagePath(item.getKey());
-        NDArray array = BufferedImageUtils.readFileToArray(manager, imagePath, flag);
+        NDArray array = decoder.decode(manager, imagePath, flag);
         NDList d = new NDList(array);
         NDList l = new NDList(manager.create(item.getValue()));
         return new Record(d, l);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The images of the batch are decoded in parallel.
+     */
+    @Override
+    public Record getBatch(NDManager manager, long[] indices) throws IOException {
+        List<Path> paths = new ArrayList<>(indices.length);
+        NDList[] labels = new NDList[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            Pair<String, Integer> item = items.get(Math.toIntExact(indices[i]));
+            paths.add(getImagePath(item.getKey()));
+            labels[i] = new NDList(manager.create(item.getValue()));
+        }
+        NDArray[] images = decoder.decode(manager, paths, flag);
+        NDList[] data = new NDList[images.length];
+        for (int i = 0; i < images.length; i++) {
+            data[i] = new NDList(images[i]);
+        }
+        return batchify(data, labels);
+    }
+
     /** {@inheritDoc} */
     @Override
     public long size() {
@@ -127,9 +151,11 @@ public abstract class AbstractImageFolder extends RandomAccessDataset implements
 
         Repository repository;
         Flag flag;
+        ImageDecoder decoder;
 
         protected ImageFolderBuilder() {
             flag = NDImageUtils.Flag.COLOR;
+            decoder = ImageDecoder.builder().build();
             pipeline = new Pipeline(new ToTensor());
         }
 
@@ -144,6 +170,18 @@ public abstract class AbstractImageFolder extends RandomAccessDataset implements
             return self();
         }
 
+        /**
+         * Sets the {@link ImageDecoder} that decodes the images, for example to share a decoded
+         * image cache between datasets.
+         *
+         * @param decoder the image decoder
+         * @return this builder
+         */
+        public T optImageDecoder(ImageDecoder decoder) {
+            this.decoder = decoder;
+            return self();
+        }
+
         /**
          * Sets the repository containing the image folder.
          *
@@ -12,8 +12,8 @@
  */
 package ai.djl.basicdataset;
 
+import ai.djl.basicdataset.utils.ImageDecoder;
 import ai.djl.modality.cv.transform.ToTensor;
-import ai.djl.modality.cv.util.BufferedImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils.Flag;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
@@ -50,6 +50,7 @@ public class CaptchaDataset extends RandomAccessDataset implements ZooDataset {
     private Artifact artifact;
     private Usage usage;
     private boolean prepared;
+    private ImageDecoder decoder;
 
     private List<String> items;
 
@@ -63,6 +64,7 @@ public class CaptchaDataset extends RandomAccessDataset implements ZooDataset {
         this.repository = builder.repository;
         this.artifact = builder.artifact;
         this.usage = builder.usage;
+        this.decoder = builder.decoder;
     }
 
     /**
@@ -79,11 +81,38 @@ public class CaptchaDataset extends RandomAccessDataset implements ZooDataset {
     public Record get(NDManager manager, long index) throws IOException {
         String item = items.get(Math.toIntExact(index));
 
-        Path imagePath =
-                repository.getFile(getArtifactItem(), getUsagePath() + "/" + item + ".jpeg");
-        NDArray imageArray = BufferedImageUtils.readFileToArray(manager, imagePath, Flag.GRAYSCALE);
+        NDArray imageArray = decoder.decode(manager, getImagePath(item), Flag.GRAYSCALE);
         NDList data = new NDList(imageArray);
+        return new Record(data, getLabels(manager, item));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The images of the batch are decoded in parallel.
+     */
+    @Override
+    public Record getBatch(NDManager manager, long[] indices) throws IOException {
+        List<Path> paths = new ArrayList<>(indices.length);
+        NDList[] labels = new NDList[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            String item = items.get(Math.toIntExact(indices[i]));
+            paths.add(getImagePath(item));
+            labels[i] = getLabels(manager, item);
+        }
+        NDArray[] images = decoder.decode(manager, paths, Flag.GRAYSCALE);
+        NDList[] data = new NDList[images.length];
+        for (int i = 0; i < images.length; i++) {
+            data[i] = new NDList(images[i]);
+        }
+        return batchify(data, labels);
+    }
 
+    private Path getImagePath(String item) throws IOException {
+        return repository.getFile(getArtifactItem(), getUsagePath() + "/" + item + ".jpeg");
+    }
+
+    private NDList getLabels(NDManager manager, String item) {
         NDList labels = new NDList(CAPTCHA_LENGTH);
         char[] labelChars = item.toCharArray();
         for (int i = 0; i < CAPTCHA_LENGTH; i++) {
@@ -94,8 +123,7 @@ public class CaptchaDataset extends RandomAccessDataset implements ZooDataset {
                 labels.add(manager.create(11));
             }
         }
-
-        return new Record(data, labels);
+        return labels;
     }
 
     /** {@inheritDoc} */
@@ -183,11 +211,13 @@ public class CaptchaDataset extends RandomAccessDataset implements ZooDataset {
         private Repository repository;
         private Artifact artifact;
         private Usage usage;
+        private ImageDecoder decoder;
 
         /** Constructs a new builder. */
         public Builder() {
             repository = BasicDatasets.REPOSITORY;
             usage = Usage.TRAIN;
+            decoder = ImageDecoder.builder().build();
             pipeline = new Pipeline(new ToTensor());
         }
 
@@ -208,6 +238,18 @@ public class CaptchaDataset extends RandomAccessDataset implements ZooDataset {
             return this;
         }
 
+        /**
+         * Sets the {@link ImageDecoder} that decodes the images, for example to share a decoded
+         * image cache between datasets.
+         *
+         * @param decoder the image decoder
+         * @return this builder
+         */
+        public Builder optImageDecoder(ImageDecoder decoder) {
+            this.decoder = decoder;
+            return self();
+        }
+
         /**
          * Sets the optional artifact.
          *
@@ -15,6 +15,7 @@ package ai.djl.basicdataset;
 import ai.djl.engine.Engine;
 import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
@@ -23,10 +24,13 @@ import ai.djl.repository.MRL;
 import ai.djl.repository.Repository;
 import ai.djl.repository.dataset.ZooDataset;
 import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.dataset.Record;
 import ai.djl.translate.Pipeline;
 import ai.djl.util.Utils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.Map;
 
 /**
@@ -51,6 +55,7 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
     private Artifact artifact;
     private Usage usage;
     private boolean prepared;
+    private byte[] rawData;
 
     Cifar10(Builder builder) {
         super(builder);
@@ -69,6 +74,42 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
         return new Builder();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The batch is gathered from a host copy of the dataset into a single direct buffer, and
+     * converted from the CHW layout of the file to HWC on the way.
+     */
+    @Override
+    protected Record gather(NDManager manager, long[] indices) {
+        int planeSize = IMAGE_HEIGHT * IMAGE_WIDTH;
+        int batchSize = indices.length;
+        float[] label = new float[batchSize];
+        ByteBuffer bb = manager.borrowDirect(batchSize * planeSize * 3 * 4);
+        try {
+            FloatBuffer fb = bb.asFloatBuffer();
+            for (int i = 0; i < batchSize; ++i) {
+                int offset = Math.toIntExact(indices[i]) * DATA_AND_LABEL_SIZE;
+                label[i] = rawData[offset] & 0xFF;
+                int red = offset + 1;
+                int green = red + planeSize;
+                int blue = green + planeSize;
+                for (int j = 0; j < planeSize; ++j) {
+                    fb.put(rawData[red + j] & 0xFF);
+                    fb.put(rawData[green + j] & 0xFF);
+                    fb.put(rawData[blue + j] & 0xFF);
+                }
+            }
+            fb.rewind();
+            Shape shape = new Shape(batchSize, IMAGE_HEIGHT, IMAGE_WIDTH, 3);
+            NDList d = new NDList(manager.create(fb, shape));
+            NDList l = new NDList(manager.create(label));
+            return new Record(d, l);
+        } finally {
+            manager.releaseDirect(bb);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public MRL getMrl() {
@@ -149,6 +190,7 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
     private NDArray readData(Artifact.Item item) throws IOException {
         try (InputStream is = repository.openStream(item, null)) {
             byte[] buf = Utils.toByteArray(is);
+            rawData = buf;
             int length = buf.length / DATA_AND_LABEL_SIZE;
             try (NDArray array =
                     manager.create(new Shape(length, DATA_AND_LABEL_SIZE), DataType.UINT8)) {
@@ -12,11 +12,12 @@
  */
 package ai.djl.basicdataset;
 
+import ai.djl.basicdataset.utils.ImageDecoder;
 import ai.djl.modality.cv.Rectangle;
 import ai.djl.modality.cv.transform.ToTensor;
-import ai.djl.modality.cv.util.BufferedImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils.Flag;
+import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.repository.Artifact;
@@ -47,6 +48,7 @@ public class CocoDetection extends RandomAccessDataset implements ZooDataset {
     private Usage usage;
     private boolean prepared;
     private Flag flag;
+    private ImageDecoder decoder;
 
     private CocoUtils coco;
     private List<Path> imagePaths;
@@ -58,6 +60,7 @@ public class CocoDetection extends RandomAccessDataset implements ZooDataset {
         artifact = builder.artifact;
         usage = builder.usage;
         flag = builder.flag;
+        decoder = builder.decoder;
         imagePaths = new ArrayList<>();
         labels = new ArrayList<>();
     }
@@ -117,12 +120,33 @@ public class CocoDetection extends RandomAccessDataset implements ZooDataset {
     @Override
     public Record get(NDManager manager, long index) throws IOException {
         int idx = Math.toIntExact(index);
-        NDList d =
-                new NDList(BufferedImageUtils.readFileToArray(manager, imagePaths.get(idx), flag));
+        NDList d = new NDList(decoder.decode(manager, imagePaths.get(idx), flag));
         NDList l = new NDList(manager.create(labels.get(idx)));
         return new Record(d, l);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The images of the batch are decoded in parallel.
+     */
+    @Override
+    public Record getBatch(NDManager manager, long[] indices) throws IOException {
+        List<Path> paths = new ArrayList<>(indices.length);
+        NDList[] l = new NDList[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            int idx = Math.toIntExact(indices[i]);
+            paths.add(imagePaths.get(idx));
+            l[i] = new NDList(manager.create(labels.get(idx)));
+        }
+        NDArray[] images = decoder.decode(manager, paths, flag);
+        NDList[] d = new NDList[images.length];
+        for (int i = 0; i < images.length; i++) {
+            d[i] = new NDList(images[i]);
+        }
+        return batchify(d, l);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void prepareData(Usage usage) throws IOException {
@@ -195,6 +219,7 @@ public class CocoDetection extends RandomAccessDataset implements ZooDataset {
     public static final class Builder extends BaseBuilder<Builder> {
 
         private Flag flag;
+        private ImageDecoder decoder;
         private Repository repository;
         private Artifact artifact;
         private Usage usage;
@@ -205,6 +230,7 @@ public class CocoDetection extends RandomAccessDataset implements ZooDataset {
             usage = Usage.TRAIN;
             pipeline = new Pipeline(new ToTensor());
             flag = NDImageUtils.Flag.COLOR;
+            decoder = ImageDecoder.builder().build();
         }
 
         /** {@inheritDoc} */
@@ -257,6 +283,18 @@ public class CocoDetection extends RandomAccessDataset implements ZooDataset {
             return self();
         }
 
+        /**
+         * Sets the {@link ImageDecoder} that decodes the images, for example to share a decoded
+         * image cache between datasets.
+         *
+         * @param decoder the image decoder
+         * @return this builder
+         */
+        public Builder optImageDecoder(ImageDecoder decoder) {
+            this.decoder = decoder;
+            return self();
+        }
+
         /**
          * Builds the new {@link CocoDetection}.
          *
@@ -15,6 +15,7 @@ package ai.djl.basicdataset;
 import ai.djl.engine.Engine;
 import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
@@ -23,10 +24,13 @@ import ai.djl.repository.MRL;
 import ai.djl.repository.Repository;
 import ai.djl.repository.dataset.ZooDataset;
 import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.dataset.Record;
 import ai.djl.translate.Pipeline;
 import ai.djl.util.Utils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.Map;
 
 /**
@@ -47,6 +51,8 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
     private Artifact artifact;
     private Usage usage;
     private boolean prepared;
+    private byte[] imageBytes;
+    private byte[] labelBytes;
 
     private Mnist(Builder builder) {
         super(builder);
@@ -65,6 +71,37 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
         return new Builder();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The batch is gathered from a host copy of the dataset into a single direct buffer.
+     */
+    @Override
+    protected Record gather(NDManager manager, long[] indices) {
+        int imageSize = IMAGE_HEIGHT * IMAGE_WIDTH;
+        int batchSize = indices.length;
+        float[] label = new float[batchSize];
+        ByteBuffer bb = manager.borrowDirect(batchSize * imageSize * 4);
+        try {
+            FloatBuffer fb = bb.asFloatBuffer();
+            for (int i = 0; i < batchSize; ++i) {
+                int index = Math.toIntExact(indices[i]);
+                int offset = index * imageSize;
+                for (int j = 0; j < imageSize; ++j) {
+                    fb.put(imageBytes[offset + j] & 0xFF);
+                }
+                label[i] = labelBytes[index] & 0xFF;
+            }
+            fb.rewind();
+            Shape shape = new Shape(batchSize, IMAGE_HEIGHT, IMAGE_WIDTH, 1);
+            NDList d = new NDList(manager.create(fb, shape));
+            NDList l = new NDList(manager.create(label));
+            return new Record(d, l);
+        } finally {
+            manager.releaseDirect(bb);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public MRL getMrl() {
@@ -137,6 +174,7 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
             }
 
             byte[] buf = Utils.toByteArray(is);
+            imageBytes = buf;
             try (NDArray array = manager.create(new Shape(length, 28, 28, 1), DataType.UINT8)) {
                 array.set(buf);
                 return array.toType(DataType.FLOAT32, false);
@@ -151,6 +189,7 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
             }
 
             byte[] buf = Utils.toByteArray(is);
+            labelBytes = buf;
             try (NDArray array = manager.create(new Shape(buf.length), DataType.UINT8)) {
                 array.set(buf);
                 return array.toType(DataType.FLOAT32, false);
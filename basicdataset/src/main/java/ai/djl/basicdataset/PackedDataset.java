@@ -0,0 +1,337 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.repository.dataset.PreparedDataset;
+import ai.djl.training.dataset.RandomAccessDataset;
+import ai.djl.training.dataset.Record;
+import ai.djl.translate.Pipeline;
+import ai.djl.util.Progress;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@code PackedDataset} serves the records of a single pre-decoded file that is memory mapped.
+ *
+ * <p>The file is written by {@link #pack(NDManager, RandomAccessDataset, Pipeline, Path)} from any
+ * {@link RandomAccessDataset} whose records hold one data array and one label array of fixed shape,
+ * for example an {@link ImageFolder} with a fixed {@link ai.djl.modality.cv.transform.Resize}. It
+ * has the following layout:
+ *
+ * <pre>
+ *  header       magic, version, byte order, record count, region offsets,
+ *               and the data type and shape of the data and the labels
+ *  data region  the data of every record, back to back with a fixed stride
+ *  label region the labels of every record, back to back with a fixed stride
+ * </pre>
+ *
+ * <p>Both regions start on a page boundary. As every record has the same stride, the header is the
+ * whole index: the record {@code i} starts at {@code offset + i * stride}. {@link #get(NDManager,
+ * long)} wraps the mapped bytes with {@link NDManager#wrap(ByteBuffer, Shape, DataType)}, so a
+ * record costs at most one copy and nothing is decoded. Repeated runs read from the OS page cache.
+ *
+ * <p>If the file is writable, it is mapped copy-on-write, so engines that support {@code wrap}
+ * without a copy use the mapped pages directly and the file is never modified. Otherwise, the file
+ * is mapped read-only and every record is copied.
+ *
+ * <p>The arrays are stored in the native byte order of the machine that packed them, and the file
+ * can only be opened on machines with the same byte order.
+ */
+public class PackedDataset extends RandomAccessDataset implements PreparedDataset {
+
+    private static final int MAGIC = 0x504B4C44; // "DLKP"
+    private static final int VERSION = 1;
+    private static final int ALIGNMENT = 4096;
+
+    private Path path;
+    private long size;
+    private Region data;
+    private Region labels;
+
+    PackedDataset(Builder builder) {
+        super(builder);
+        path = builder.path;
+    }
+
+    /**
+     * Creates a builder to build a {@link PackedDataset}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Writes the records of a dataset into a packed file.
+     *
+     * @param manager the {@link NDManager} to fetch the records with
+     * @param dataset the dataset to pack, it must be prepared already
+     * @param pipeline the {@link Pipeline} to apply to the data of each record before it is
+     *     written, or {@code null}
+     * @param path the path of the file to write
+     * @throws IOException if the records cannot be read or the file cannot be written
+     * @throws IllegalArgumentException if the records do not all have one data and one label array
+     *     of the same shape and data type
+     */
+    public static void pack(
+            NDManager manager, RandomAccessDataset dataset, Pipeline pipeline, Path path)
+            throws IOException {
+        long count = dataset.size();
+        try (FileChannel channel =
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)) {
+            Region dataRegion = null;
+            Region labelRegion = null;
+            for (long i = 0; i < count; ++i) {
+                try (NDManager subManager = manager.newSubManager()) {
+                    Record record = dataset.get(subManager, i);
+                    NDList d = record.getData();
+                    if (pipeline != null) {
+                        d = pipeline.transform(d);
+                    }
+                    NDArray array = single(d, "data", i);
+                    NDArray label = single(record.getLabels(), "labels", i);
+                    if (dataRegion == null) {
+                        dataRegion = new Region(array, ALIGNMENT);
+                        long end = dataRegion.offset + dataRegion.stride * count;
+                        labelRegion = new Region(label, align(end));
+                    }
+                    dataRegion.write(channel, array, i);
+                    labelRegion.write(channel, label, i);
+                }
+            }
+            if (dataRegion == null) {
+                throw new IllegalArgumentException("Cannot pack an empty dataset");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(ALIGNMENT).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.put((byte) (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0));
+            header.putLong(count);
+            dataRegion.writeHeader(header);
+            labelRegion.writeHeader(header);
+            header.rewind();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void prepare(Progress progress) throws IOException {
+        if (data != null) {
+            return;
+        }
+        // a copy-on-write mapping needs a channel that is open for writing, though nothing is
+        // ever written to the file
+        boolean writable = Files.isWritable(path);
+        FileChannel.MapMode mode =
+                writable ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY;
+        try (FileChannel channel =
+                writable
+                        ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                        : FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(ALIGNMENT).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the full header
+            }
+            header.flip();
+            if (header.remaining() < 21 || header.getInt() != MAGIC) {
+                throw new IOException("Not a packed dataset: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported packed dataset version: " + version);
+            }
+            boolean littleEndian = header.get() == 1;
+            if (littleEndian != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)) {
+                throw new IOException(
+                        "The dataset was packed on a machine with a different byte order: " + path);
+            }
+            size = header.getLong();
+            Region dataRegion = Region.readHeader(header);
+            Region labelRegion = Region.readHeader(header);
+            dataRegion.map(channel, mode, size);
+            labelRegion.map(channel, mode, size);
+            labels = labelRegion;
+            data = dataRegion;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Record get(NDManager manager, long index) {
+        NDList d = new NDList(data.get(manager, index));
+        NDList l = new NDList(labels.get(manager, index));
+        return new Record(d, l);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    private static NDArray single(NDList list, String name, long index) {
+        if (list.size() != 1) {
+            throw new IllegalArgumentException(
+                    "Record " + index + " must have exactly one " + name + " array");
+        }
+        return list.head();
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /** The fixed stride region that holds one array of every record. */
+    private static final class Region {
+
+        long offset;
+        long stride;
+        DataType dataType;
+        Shape shape;
+        int recordsPerSegment;
+        MappedByteBuffer[] segments;
+
+        Region(long offset, DataType dataType, Shape shape) {
+            this.offset = offset;
+            this.dataType = dataType;
+            this.shape = shape;
+            stride = shape.size() * dataType.getNumOfBytes();
+        }
+
+        Region(NDArray array, long offset) {
+            this(offset, array.getDataType(), array.getShape());
+        }
+
+        void write(FileChannel channel, NDArray array, long index) throws IOException {
+            if (array.getDataType() != dataType || !array.getShape().equals(shape)) {
+                throw new IllegalArgumentException(
+                        "Record "
+                                + index
+                                + " has shape "
+                                + array.getShape()
+                                + " and data type "
+                                + array.getDataType()
+                                + ", expected "
+                                + shape
+                                + " and "
+                                + dataType);
+            }
+            ByteBuffer bb = array.toByteBuffer();
+            long position = offset + index * stride;
+            while (bb.hasRemaining()) {
+                position += channel.write(bb, position);
+            }
+        }
+
+        void writeHeader(ByteBuffer header) {
+            header.putLong(offset);
+            byte[] name = dataType.name().getBytes(StandardCharsets.UTF_8);
+            header.putInt(name.length);
+            header.put(name);
+            header.putInt(shape.dimension());
+            for (long dim : shape.getShape()) {
+                header.putLong(dim);
+            }
+        }
+
+        static Region readHeader(ByteBuffer header) {
+            long offset = header.getLong();
+            byte[] name = new byte[header.getInt()];
+            header.get(name);
+            DataType dataType = DataType.valueOf(new String(name, StandardCharsets.UTF_8));
+            long[] dims = new long[header.getInt()];
+            for (int i = 0; i < dims.length; ++i) {
+                dims[i] = header.getLong();
+            }
+            return new Region(offset, dataType, new Shape(dims));
+        }
+
+        void map(FileChannel channel, FileChannel.MapMode mode, long count) throws IOException {
+            // a mapping is limited to 2 GB, so large regions are split into segments of whole
+            // records
+            recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / Math.max(stride, 1), count);
+            int numSegments = Math.toIntExact((count + recordsPerSegment - 1) / recordsPerSegment);
+            segments = new MappedByteBuffer[numSegments];
+            for (int i = 0; i < numSegments; ++i) {
+                long first = (long) i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[i] =
+                        channel.map(mode, offset + first * stride, records * stride);
+            }
+        }
+
+        NDArray get(NDManager manager, long index) {
+            ByteBuffer segment = segments[Math.toIntExact(index / recordsPerSegment)].duplicate();
+            int position = (int) (index % recordsPerSegment * stride);
+            segment.position(position);
+            segment.limit(position + (int) stride);
+            return manager.wrap(segment.slice(), shape, dataType);
+        }
+    }
+
+    /** A builder to construct a {@link PackedDataset}. */
+    public static final class Builder extends BaseBuilder<Builder> {
+
+        Path path;
+
+        /** {@inheritDoc} */
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        /**
+         * Sets the path of the packed file.
+         *
+         * @param path the path of the packed file
+         * @return this builder
+         */
+        public Builder setPath(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Builds the {@link PackedDataset}.
+         *
+         * @return the {@link PackedDataset}
+         */
+        public PackedDataset build() {
+            if (path == null) {
+                throw new IllegalArgumentException("The path of the packed file must be set");
+            }
+            return new PackedDataset(this);
+        }
+    }
+}
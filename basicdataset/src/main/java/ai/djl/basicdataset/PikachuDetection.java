@@ -12,8 +12,8 @@
  */
 package ai.djl.basicdataset;
 
+import ai.djl.basicdataset.utils.ImageDecoder;
 import ai.djl.modality.cv.transform.ToTensor;
-import ai.djl.modality.cv.util.BufferedImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils.Flag;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
@@ -55,6 +55,7 @@ public class PikachuDetection extends RandomAccessDataset implements ZooDataset
     private Usage usage;
     private boolean prepared;
     private Flag flag;
+    private ImageDecoder decoder;
 
     private List<Path> imagePaths;
     private List<float[]> labels;
@@ -65,6 +66,7 @@ public class PikachuDetection extends RandomAccessDataset implements ZooDataset
         artifact = builder.artifact;
         usage = builder.usage;
         flag = builder.flag;
+        decoder = builder.decoder;
         imagePaths = new ArrayList<>();
         labels = new ArrayList<>();
     }
@@ -168,11 +170,35 @@ public class PikachuDetection extends RandomAccessDataset implements ZooDataset
     @Override
     public Record get(NDManager manager, long index) throws IOException {
         int idx = Math.toIntExact(index);
-        NDList d =
-                new NDList(BufferedImageUtils.readFileToArray(manager, imagePaths.get(idx), flag));
+        NDList d = new NDList(decoder.decode(manager, imagePaths.get(idx), flag));
+        return new Record(d, getLabel(manager, idx));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The images of the batch are decoded in parallel.
+     */
+    @Override
+    public Record getBatch(NDManager manager, long[] indices) throws IOException {
+        List<Path> paths = new ArrayList<>(indices.length);
+        NDList[] l = new NDList[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            int idx = Math.toIntExact(indices[i]);
+            paths.add(imagePaths.get(idx));
+            l[i] = getLabel(manager, idx);
+        }
+        NDArray[] images = decoder.decode(manager, paths, flag);
+        NDList[] d = new NDList[images.length];
+        for (int i = 0; i < images.length; i++) {
+            d[i] = new NDList(images[i]);
+        }
+        return batchify(d, l);
+    }
+
+    private NDList getLabel(NDManager manager, int idx) {
         NDArray label = manager.create(labels.get(idx));
-        NDList l = new NDList(label.reshape(new Shape(1).addAll(label.getShape())));
-        return new Record(d, l);
+        return new NDList(label.reshape(new Shape(1).addAll(label.getShape())));
     }
 
     /** {@inheritDoc} */
@@ -188,12 +214,14 @@ public class PikachuDetection extends RandomAccessDataset implements ZooDataset
         Artifact artifact;
         Usage usage;
         Flag flag;
+        ImageDecoder decoder;
 
         /** Constructs a new builder. */
         public Builder() {
             repository = BasicDatasets.REPOSITORY;
             usage = Usage.TRAIN;
             flag = Flag.COLOR;
+            decoder = ImageDecoder.builder().build();
             pipeline = new Pipeline(new ToTensor());
         }
 
@@ -247,6 +275,18 @@ public class PikachuDetection extends RandomAccessDataset implements ZooDataset
             return self();
         }
 
+        /**
+         * Sets the {@link ImageDecoder} that decodes the images, for example to share a decoded
+         * image cache between datasets.
+         *
+         * @param decoder the image decoder
+         * @return this builder
+         */
+        public Builder optImageDecoder(ImageDecoder decoder) {
+            this.decoder = decoder;
+            return self();
+        }
+
         /**
          * Builds the {@link PikachuDetection}.
          *
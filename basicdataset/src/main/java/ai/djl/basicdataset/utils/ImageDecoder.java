@@ -0,0 +1,356 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset.utils;
+
+import ai.djl.modality.cv.util.BufferedImageUtils;
+import ai.djl.modality.cv.util.NDImageUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.imageio.ImageIO;
+
+/**
+ * {@code ImageDecoder} decodes image files into HWC uint8 {@link NDArray}s for datasets.
+ *
+ * <p>A list of images is decoded in parallel on a {@link ForkJoinPool}, and only the final copy
+ * into the {@link NDArray}s happens on the calling thread. Optionally, the decoder keeps a bounded
+ * LRU cache keyed by path and color mode, so later epochs do not need to decode again:
+ *
+ * <ul>
+ *   <li>{@link CacheType#ENCODED} keeps the file contents on the heap, which saves the I/O but not
+ *       the decoding.
+ *   <li>{@link CacheType#DECODED} keeps the decoded pixels in off-heap memory, which skips both.
+ *       Decoded images are several times larger than the files, so fewer of them fit in the same
+ *       budget.
+ * </ul>
+ *
+ * <p>An {@code ImageDecoder} is thread safe and is typically shared by all the image datasets of a
+ * training job.
+ */
+public class ImageDecoder {
+
+    private ForkJoinPool pool;
+    private CacheType cacheType;
+    private Cache cache;
+
+    ImageDecoder(Builder builder) {
+        pool = builder.pool;
+        cacheType = builder.cacheType;
+        if (builder.cacheSize > 0) {
+            cache = new Cache(builder.cacheSize);
+        }
+    }
+
+    /**
+     * Creates a builder to build an {@code ImageDecoder}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Decodes an image file.
+     *
+     * @param manager the {@link NDManager} to create the {@link NDArray} with
+     * @param path the path of the image file
+     * @param flag the color mode
+     * @return the image as a HWC {@link NDArray} of {@link DataType#UINT8}
+     * @throws IOException if the file cannot be read or decoded
+     */
+    public NDArray decode(NDManager manager, Path path, NDImageUtils.Flag flag)
+            throws IOException {
+        return toNDArray(manager, decodeImage(manager, path, flag));
+    }
+
+    /**
+     * Decodes a list of image files in parallel.
+     *
+     * @param manager the {@link NDManager} to create the {@link NDArray}s with
+     * @param paths the paths of the image files
+     * @param flag the color mode
+     * @return the images as HWC {@link NDArray}s of {@link DataType#UINT8}, in the order of the
+     *     paths
+     * @throws IOException if any of the files cannot be read or decoded
+     */
+    public NDArray[] decode(NDManager manager, List<Path> paths, NDImageUtils.Flag flag)
+            throws IOException {
+        List<ForkJoinTask<Image>> tasks = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            tasks.add(pool.submit(() -> decodeImage(manager, path, flag)));
+        }
+        Image[] images = new Image[tasks.size()];
+        IOException error = null;
+        for (int i = 0; i < images.length; ++i) {
+            try {
+                images[i] = tasks.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = new IOException("Interrupted while decoding images", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    error = (IOException) cause;
+                } else {
+                    error = new IOException("Failed to decode image: " + paths.get(i), cause);
+                }
+            }
+        }
+        if (error != null) {
+            for (Image image : images) {
+                if (image != null && image.pooled) {
+                    manager.releaseDirect(image.pixels);
+                }
+            }
+            throw error;
+        }
+
+        NDArray[] arrays = new NDArray[images.length];
+        for (int i = 0; i < images.length; ++i) {
+            arrays[i] = toNDArray(manager, images[i]);
+        }
+        return arrays;
+    }
+
+    /**
+     * Returns the number of bytes held by the cache.
+     *
+     * @return the number of bytes held by the cache
+     */
+    public long getCachedBytes() {
+        return cache == null ? 0 : cache.getBytes();
+    }
+
+    /** Removes all entries from the cache. */
+    public void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private Image decodeImage(NDManager manager, Path path, NDImageUtils.Flag flag)
+            throws IOException {
+        Key key = new Key(path, flag);
+        Entry entry = cache == null ? null : cache.get(key);
+        if (entry != null && entry.pixels != null) {
+            return new Image(entry.pixels.duplicate(), entry.shape, false);
+        }
+
+        byte[] encoded = entry == null ? Files.readAllBytes(path) : entry.encoded;
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(encoded));
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + path);
+        }
+        int channels = flag == NDImageUtils.Flag.GRAYSCALE ? 1 : 3;
+        Shape shape = new Shape(image.getHeight(), image.getWidth(), channels);
+        int size = Math.toIntExact(shape.size());
+
+        if (cache != null && cacheType == CacheType.DECODED) {
+            ByteBuffer pixels = ByteBuffer.allocateDirect(size);
+            BufferedImageUtils.toByteBuffer(image, flag, pixels);
+            pixels.rewind();
+            cache.put(key, new Entry(null, pixels, shape));
+            return new Image(pixels.duplicate(), shape, false);
+        }
+        if (cache != null && entry == null) {
+            cache.put(key, new Entry(encoded, null, null));
+        }
+        ByteBuffer pixels = manager.borrowDirect(size);
+        BufferedImageUtils.toByteBuffer(image, flag, pixels);
+        pixels.rewind();
+        return new Image(pixels, shape, true);
+    }
+
+    private static NDArray toNDArray(NDManager manager, Image image) {
+        try {
+            return manager.create(image.pixels, image.shape, DataType.UINT8);
+        } finally {
+            if (image.pooled) {
+                manager.releaseDirect(image.pixels);
+            }
+        }
+    }
+
+    /** The type of data kept by the cache of an {@link ImageDecoder}. */
+    public enum CacheType {
+        /** Caches the contents of the image files on the heap. */
+        ENCODED,
+        /** Caches the decoded pixels in off-heap memory. */
+        DECODED
+    }
+
+    /** A decoded image that is waiting to be copied into an {@link NDArray}. */
+    private static final class Image {
+
+        ByteBuffer pixels;
+        Shape shape;
+        boolean pooled;
+
+        Image(ByteBuffer pixels, Shape shape, boolean pooled) {
+            this.pixels = pixels;
+            this.shape = shape;
+            this.pooled = pooled;
+        }
+    }
+
+    private static final class Key {
+
+        private Path path;
+        private NDImageUtils.Flag flag;
+
+        Key(Path path, NDImageUtils.Flag flag) {
+            this.path = path;
+            this.flag = flag;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return path.equals(other.path) && flag == other.flag;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, flag);
+        }
+    }
+
+    private static final class Entry {
+
+        byte[] encoded;
+        ByteBuffer pixels;
+        Shape shape;
+
+        Entry(byte[] encoded, ByteBuffer pixels, Shape shape) {
+            this.encoded = encoded;
+            this.pixels = pixels;
+            this.shape = shape;
+        }
+
+        long size() {
+            return encoded != null ? encoded.length : pixels.capacity();
+        }
+    }
+
+    /** A LRU map bounded by the total size of its entries. */
+    private static final class Cache {
+
+        private long maxBytes;
+        private long bytes;
+        private LinkedHashMap<Key, Entry> map;
+
+        Cache(long maxBytes) {
+            this.maxBytes = maxBytes;
+            map = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        synchronized Entry get(Key key) {
+            return map.get(key);
+        }
+
+        synchronized void put(Key key, Entry entry) {
+            long size = entry.size();
+            if (size > maxBytes) {
+                return;
+            }
+            Entry old = map.put(key, entry);
+            if (old != null) {
+                bytes -= old.size();
+            }
+            bytes += size;
+            Iterator<Map.Entry<Key, Entry>> it = map.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Entry eldest = it.next().getValue();
+                bytes -= eldest.size();
+                it.remove();
+            }
+        }
+
+        synchronized long getBytes() {
+            return bytes;
+        }
+
+        synchronized void clear() {
+            map.clear();
+            bytes = 0;
+        }
+    }
+
+    /** The Builder to construct an {@link ImageDecoder}. */
+    public static final class Builder {
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        CacheType cacheType = CacheType.ENCODED;
+        long cacheSize;
+
+        Builder() {}
+
+        /**
+         * Sets the {@link ForkJoinPool} that decodes the images (default is the common pool).
+         *
+         * @param pool the pool that decodes the images
+         * @return this builder
+         */
+        public Builder optPool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Enables the cache.
+         *
+         * @param cacheType the type of data to cache
+         * @param maxBytes the maximum number of bytes held by the cache
+         * @return this builder
+         */
+        public Builder optCache(CacheType cacheType, long maxBytes) {
+            this.cacheType = cacheType;
+            this.cacheSize = maxBytes;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ImageDecoder}.
+         *
+         * @return the {@link ImageDecoder}
+         */
+        public ImageDecoder build() {
+            return new ImageDecoder(this);
+        }
+    }
+}
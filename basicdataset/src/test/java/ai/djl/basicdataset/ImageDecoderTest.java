@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.basicdataset.utils.ImageDecoder;
+import ai.djl.modality.cv.util.BufferedImageUtils;
+import ai.djl.modality.cv.util.NDImageUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ImageDecoderTest {
+
+    @Test
+    public void testDecode() throws IOException {
+        List<Path> paths =
+                Arrays.asList(
+                        Paths.get("src/test/resources/imagefolder/cat/kitten.jpg"),
+                        Paths.get("src/test/resources/imagefolder/misc/pikachu.png"));
+        for (ImageDecoder.CacheType type : ImageDecoder.CacheType.values()) {
+            ImageDecoder decoder = ImageDecoder.builder().optCache(type, 64L << 20).build();
+            try (NDManager manager = NDManager.newBaseManager()) {
+                for (int epoch = 0; epoch < 2; ++epoch) {
+                    NDArray[] arrays = decoder.decode(manager, paths, NDImageUtils.Flag.COLOR);
+                    Assert.assertEquals(arrays.length, paths.size());
+                    for (int i = 0; i < arrays.length; ++i) {
+                        Path path = paths.get(i);
+                        NDArray expected = BufferedImageUtils.readFileToArray(manager, path);
+                        Assert.assertEquals(arrays[i], expected);
+                    }
+                }
+                Assert.assertTrue(decoder.getCachedBytes() > 0);
+
+                NDArray gray = decoder.decode(manager, paths.get(0), NDImageUtils.Flag.GRAYSCALE);
+                Assert.assertEquals(gray.getShape().get(2), 1);
+            }
+            decoder.clearCache();
+            Assert.assertEquals(decoder.getCachedBytes(), 0);
+        }
+    }
+
+    @Test
+    public void testCacheEviction() throws IOException {
+        Path path = Paths.get("src/test/resources/imagefolder/cat/kitten.jpg");
+        ImageDecoder decoder =
+                ImageDecoder.builder().optCache(ImageDecoder.CacheType.DECODED, 1).build();
+        try (NDManager manager = NDManager.newBaseManager()) {
+            decoder.decode(manager, path, NDImageUtils.Flag.COLOR);
+            Assert.assertEquals(decoder.getCachedBytes(), 0);
+        }
+    }
+}
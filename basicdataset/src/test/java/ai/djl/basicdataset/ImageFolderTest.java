@@ -19,12 +19,14 @@ import ai.djl.modality.cv.util.BufferedImageUtils;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Blocks;
 import ai.djl.repository.Repository;
 import ai.djl.training.DefaultTrainingConfig;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
 import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Record;
 import ai.djl.training.initializer.Initializer;
 import ai.djl.training.loss.Loss;
 import ai.djl.translate.Pipeline;
@@ -105,4 +107,32 @@ public class ImageFolderTest {
             }
         }
     }
+
+    @Test
+    public void testGetBatch() throws IOException {
+        Repository repository = Repository.newInstance("test", "src/test/resources/imagefolder");
+        Pipeline pipeline = new Pipeline().add(new Resize(100, 100)).add(new ToTensor());
+        ImageFolder dataset =
+                new ImageFolder.Builder()
+                        .setRepository(repository)
+                        .optPipeline(pipeline)
+                        .setSampling(3, false)
+                        .build();
+        dataset.prepare();
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            long[] indices = {2, 0, 1};
+            Record batch = dataset.getBatch(manager, indices);
+            NDArray data = batch.getData().singletonOrThrow();
+            Assert.assertEquals(data.getShape(), new Shape(3, 3, 100, 100));
+            for (int i = 0; i < indices.length; ++i) {
+                Record record = dataset.get(manager, indices[i]);
+                Assertions.assertAlmostEquals(
+                        data.get(i), pipeline.transform(record.getData()).singletonOrThrow());
+                Assert.assertEquals(
+                        batch.getLabels().singletonOrThrow().get(i),
+                        record.getLabels().singletonOrThrow());
+            }
+        }
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.dataset.Record;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PackedDatasetTest {
+
+    @Test
+    public void testPackedDataset() throws IOException {
+        Path path = Files.createTempFile("packed", ".bin");
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray data =
+                    manager.arange(0, 240).reshape(5, 4, 4, 3).toType(DataType.UINT8, false);
+            NDArray labels = manager.arange(0f, 5f);
+            ArrayDataset source =
+                    new ArrayDataset.Builder()
+                            .setData(data)
+                            .optLabels(labels)
+                            .setSampling(1, false)
+                            .build();
+            PackedDataset.pack(manager, source, null, path);
+
+            PackedDataset dataset =
+                    PackedDataset.builder().setPath(path).setSampling(2, false).build();
+            dataset.prepare();
+            Assert.assertEquals(dataset.size(), 5);
+            for (long i = 0; i < dataset.size(); ++i) {
+                Record record = dataset.get(manager, i);
+                NDArray array = record.getData().singletonOrThrow();
+                Assert.assertEquals(array.getShape(), new Shape(4, 4, 3));
+                Assert.assertEquals(array, data.get(i));
+                Assert.assertEquals(record.getLabels().singletonOrThrow(), labels.get(i));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.benchmark;
+
+import ai.djl.Model;
+import ai.djl.ModelException;
+import ai.djl.basicdataset.Cifar10;
+import ai.djl.modality.Classifications;
+import ai.djl.modality.cv.transform.Normalize;
+import ai.djl.modality.cv.transform.ToTensor;
+import ai.djl.mxnet.engine.MxQuantizer;
+import ai.djl.mxnet.zoo.MxModelZoo;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.training.ParameterStore;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Dataset;
+import ai.djl.training.dataset.RandomAccessDataset;
+import ai.djl.training.util.ProgressBar;
+import ai.djl.translate.Pipeline;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the accuracy and latency of the FP32 and INT8 versions of the CIFAR-10 ResNet-50 model
+ * from the MXNet model zoo on CPU.
+ *
+ * <p>The INT8 model is produced with {@link MxQuantizer}, calibrated on the CIFAR-10 training set
+ * and evaluated on the CIFAR-10 test set.
+ */
+public final class QuantizationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuantizationBenchmark.class);
+
+    private static final int BATCH_SIZE = 32;
+    private static final long MAX_ITERATIONS = 100;
+
+    private QuantizationBenchmark() {}
+
+    public static void main(String[] args) throws IOException, ModelException {
+        Map<String, String> criteria = new HashMap<>();
+        criteria.put("layers", "50");
+        criteria.put("flavor", "v1");
+        criteria.put("dataset", "cifar10");
+
+        Path modelDir = Paths.get("build/int8");
+        String modelName = "resnet50_v1_cifar10_int8";
+        RandomAccessDataset testSet = getDataset(Dataset.Usage.TEST);
+        try (ZooModel<BufferedImage, Classifications> model =
+                MxModelZoo.RESNET.loadModel(criteria, new ProgressBar())) {
+            Result fp32 = evaluate(model, testSet);
+            logger.info("FP32: {}", fp32);
+
+            MxQuantizer quantizer = MxQuantizer.builder().build();
+            quantizer.quantize(model, getDataset(Dataset.Usage.TRAIN), modelDir, modelName);
+        }
+
+        Map<String, String> options = new HashMap<>();
+        options.put("subgraph_backend", "MKLDNN_QUANTIZE");
+        try (Model model = Model.newInstance()) {
+            model.load(modelDir, modelName, options);
+            Result int8 = evaluate(model, testSet);
+            logger.info("INT8: {}", int8);
+        }
+    }
+
+    private static Result evaluate(Model model, Dataset dataset) {
+        ParameterStore parameterStore = new ParameterStore(model.getNDManager(), false);
+        Result result = new Result();
+        for (Batch batch : dataset.getData(model.getNDManager())) {
+            try {
+                long begin = System.nanoTime();
+                NDList output = model.getBlock().forward(parameterStore, batch.getData());
+                NDArray classes = output.head().argMax(1).toType(DataType.INT64, false);
+                long[] predictions = classes.toLongArray();
+                result.totalNanos += System.nanoTime() - begin;
+
+                NDArray labels = batch.getLabels().head().toType(DataType.INT64, false);
+                long[] expected = labels.toLongArray();
+                for (int i = 0; i < predictions.length; ++i) {
+                    if (predictions[i] == expected[i]) {
+                        ++result.correct;
+                    }
+                }
+                result.total += predictions.length;
+                ++result.batches;
+            } finally {
+                batch.close();
+            }
+        }
+        return result;
+    }
+
+    private static RandomAccessDataset getDataset(Dataset.Usage usage) throws IOException {
+        Pipeline pipeline =
+                new Pipeline(
+                        new ToTensor(),
+                        new Normalize(Cifar10.NORMALIZE_MEAN, Cifar10.NORMALIZE_STD));
+        Cifar10 cifar10 =
+                Cifar10.builder()
+                        .optUsage(usage)
+                        .setSampling(BATCH_SIZE, false)
+                        .optMaxIteration(MAX_ITERATIONS)
+                        .optPipeline(pipeline)
+                        .build();
+        cifar10.prepare(new ProgressBar());
+        return cifar10;
+    }
+
+    private static final class Result {
+
+        long correct;
+        long total;
+        long batches;
+        long totalNanos;
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return String.format(
+                    "accuracy: %.4f, latency: %.3f ms/batch of %d",
+                    (double) correct / total, totalNanos / 1_000_000.0 / batches, BATCH_SIZE);
+        }
+    }
+}
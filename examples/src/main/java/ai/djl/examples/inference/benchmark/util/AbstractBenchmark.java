@@ -16,6 +16,7 @@ import ai.djl.Device;
 import ai.djl.ModelException;
 import ai.djl.basicmodelzoo.BasicModelZoo;
 import ai.djl.engine.Engine;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.examples.inference.benchmark.MultithreadedBenchmark;
 import ai.djl.metric.Metrics;
 import ai.djl.modality.Classifications;
@@ -30,6 +31,7 @@ import ai.djl.util.Progress;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
@@ -45,6 +47,7 @@ public abstract class AbstractBenchmark<T> {
     private static final Logger logger = LoggerFactory.getLogger(AbstractBenchmark.class);
 
     private T lastResult;
+    private ExecutionProfile executionProfile;
 
     protected ProgressBar progressBar;
 
@@ -120,6 +123,11 @@ public abstract class AbstractBenchmark<T> {
             if (this instanceof MultithreadedBenchmark) {
                 iteration = Math.max(iteration, numOfThreads * 2);
             }
+            List<ExecutionProfile> profiles = arguments.getExecutionProfiles();
+            if (!profiles.isEmpty()) {
+                sweep(arguments, profiles, iteration);
+                return true;
+            }
             while (!duration.isNegative()) {
                 Metrics metrics = new Metrics(); // Reset Metrics for each test loop.
                 progressBar = new ProgressBar("Iteration", iteration);
@@ -209,6 +217,64 @@ public abstract class AbstractBenchmark<T> {
         return false;
     }
 
+    /**
+     * Runs the benchmark once for each {@link ExecutionProfile} and reports the profiles on the
+     * throughput/latency frontier.
+     *
+     * <p>A profile is on the frontier if no other profile has both a higher throughput and a
+     * lower P90 inference latency.
+     *
+     * @param arguments command line arguments
+     * @param profiles the execution profiles to sweep
+     * @param iteration number of prediction iteration to run for each profile
+     * @throws IOException if io error occurs when loading model.
+     * @throws ModelException if specified model not found or there is a parameter error
+     * @throws TranslateException if error occurs when processing input or output
+     */
+    private void sweep(Arguments arguments, List<ExecutionProfile> profiles, int iteration)
+            throws IOException, ModelException, TranslateException {
+        int size = profiles.size();
+        double[] throughput = new double[size];
+        float[] p50 = new float[size];
+        float[] p90 = new float[size];
+        for (int i = 0; i < size; ++i) {
+            executionProfile = profiles.get(i);
+            logger.info("Running with {}", executionProfile);
+            Metrics metrics = new Metrics();
+            progressBar = new ProgressBar("Iteration", iteration);
+            long begin = System.currentTimeMillis();
+            lastResult = predict(arguments, metrics, iteration);
+            long totalTime = System.currentTimeMillis() - begin;
+            throughput[i] = iteration * 1000d / totalTime;
+            if (metrics.hasMetric("Inference")) {
+                p50[i] = metrics.percentile("Inference", 50).getValue().longValue() / 1_000_000f;
+                p90[i] = metrics.percentile("Inference", 90).getValue().longValue() / 1_000_000f;
+            }
+            logger.info(
+                    String.format(
+                            "Throughput: %.2f, inference P50: %.3f ms, P90: %.3f ms",
+                            throughput[i], p50[i], p90[i]));
+        }
+        executionProfile = null;
+
+        logger.info("Throughput/latency frontier:");
+        for (int i = 0; i < size; ++i) {
+            boolean dominated = false;
+            for (int j = 0; j < size && !dominated; ++j) {
+                dominated =
+                        throughput[j] >= throughput[i]
+                                && p90[j] <= p90[i]
+                                && (throughput[j] > throughput[i] || p90[j] < p90[i]);
+            }
+            if (!dominated) {
+                logger.info(
+                        String.format(
+                                "%s: throughput: %.2f, P50: %.3f ms, P90: %.3f ms",
+                                profiles.get(i), throughput[i], p50[i], p90[i]));
+            }
+        }
+    }
+
     /**
      * Returns last predict result.
      *
@@ -239,6 +305,9 @@ public abstract class AbstractBenchmark<T> {
 
         Progress progress = new ProgressBar();
         ZooModel<BufferedImage, Classifications> model = loader.loadModel(criteria, progress);
+        if (executionProfile != null) {
+            model.setExecutionProfile(executionProfile);
+        }
         long delta = System.nanoTime() - begin;
         logger.info(
                 "Model {} loaded in: {} ms.",
@@ -12,6 +12,7 @@
  */
 package ai.djl.examples.inference.benchmark.util;
 
+import ai.djl.engine.ExecutionProfile;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import java.io.FileNotFoundException;
@@ -20,6 +21,9 @@ import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
@@ -36,6 +40,7 @@ public class Arguments {
     private int duration;
     private int iteration = 1;
     private int threads;
+    private List<ExecutionProfile> profiles;
 
     private boolean isImperative;
 
@@ -60,6 +65,11 @@ public class Arguments {
             criteria = new Gson().fromJson(cmd.getOptionValue("criteria"), type);
         }
         isImperative = cmd.hasOption("imperative");
+        if (cmd.hasOption("sweep")) {
+            profiles = parseSweep(cmd.getOptionValue("sweep"));
+        } else {
+            profiles = Collections.emptyList();
+        }
     }
 
     public static Options getOptions() {
@@ -126,6 +136,15 @@ public class Arguments {
                         .argName("IMPERATIVE")
                         .desc("set to true to use imperative model.")
                         .build());
+        options.addOption(
+                Option.builder("s")
+                        .longOpt("sweep")
+                        .hasArg()
+                        .argName("SWEEP")
+                        .desc(
+                                "Execution profiles to sweep, e.g."
+                                        + " \"intra=1,2,4;inter=0,2;bulk=-1,16\".")
+                        .build());
         return options;
     }
 
@@ -183,4 +202,52 @@ public class Arguments {
     public Map<String, String> getCriteria() {
         return criteria;
     }
+
+    public List<ExecutionProfile> getExecutionProfiles() {
+        return profiles;
+    }
+
+    private static List<ExecutionProfile> parseSweep(String sweep) {
+        int[] intra = {0};
+        int[] inter = {0};
+        int[] bulk = {-1};
+        for (String setting : sweep.split(";")) {
+            String[] pair = setting.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid sweep setting: " + setting);
+            }
+            String[] tokens = pair[1].split(",");
+            int[] values = new int[tokens.length];
+            for (int i = 0; i < tokens.length; ++i) {
+                values[i] = Integer.parseInt(tokens[i].trim());
+            }
+            switch (pair[0].trim()) {
+                case "intra":
+                    intra = values;
+                    break;
+                case "inter":
+                    inter = values;
+                    break;
+                case "bulk":
+                    bulk = values;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown sweep setting: " + pair[0]);
+            }
+        }
+        List<ExecutionProfile> list = new ArrayList<>();
+        for (int i : intra) {
+            for (int j : inter) {
+                for (int k : bulk) {
+                    list.add(
+                            ExecutionProfile.builder()
+                                    .optIntraOpThreads(i)
+                                    .optInterOpWorkers(j)
+                                    .optBulkSize(k)
+                                    .build());
+                }
+            }
+        }
+        return list;
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.benchmark;
+
+import ai.djl.engine.ExecutionProfile;
+import ai.djl.examples.inference.benchmark.util.Arguments;
+import java.util.List;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.ParseException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BenchmarkTest {
+
+    @Test
+    public void testParseSweep() throws ParseException {
+        String[] args = {"-s", "intra=1,2;inter=0;bulk=-1,16"};
+        CommandLine cmd = new DefaultParser().parse(Arguments.getOptions(), args);
+        List<ExecutionProfile> profiles = new Arguments(cmd).getExecutionProfiles();
+        Assert.assertEquals(profiles.size(), 4);
+        Assert.assertEquals(profiles.get(0).getIntraOpThreads(), 1);
+        Assert.assertEquals(profiles.get(0).getBulkSize(), -1);
+        Assert.assertEquals(profiles.get(3).getIntraOpThreads(), 2);
+        Assert.assertEquals(profiles.get(3).getInterOpWorkers(), 0);
+        Assert.assertEquals(profiles.get(3).getBulkSize(), 16);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParseInvalidSweep() throws ParseException {
+        String[] args = {"-s", "threads=4"};
+        CommandLine cmd = new DefaultParser().parse(Arguments.getOptions(), args);
+        new Arguments(cmd);
+    }
+
+    @Test
+    public void testSweep() {
+        String[] args = {"-c", "2", "-s", "intra=1,2;bulk=-1,16"};
+        Benchmark benchmark = new Benchmark();
+        Assert.assertTrue(benchmark.runBenchmark(args));
+        Assert.assertNotNull(benchmark.getPredictResult());
+    }
+}
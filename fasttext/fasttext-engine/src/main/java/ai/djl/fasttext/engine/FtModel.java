@@ -14,6 +14,7 @@ package ai.djl.fasttext.engine;
 
 import ai.djl.MalformedModelException;
 import ai.djl.Model;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.inference.Predictor;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
@@ -46,6 +47,7 @@ public class FtModel implements Model {
     private Path modelDir;
     private String modelName;
     private Map<String, String> properties;
+    private ExecutionProfile executionProfile;
 
     /** Constructs a new Model. */
     FtModel() {
@@ -118,6 +120,18 @@ public class FtModel implements Model {
         return modelName;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutionProfile(ExecutionProfile profile) {
+        this.executionProfile = profile;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Trainer newTrainer(TrainingConfig trainingConfig) {
@@ -21,6 +21,8 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.ndarray.types.SparseFormat;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.util.stream.IntStream;
 import org.testng.Assert;
@@ -60,6 +62,46 @@ public class NDArrayCreationOpTest {
         }
     }
 
+    @Test
+    public void testWrap() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ByteBuffer bb = ByteBuffer.allocateDirect(32).order(ByteOrder.nativeOrder());
+            for (int i = 0; i < 8; ++i) {
+                bb.putFloat(i);
+            }
+            // wrap the second half of the buffer only
+            bb.position(16);
+            NDArray array = manager.wrap(bb, new Shape(2, 2), DataType.FLOAT32);
+            NDArray expected = manager.create(new float[] {4, 5, 6, 7}, new Shape(2, 2));
+            Assert.assertEquals(array, expected);
+            Assert.assertEquals(bb.position(), 16);
+        }
+    }
+
+    @Test
+    public void testWrapByteAtOffset() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ByteBuffer bb = ByteBuffer.allocateDirect(8);
+            for (int i = 0; i < 8; ++i) {
+                bb.put((byte) i);
+            }
+            bb.position(3).limit(7);
+            NDArray expected = manager.create(new byte[] {3, 4, 5, 6});
+            NDArray array = manager.wrap(bb, new Shape(4), DataType.INT8);
+            Assert.assertEquals(array, expected);
+            array = manager.wrap(bb.asReadOnlyBuffer(), new Shape(4), DataType.INT8);
+            Assert.assertEquals(array, expected);
+            Assert.assertEquals(bb.position(), 3);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWrapSizeMismatch() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            manager.wrap(ByteBuffer.allocateDirect(16), new Shape(3), DataType.FLOAT32);
+        }
+    }
+
     @Test
     public void testCreateCSRMatrix() {
         try (NDManager manager = NDManager.newBaseManager()) {
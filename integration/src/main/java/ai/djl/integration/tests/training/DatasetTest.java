@@ -15,9 +15,13 @@ package ai.djl.integration.tests.training;
 import ai.djl.Device;
 import ai.djl.Model;
 import ai.djl.basicdataset.Cifar10;
+import ai.djl.basicdataset.Mnist;
+import ai.djl.modality.cv.transform.Resize;
+import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Blocks;
 import ai.djl.training.DefaultTrainingConfig;
 import ai.djl.training.Trainer;
@@ -26,10 +30,13 @@ import ai.djl.training.dataset.ArrayDataset;
 import ai.djl.training.dataset.Batch;
 import ai.djl.training.dataset.BatchSampler;
 import ai.djl.training.dataset.Dataset;
+import ai.djl.training.dataset.RandomAccessDataset;
 import ai.djl.training.dataset.RandomSampler;
+import ai.djl.training.dataset.Record;
 import ai.djl.training.dataset.SequenceSampler;
 import ai.djl.training.initializer.Initializer;
 import ai.djl.training.loss.Loss;
+import ai.djl.translate.Pipeline;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -264,6 +271,102 @@ public class DatasetTest {
         }
     }
 
+    @Test
+    public void testGetBatch() throws IOException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray data = manager.arange(200).reshape(100, 2);
+            NDArray label = manager.arange(100).reshape(100);
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(data)
+                            .optLabels(label)
+                            .setSampling(4, false)
+                            .build();
+            long[] indices = {7, 3, 99, 3};
+            Record batch = dataset.getBatch(manager, indices);
+            Assert.assertEquals(batch.getData().singletonOrThrow().getShape(), new Shape(4, 2));
+            for (int i = 0; i < indices.length; ++i) {
+                Assert.assertEquals(
+                        batch.getData().singletonOrThrow().get(i), data.get(indices[i]));
+                Assert.assertEquals(
+                        batch.getLabels().singletonOrThrow().get(i), label.get(indices[i]));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testGetBatchOutOfRange() throws IOException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(manager.arange(10))
+                            .setSampling(2, false)
+                            .build();
+            dataset.getBatch(manager, new long[] {3, 10});
+        }
+    }
+
+    @Test
+    public void testGetBatchWithPipeline() throws IOException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            long[] indices = {7, 3, 99, 3};
+
+            // ToTensor is applied to the gathered batch
+            Pipeline pipeline = new Pipeline(new ToTensor());
+            Mnist mnist =
+                    new Mnist.Builder()
+                            .optManager(manager)
+                            .optPipeline(pipeline)
+                            .setSampling(4, false)
+                            .optUsage(Dataset.Usage.TEST)
+                            .build();
+            mnist.prepare();
+            assertBatch(mnist, pipeline, manager, indices, new Shape(4, 1, 28, 28));
+
+            Cifar10 cifar10 =
+                    new Cifar10.Builder()
+                            .optManager(manager)
+                            .optPipeline(pipeline)
+                            .setSampling(4, false)
+                            .optUsage(Dataset.Usage.TEST)
+                            .build();
+            cifar10.prepare();
+            assertBatch(cifar10, pipeline, manager, indices, new Shape(4, 3, 32, 32));
+
+            // Resize can not be applied to a batch, so each record is transformed
+            pipeline = new Pipeline(new Resize(16, 16), new ToTensor());
+            cifar10 =
+                    new Cifar10.Builder()
+                            .optManager(manager)
+                            .optPipeline(pipeline)
+                            .setSampling(4, false)
+                            .optUsage(Dataset.Usage.TEST)
+                            .build();
+            cifar10.prepare();
+            assertBatch(cifar10, pipeline, manager, indices, new Shape(4, 3, 16, 16));
+        }
+    }
+
+    private static void assertBatch(
+            RandomAccessDataset dataset,
+            Pipeline pipeline,
+            NDManager manager,
+            long[] indices,
+            Shape shape)
+            throws IOException {
+        Record batch = dataset.getBatch(manager, indices);
+        Assert.assertEquals(batch.getData().singletonOrThrow().getShape(), shape);
+        for (int i = 0; i < indices.length; ++i) {
+            Record record = dataset.get(manager, indices[i]);
+            Assert.assertEquals(
+                    batch.getData().singletonOrThrow().get(i),
+                    pipeline.transform(record.getData()).singletonOrThrow());
+            Assert.assertEquals(
+                    batch.getLabels().singletonOrThrow().get(i),
+                    record.getLabels().singletonOrThrow());
+        }
+    }
+
     @Test
     public void testMultithreading() throws IOException, InterruptedException {
         try (Model model = Model.newInstance()) {
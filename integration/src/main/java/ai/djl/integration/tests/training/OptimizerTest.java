@@ -177,6 +177,49 @@ public class OptimizerTest {
         }
     }
 
+    @Test
+    public void testMultiTensorUpdate() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Optimizer[] fused = {
+                Optimizer.sgd()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.1f))
+                        .optMomentum(0.9f)
+                        .optWeightDecays(0.01f)
+                        .build(),
+                Optimizer.adam().build()
+            };
+            Optimizer[] single = {
+                Optimizer.sgd()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.1f))
+                        .optMomentum(0.9f)
+                        .optWeightDecays(0.01f)
+                        .build(),
+                Optimizer.adam().build()
+            };
+            String[] parameterIds = {"weight", "bias"};
+            Shape[] shapes = {new Shape(4, 3), new Shape(4)};
+            for (int k = 0; k < fused.length; ++k) {
+                NDArray[] weights = new NDArray[shapes.length];
+                NDArray[] expected = new NDArray[shapes.length];
+                for (int i = 0; i < shapes.length; ++i) {
+                    weights[i] = manager.randomNormal(shapes[i]);
+                    expected[i] = weights[i].duplicate();
+                }
+                for (int step = 0; step < 3; ++step) {
+                    NDArray[] grads = new NDArray[shapes.length];
+                    for (int i = 0; i < shapes.length; ++i) {
+                        grads[i] = manager.randomNormal(shapes[i]);
+                        single[k].update(parameterIds[i], expected[i], grads[i]);
+                    }
+                    fused[k].update(parameterIds, weights, grads);
+                }
+                for (int i = 0; i < shapes.length; ++i) {
+                    Assertions.assertAlmostEquals(weights[i], expected[i]);
+                }
+            }
+        }
+    }
+
     private NDArray runOptimizer(NDManager manager, Trainer trainer, Block block, int batchSize) {
         NDArray data = manager.ones(new Shape(batchSize, CHANNELS)).mul(2);
         NDArray label = data.mul(2);
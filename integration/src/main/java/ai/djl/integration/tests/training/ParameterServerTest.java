@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.training;
+
+import ai.djl.Device;
+import ai.djl.Model;
+import ai.djl.integration.util.Assertions;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.core.Linear;
+import ai.djl.training.DefaultTrainingConfig;
+import ai.djl.training.GradientReducer;
+import ai.djl.training.LocalParameterServer;
+import ai.djl.training.ParameterServer;
+import ai.djl.training.Trainer;
+import ai.djl.training.TrainingConfig;
+import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.initializer.Initializer;
+import ai.djl.training.loss.Loss;
+import ai.djl.training.optimizer.Optimizer;
+import ai.djl.training.optimizer.Sgd;
+import ai.djl.training.optimizer.learningrate.LearningRateTracker;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ParameterServerTest {
+
+    @Test
+    public void testTreeReducer() {
+        testReducer(GradientReducer.TREE);
+    }
+
+    @Test
+    public void testRingReducer() {
+        testReducer(GradientReducer.RING);
+    }
+
+    private void testReducer(GradientReducer reducer) {
+        // multiple CPU contexts behave as separate devices
+        int numDevices = 3;
+        Shape[] shapes = {new Shape(3, 5), new Shape(2)};
+        float lr = 0.1f;
+        Optimizer sgd =
+                new Sgd.Builder()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(lr))
+                        .build();
+        try (NDManager manager = NDManager.newBaseManager();
+                ParameterServer ps = new LocalParameterServer(sgd, reducer)) {
+            for (int i = 0; i < shapes.length; ++i) {
+                String parameterId = String.valueOf(i);
+                NDArray weight = manager.randomNormal(shapes[i]);
+                NDArray[] weights = new NDArray[numDevices];
+                NDArray[] grads = new NDArray[numDevices];
+                NDArray gradSum = manager.zeros(shapes[i]);
+                for (int j = 0; j < numDevices; ++j) {
+                    NDArray grad = manager.randomNormal(shapes[i]);
+                    gradSum.addi(grad);
+                    weights[j] = weight.toDevice(Device.cpu(j), true);
+                    grads[j] = grad.toDevice(Device.cpu(j), true);
+                }
+                NDArray expected = weight.sub(gradSum.mul(lr));
+
+                ps.init(parameterId, new NDArray[] {weights[0]});
+                ps.push(parameterId, grads, -i);
+                ps.pull(parameterId, weights, -i);
+                for (NDArray updated : weights) {
+                    Assertions.assertAlmostEquals(updated.toDevice(Device.cpu(), false), expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKvStoreMatchesLocal() {
+        float[] expected = train(null);
+        Assert.assertEquals(train("local"), expected, 1e-5f);
+        Assert.assertEquals(train("device"), expected, 1e-5f);
+    }
+
+    private float[] train(String parameterServerType) {
+        Optimizer sgd =
+                new Sgd.Builder()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.1f))
+                        .build();
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss())
+                        .optInitializer(Initializer.ONES)
+                        .optOptimizer(sgd)
+                        .optDevices(new Device[] {Device.cpu(0), Device.cpu(1)})
+                        .optParameterServerType(parameterServerType);
+        try (Model model = Model.newInstance()) {
+            model.setBlock(new Linear.Builder().setOutChannels(2).build());
+            NDManager manager = model.getNDManager();
+            NDArray data = manager.arange(24).reshape(8, 3).toType(DataType.FLOAT32, false);
+            NDArray label = manager.arange(16).reshape(8, 2).toType(DataType.FLOAT32, false);
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(data.div(24))
+                            .optLabels(label.div(16))
+                            .setSampling(4, false)
+                            .build();
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(4, 3));
+                for (Batch batch : trainer.iterateDataset(dataset)) {
+                    trainer.trainBatch(batch);
+                    trainer.step();
+                    batch.close();
+                }
+            }
+            List<Float> weights = new ArrayList<>();
+            for (Parameter parameter : model.getBlock().getParameters().values()) {
+                for (float value : parameter.getArray().toFloatArray()) {
+                    weights.add(value);
+                }
+            }
+            float[] ret = new float[weights.size()];
+            for (int i = 0; i < ret.length; ++i) {
+                ret[i] = weights.get(i);
+            }
+            return ret;
+        }
+    }
+}
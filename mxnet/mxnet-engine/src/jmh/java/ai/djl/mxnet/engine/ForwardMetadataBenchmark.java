@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.basicmodelzoo.cv.classification.ResNetV1;
+import ai.djl.mxnet.jna.JnaUtils;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.training.ParameterStore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the native metadata queries (shape, data type, device, and storage type getters) per
+ * forward pass of an imperative ResNet-50.
+ *
+ * <p>The first forward pass is logged during setup: none of the output metadata is known yet, so
+ * it shows the number of queries without the output metadata cache. The {@code metadataQueries}
+ * counter reports the number of queries per forward pass once the cache is warm.
+ *
+ * <p>Run with {@code ./gradlew :mxnet:mxnet-engine:jmh -Pjmh=ForwardMetadataBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ForwardMetadataBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForwardMetadataBenchmark.class);
+
+    private NDManager manager;
+    private Block block;
+    private ParameterStore parameterStore;
+    private Shape inputShape;
+
+    @Setup
+    public void setup() {
+        manager = NDManager.newBaseManager();
+        inputShape = new Shape(1, 3, 224, 224);
+        block =
+                new ResNetV1.Builder()
+                        .setImageShape(new Shape(3, 224, 224))
+                        .setNumLayers(50)
+                        .setOutSize(1000)
+                        .build();
+        block.initialize(manager, DataType.FLOAT32, inputShape);
+        parameterStore = new ParameterStore(manager, false);
+
+        long before = JnaUtils.getMetadataQueryCount();
+        forward();
+        long queries = JnaUtils.getMetadataQueryCount() - before;
+        logger.info("Metadata queries in the first forward pass: {}", queries);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public void forward(Counters counters) {
+        long before = JnaUtils.getMetadataQueryCount();
+        forward();
+        counters.metadataQueries += JnaUtils.getMetadataQueryCount() - before;
+    }
+
+    private void forward() {
+        // the intermediate arrays are attached to the manager of the input
+        try (NDManager sub = manager.newSubManager()) {
+            NDList output = block.forward(parameterStore, new NDList(sub.ones(inputShape)));
+            ((MxNDArray) output.head()).waitToRead();
+        }
+    }
+
+    /** Counts the metadata queries of the measured forward passes. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long metadataQueries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            metadataQueries = 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how the throughput of creating and closing {@link NDArray}s and sub-managers on a
+ * shared {@link NDManager} scales with the number of threads.
+ *
+ * <p>Run with {@code ./gradlew :mxnet:mxnet-engine:jmh -Pjmh=NDManagerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NDManagerBenchmark {
+
+    private static final Shape SHAPE = new Shape(2, 2);
+
+    private NDManager manager;
+
+    @Setup
+    public void setup() {
+        manager = NDManager.newBaseManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void createClose1(Blackhole bh) {
+        createClose(bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void createClose4(Blackhole bh) {
+        createClose(bh);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void createClose16(Blackhole bh) {
+        createClose(bh);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void subManager1(Blackhole bh) {
+        subManager(bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void subManager4(Blackhole bh) {
+        subManager(bh);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void subManager16(Blackhole bh) {
+        subManager(bh);
+    }
+
+    private void createClose(Blackhole bh) {
+        try (NDArray array = manager.create(SHAPE)) {
+            bh.consume(array);
+        }
+    }
+
+    private void subManager(Blackhole bh) {
+        try (NDManager sub = manager.newSubManager()) {
+            // closed together with the sub-manager
+            bh.consume(sub.create(SHAPE));
+        }
+    }
+}
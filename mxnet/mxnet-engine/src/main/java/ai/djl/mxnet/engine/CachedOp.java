@@ -15,16 +15,21 @@ package ai.djl.mxnet.engine;
 import ai.djl.Device;
 import ai.djl.mxnet.jna.JnaUtils;
 import ai.djl.mxnet.jna.NativeResource;
+import ai.djl.mxnet.jna.OutputMetadataCache;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Parameter;
 import ai.djl.training.ParameterStore;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 import com.sun.jna.Pointer;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +52,11 @@ public class CachedOp extends NativeResource {
     private Map<String, Integer> dataIndicesMap;
     private List<Integer> paramIndices;
     private MxNDManager manager;
+    private boolean reuseOutputs;
+    private Map<ParameterStore, Map<Device, ParamHandles>> paramHandles;
+    private Map<String, MxNDArray> dummyInputs;
+    private Map<String, MxNDArray[]> staticOutputs;
+    private OutputMetadataCache outputCache;
 
     /**
      * Creates an instance of {@link CachedOp}.
@@ -67,15 +77,48 @@ public class CachedOp extends NativeResource {
             List<Integer> paramIndices,
             PairList<String, Integer> dataIndices) {
         super(handle);
+        registerCleaner(JnaUtils::freeCachedOp);
         this.parameters = parameters;
         this.dataIndices = dataIndices;
         this.paramIndices = paramIndices;
         this.dataIndicesMap = dataIndices.toMap();
         // holds all parameter and data NDArray values, final inputs to CachedOp
         this.manager = manager;
+        paramHandles = Collections.synchronizedMap(new WeakHashMap<>());
+        dummyInputs = new ConcurrentHashMap<>();
+        staticOutputs = new ConcurrentHashMap<>();
+        setOwner(manager);
         manager.attach(getUid(), this);
     }
 
+    /**
+     * Sets whether the shape, data type, and device of the outputs are remembered for each
+     * distinct input layout.
+     *
+     * <p>The outputs of later calls with the same input layout are then created with their
+     * metadata filled in, instead of querying it from MXNet. This must only be enabled if the
+     * output shapes of the graph only depend on the input shapes.
+     *
+     * @param cacheOutputMetadata whether the output metadata is remembered
+     */
+    public void setCacheOutputMetadata(boolean cacheOutputMetadata) {
+        outputCache = cacheOutputMetadata ? new OutputMetadataCache() : null;
+    }
+
+    /**
+     * Sets whether the output arrays are allocated once and overwritten by every call.
+     *
+     * <p>This only applies to static forward passes. The outputs are kept per device and batch
+     * size and are owned by this {@code CachedOp}: they must not be closed by the caller, and they
+     * are only valid until the next call to {@link #forward(ParameterStore, NDList, boolean)}. It
+     * must not be used when {@code forward} is called from multiple threads.
+     *
+     * @param reuseOutputs whether the output arrays are reused
+     */
+    public void setReuseOutputs(boolean reuseOutputs) {
+        this.reuseOutputs = reuseOutputs;
+    }
+
     /**
      * Assigns inputs to the empty locations of the input NDArray.
      *
@@ -84,6 +127,26 @@ public class CachedOp extends NativeResource {
      * @return an {@link NDList}
      */
     public NDList forward(ParameterStore parameterStore, NDList data) {
+        return forward(parameterStore, data, false);
+    }
+
+    /**
+     * Assigns inputs to the empty locations of the input NDArray.
+     *
+     * <p>A static forward pass resolves the parameter handles once per {@link ParameterStore} and
+     * device instead of on every call, and only creates the default arrays for missing inputs once
+     * per device and batch size. The resolved handles are dropped when a parameter array is
+     * replaced or closed.
+     *
+     * @param parameterStore the parameterStore
+     * @param data the input in {@link NDList} format
+     * @param staticInputs whether to run a static forward pass
+     * @return an {@link NDList}
+     */
+    public NDList forward(ParameterStore parameterStore, NDList data, boolean staticInputs) {
+        if (staticInputs) {
+            return forwardStatic(parameterStore, data);
+        }
         // reset the input data index at the beginning
         MxNDArray[] allInputsNDArray = new MxNDArray[parameters.size()];
         // for unit test purpose, we export the current one to global
@@ -130,10 +193,76 @@ public class CachedOp extends NativeResource {
                         (MxNDArray) inputManager.create(new Shape(batchSize));
             }
         }
-        MxNDArray[] result = JnaUtils.cachedOpInvoke(inputManager, getHandle(), allInputsNDArray);
+        Pointer[] handles = new Pointer[allInputsNDArray.length];
+        for (int i = 0; i < handles.length; ++i) {
+            handles[i] = allInputsNDArray[i].getHandle();
+        }
+        MxNDArray[] result =
+                JnaUtils.cachedOpInvoke(
+                        inputManager, getHandle(), handles, null, outputCache, toArray(data));
         return new NDList(result);
     }
 
+    private NDList forwardStatic(ParameterStore parameterStore, NDList data) {
+        NDArray head = data.head();
+        Device device = head.getDevice();
+        MxNDManager inputManager = (MxNDManager) head.getManager();
+        long batchSize = head.getShape().get(0);
+
+        Pointer[] handles = getParamHandles(parameterStore, device).clone();
+        int index = 0;
+        for (NDArray array : data) {
+            int idx = indexOf(array.getName(), index++);
+            handles[idx] = ((MxNDArray) array).getHandle();
+        }
+        String key = device.toString() + ':' + batchSize;
+        for (Pair<String, Integer> pair : dataIndices) {
+            if (handles[pair.getValue()] == null) {
+                MxNDArray dummy =
+                        dummyInputs.computeIfAbsent(
+                                key,
+                                k ->
+                                        (MxNDArray)
+                                                manager.create(
+                                                        new Shape(batchSize),
+                                                        DataType.FLOAT32,
+                                                        device));
+                handles[pair.getValue()] = dummy.getHandle();
+            }
+        }
+
+        if (!reuseOutputs) {
+            return new NDList(
+                    JnaUtils.cachedOpInvoke(
+                            inputManager, getHandle(), handles, null, outputCache, toArray(data)));
+        }
+        MxNDArray[] outputs = staticOutputs.get(key);
+        if (outputs == null) {
+            outputs =
+                    JnaUtils.cachedOpInvoke(
+                            manager, getHandle(), handles, null, outputCache, toArray(data));
+            staticOutputs.put(key, outputs);
+        } else {
+            JnaUtils.cachedOpInvoke(manager, getHandle(), handles, outputs, null, null);
+        }
+        return new NDList(outputs);
+    }
+
+    private static NDArray[] toArray(NDList data) {
+        return data.toArray(new NDArray[0]);
+    }
+
+    private Pointer[] getParamHandles(ParameterStore parameterStore, Device device) {
+        Map<Device, ParamHandles> map =
+                paramHandles.computeIfAbsent(parameterStore, k -> new ConcurrentHashMap<>());
+        ParamHandles cached = map.get(device);
+        if (cached == null || !cached.isValid()) {
+            cached = new ParamHandles(parameterStore, device);
+            map.put(device, cached);
+        }
+        return cached.handles;
+    }
+
     /**
      * Gets an input NDArray. For unit tests only.
      *
@@ -150,10 +279,59 @@ public class CachedOp extends NativeResource {
         if (pointer != null) {
             manager.detach(getUid());
             JnaUtils.freeCachedOp(pointer);
+            unregisterCleaner();
+            paramHandles.clear();
+            dummyInputs.clear();
+            staticOutputs.clear();
             manager = null;
         }
     }
 
+    /**
+     * The parameter handles of a {@link ParameterStore} on a device, along with the arrays they
+     * were resolved from.
+     */
+    private final class ParamHandles {
+
+        private NDArray[] sources;
+        private MxNDArray[] values;
+        private Pointer[] handles;
+
+        ParamHandles(ParameterStore parameterStore, Device device) {
+            int size = parameters.size();
+            sources = new NDArray[size];
+            values = new MxNDArray[size];
+            handles = new Pointer[size];
+            for (int index : paramIndices) {
+                Parameter parameter = parameters.get(index);
+                MxNDArray value = (MxNDArray) parameterStore.getValue(parameter, device);
+                if (value == null) {
+                    throw new NullPointerException("Failed to find parameter from parameterStore");
+                }
+                sources[index] = parameter.getArray();
+                values[index] = value;
+                handles[index] = value.getHandle();
+            }
+        }
+
+        /**
+         * Returns whether the parameters still hold the arrays the handles were resolved from.
+         *
+         * @return whether the handles can still be used
+         */
+        boolean isValid() {
+            for (int index : paramIndices) {
+                Parameter parameter = parameters.get(index);
+                if (!parameter.isInitialized()
+                        || parameter.getArray() != sources[index]
+                        || values[index].isReleased()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private int indexOf(String inputName, int position) {
         if (inputName == null) {
             return dataIndices.valueAt(position);
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code MxDistributedLauncher} runs data parallel training with a {@code dist_sync} {@link
+ * MxParameterServer} on a single host.
+ *
+ * <p>It starts one scheduler, the given number of servers, and the given number of workers as
+ * separate JVM processes that share the classpath of the launcher. Each worker runs the main class
+ * of the training application and should use a {@link ai.djl.training.TrainingConfig} with a
+ * {@code dist_sync} parameter server. The CPU cores of the host are split evenly between the
+ * workers through {@code OMP_NUM_THREADS}, so that the workers do not oversubscribe the cores. The
+ * processes are not pinned to specific cores or CPU sockets.
+ *
+ * <pre>
+ * java -cp ... ai.djl.mxnet.engine.MxDistributedLauncher -n 2 -s 1 com.example.Train --epoch 2
+ * </pre>
+ *
+ * <p>When the {@code DMLC_ROLE} environment variable is {@code scheduler} or {@code server}, the
+ * launcher runs the KVStore scheduler or server in the current process instead.
+ */
+public final class MxDistributedLauncher {
+
+    private static final String ROLE = "DMLC_ROLE";
+
+    private int numWorkers;
+    private int numServers;
+    private int port;
+    private int threadsPerWorker;
+
+    /**
+     * Constructs a {@code MxDistributedLauncher}.
+     *
+     * @param numWorkers the number of worker processes
+     * @param numServers the number of server processes
+     * @param port the port the scheduler listens on
+     */
+    public MxDistributedLauncher(int numWorkers, int numServers, int port) {
+        if (numWorkers < 1 || numServers < 1) {
+            throw new IllegalArgumentException("At least one worker and one server are required.");
+        }
+        this.numWorkers = numWorkers;
+        this.numServers = numServers;
+        this.port = port;
+        threadsPerWorker = Math.max(1, Runtime.getRuntime().availableProcessors() / numWorkers);
+    }
+
+    /**
+     * Runs the scheduler, servers and workers, and waits for all of them to exit.
+     *
+     * @param mainClass the main class of the workers
+     * @param args the arguments of the workers
+     * @return the first non zero exit code of a worker, or 0 if all workers succeeded
+     * @throws IOException if a process could not be started
+     * @throws InterruptedException if interrupted while waiting for the processes
+     */
+    public int launch(String mainClass, List<String> args)
+            throws IOException, InterruptedException {
+        List<Process> servers = new ArrayList<>();
+        List<Process> workers = new ArrayList<>();
+        try {
+            servers.add(start("scheduler", MxDistributedLauncher.class.getName(), null));
+            for (int i = 0; i < numServers; ++i) {
+                servers.add(start("server", MxDistributedLauncher.class.getName(), null));
+            }
+            for (int i = 0; i < numWorkers; ++i) {
+                workers.add(start("worker", mainClass, args));
+            }
+
+            int exitCode = 0;
+            for (Process worker : workers) {
+                int code = worker.waitFor();
+                if (exitCode == 0) {
+                    exitCode = code;
+                }
+            }
+            // the scheduler and servers exit once all workers have finalized
+            for (Process server : servers) {
+                server.waitFor();
+            }
+            return exitCode;
+        } finally {
+            workers.forEach(Process::destroy);
+            servers.forEach(Process::destroy);
+        }
+    }
+
+    private Process start(String role, String mainClass, List<String> args) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(mainClass);
+        if (args != null) {
+            cmd.addAll(args);
+        }
+
+        ProcessBuilder pb = new ProcessBuilder(cmd).inheritIO();
+        Map<String, String> env = pb.environment();
+        env.put(ROLE, role);
+        env.put("DMLC_PS_ROOT_URI", "127.0.0.1");
+        env.put("DMLC_PS_ROOT_PORT", String.valueOf(port));
+        env.put("DMLC_NUM_SERVER", String.valueOf(numServers));
+        env.put("DMLC_NUM_WORKER", String.valueOf(numWorkers));
+        if ("worker".equals(role)) {
+            env.putIfAbsent("OMP_NUM_THREADS", String.valueOf(threadsPerWorker));
+        } else {
+            // servers only sum gradients
+            env.put("OMP_NUM_THREADS", "1");
+        }
+        return pb.start();
+    }
+
+    /**
+     * Runs a KVStore scheduler or server when started by a launcher, otherwise launches a local
+     * cluster.
+     *
+     * <p>Usage: {@code [-n workers] [-s servers] [-p port] <main class> [args...]}
+     *
+     * @param args the command line arguments
+     * @throws IOException if a process could not be started
+     * @throws InterruptedException if interrupted while waiting for the processes
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String role = System.getenv(ROLE);
+        if ("scheduler".equals(role) || "server".equals(role)) {
+            MxParameterServer.runServer();
+            return;
+        }
+
+        int numWorkers = 2;
+        int numServers = 1;
+        int port = 9091;
+        int i = 0;
+        while (i + 1 < args.length && args[i].startsWith("-")) {
+            int value = Integer.parseInt(args[i + 1]);
+            switch (args[i]) {
+                case "-n":
+                    numWorkers = value;
+                    break;
+                case "-s":
+                    numServers = value;
+                    break;
+                case "-p":
+                    port = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            i += 2;
+        }
+        if (i >= args.length) {
+            throw new IllegalArgumentException(
+                    "Usage: "
+                            + MxDistributedLauncher.class.getName()
+                            + " [-n workers] [-s servers] [-p port] <main class> [args...]");
+        }
+
+        MxDistributedLauncher launcher = new MxDistributedLauncher(numWorkers, numServers, port);
+        List<String> workerArgs = Arrays.asList(args).subList(i + 1, args.length);
+        System.exit(launcher.launch(args[i], workerArgs)); // NOPMD
+    }
+}
@@ -15,6 +15,7 @@ package ai.djl.mxnet.engine;
 import ai.djl.Device;
 import ai.djl.Model;
 import ai.djl.engine.Engine;
+import ai.djl.engine.Profiler;
 import ai.djl.mxnet.jna.JnaUtils;
 import ai.djl.mxnet.jna.LibUtils;
 import ai.djl.ndarray.NDManager;
@@ -92,6 +93,12 @@ public class MxEngine extends Engine {
         JnaUtils.randomSeed(seed);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Profiler newProfiler() {
+        return new MxProfiler();
+    }
+
     /** {@inheritDoc} */
     @Override
     public void debugEnvironment() {
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.engine.ExecutionProfile;
+import ai.djl.mxnet.jna.JnaUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code MxExecutionScheduler} applies an {@link ExecutionProfile} around each forward pass of a
+ * {@link MxModel}.
+ *
+ * <p>MXNet keeps the bulk size per calling thread, so the scheduler sets it on the thread that
+ * pushes the forward pass and restores it afterwards. Other models that run on the same thread are
+ * not affected. The OpenMP thread count is set and restored the same way, but it only reaches the
+ * operators if they run on the calling thread, which is the case with {@code
+ * MXNET_ENGINE_TYPE=NaiveEngine}. The default threaded engine runs the operators asynchronously
+ * on its own worker threads, whose thread count is fixed by {@code OMP_NUM_THREADS} and {@code
+ * MXNET_CPU_WORKER_NTHREADS} when the engine starts, so the intra-op setting has no effect there
+ * and the scheduler logs a message instead. The number of concurrent forward passes is bounded
+ * with a {@link Semaphore} shared by every predictor of the model; a forward pass only gives its
+ * slot back once its outputs are computed.
+ *
+ * <p>The CPU affinity of the MXNet worker threads cannot be changed once the engine is started.
+ * The scheduler only uses it as the default thread count, and logs the environment variable that
+ * pins the OpenMP threads if it is not set.
+ */
+final class MxExecutionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MxExecutionScheduler.class);
+
+    static final int DEFAULT_OMP_THREADS = defaultOmpThreads();
+
+    /** The OpenMP thread count last set on each thread, MXNet has no way to query it. */
+    private static final ThreadLocal<Integer> OMP_THREADS =
+            ThreadLocal.withInitial(() -> DEFAULT_OMP_THREADS);
+
+    private int ompThreads;
+    private int bulkSize;
+    private Semaphore workers;
+
+    /**
+     * Constructs a {@code MxExecutionScheduler} for the given {@link ExecutionProfile}.
+     *
+     * @param profile the {@link ExecutionProfile} to apply
+     */
+    MxExecutionScheduler(ExecutionProfile profile) {
+        ompThreads = profile.getIntraOpThreads();
+        bulkSize = profile.getBulkSize();
+        int interOpWorkers = profile.getInterOpWorkers();
+        if (interOpWorkers > 0) {
+            workers = new Semaphore(interOpWorkers, true);
+        }
+        if (ompThreads > 0 && !"NaiveEngine".equals(System.getenv("MXNET_ENGINE_TYPE"))) {
+            logger.info(
+                    "The intra-op thread count only applies with MXNET_ENGINE_TYPE=NaiveEngine,"
+                            + " set OMP_NUM_THREADS={} before starting the JVM instead.",
+                    ompThreads);
+        }
+        int[] cores = profile.getCpuAffinity();
+        if (cores.length > 0
+                && System.getenv("GOMP_CPU_AFFINITY") == null
+                && System.getenv("KMP_AFFINITY") == null) {
+            String list =
+                    Arrays.stream(cores).mapToObj(String::valueOf).collect(Collectors.joining(" "));
+            logger.info(
+                    "MXNet can not pin threads at runtime, set GOMP_CPU_AFFINITY=\"{}\" before"
+                            + " starting the JVM to apply the CPU affinity hint.",
+                    list);
+        }
+    }
+
+    /**
+     * Runs a forward pass with the profile applied.
+     *
+     * @param forward the forward pass
+     * @return the output of the forward pass
+     */
+    NDList forward(Supplier<NDList> forward) {
+        if (workers != null) {
+            workers.acquireUninterruptibly();
+        }
+        int prevBulkSize = -1;
+        int prevOmpThreads = OMP_THREADS.get();
+        try {
+            if (ompThreads > 0) {
+                JnaUtils.setOmpThreads(ompThreads);
+                OMP_THREADS.set(ompThreads);
+            }
+            if (bulkSize >= 0) {
+                prevBulkSize = JnaUtils.setBulkSize(bulkSize);
+            }
+            NDList result = forward.get();
+            if (workers != null) {
+                for (NDArray array : result) {
+                    ((MxNDArray) array).waitToRead();
+                }
+            }
+            return result;
+        } finally {
+            if (prevBulkSize >= 0) {
+                // also flushes the pending bulk segment
+                JnaUtils.setBulkSize(prevBulkSize);
+            }
+            if (ompThreads > 0) {
+                JnaUtils.setOmpThreads(prevOmpThreads);
+                OMP_THREADS.set(prevOmpThreads);
+            }
+            if (workers != null) {
+                workers.release();
+            }
+        }
+    }
+
+    private static int defaultOmpThreads() {
+        String value = System.getenv("OMP_NUM_THREADS");
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid OMP_NUM_THREADS: {}", value);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -16,6 +16,7 @@ import ai.djl.BaseModel;
 import ai.djl.Device;
 import ai.djl.MalformedModelException;
 import ai.djl.Model;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.inference.Predictor;
 import ai.djl.mxnet.jna.JnaUtils;
 import ai.djl.ndarray.NDArray;
@@ -66,6 +67,7 @@ public class MxModel extends BaseModel {
     private PairList<String, Shape> inputData;
     // the variable is used to avoid ParameterStore copy for the first time
     private AtomicBoolean first;
+    private MxExecutionScheduler scheduler;
 
     /**
      * Constructs a new Model on a given device.
@@ -93,6 +95,19 @@ public class MxModel extends BaseModel {
      * model.load(modelPath, "squeezenet", options);
      * </pre>
      *
+     * <p>The following options control how the graph is executed:
+     *
+     * <ul>
+     *   <li>{@code static_alloc} - {@code true} (default) to allocate the memory of the graph once
+     *   <li>{@code static_shape} - {@code true} (default) if the input shapes never change
+     *   <li>{@code static_inputs} - {@code true} to resolve the parameters once for inference,
+     *       see {@link MxSymbolBlock#setStaticInputs(boolean)}
+     *   <li>{@code reuse_outputs} - {@code true} to overwrite the same output arrays on every
+     *       forward pass with static inputs, see {@link MxSymbolBlock#setReuseOutputs(boolean)}
+     *   <li>{@code subgraph_backend} - the subgraph backend to partition the graph for, such as
+     *       {@code MKLDNN} to fuse convolution, batch normalization and activation on CPU
+     * </ul>
+     *
      * @param modelPath the directory of the model
      * @param modelName the name/prefix of the model
      * @param options load model options, see documentation for the specific engine
@@ -111,9 +126,34 @@ public class MxModel extends BaseModel {
                         "Symbol file not found in: " + modelPath + ", please set block manually.");
             }
             Symbol symbol = Symbol.load(manager, symbolFile.toAbsolutePath().toString());
+            String backend = options == null ? null : options.get("subgraph_backend");
+            if (backend != null) {
+                Symbol partitioned = symbol.optimizeFor(backend);
+                symbol.close();
+                symbol = partitioned;
+            }
             // TODO: change default name "data" to model-specific one
             block = new MxSymbolBlock(manager, symbol);
         }
+        if (options != null && block instanceof MxSymbolBlock) {
+            MxSymbolBlock symbolBlock = (MxSymbolBlock) block;
+            String value = options.get("static_alloc");
+            if (value != null) {
+                symbolBlock.setStaticAlloc(Boolean.parseBoolean(value));
+            }
+            value = options.get("static_shape");
+            if (value != null) {
+                symbolBlock.setStaticShape(Boolean.parseBoolean(value));
+            }
+            value = options.get("static_inputs");
+            if (value != null) {
+                symbolBlock.setStaticInputs(Boolean.parseBoolean(value));
+            }
+            value = options.get("reuse_outputs");
+            if (value != null) {
+                symbolBlock.setReuseOutputs(Boolean.parseBoolean(value));
+            }
+        }
         loadParameters(modelName, options);
         // TODO: Check if Symbol has all names that params file have
     }
@@ -192,6 +232,17 @@ public class MxModel extends BaseModel {
         return new MxPredictor<>(this, translator, shouldCopyParameters);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutionProfile(ExecutionProfile profile) {
+        super.setExecutionProfile(profile);
+        scheduler = profile == null ? null : new MxExecutionScheduler(profile);
+    }
+
+    MxExecutionScheduler getScheduler() {
+        return scheduler;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void setDataType(DataType dataType) {
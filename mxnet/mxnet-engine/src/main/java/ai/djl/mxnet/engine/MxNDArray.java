@@ -15,6 +15,7 @@ package ai.djl.mxnet.engine;
 import ai.djl.Device;
 import ai.djl.mxnet.jna.JnaUtils;
 import ai.djl.mxnet.jna.NativeResource;
+import ai.djl.mxnet.jna.PreparedOp;
 import ai.djl.ndarray.Matrix;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
@@ -80,6 +81,22 @@ public class MxNDArray extends NativeResource implements NDArray {
         }
         this.shape = shape;
         this.dataType = dataType;
+        sparseFormat = SparseFormat.DENSE;
+        trackSize(device.toString(), shape.size() * dataType.getNumOfBytes());
+    }
+
+    /**
+     * Constructs a dense MxNDArray from a native handle whose device is known (internal. Use
+     * {@link NDManager} instead).
+     *
+     * @param manager the manager to attach the new array to
+     * @param handle the pointer to the native MxNDArray memory
+     * @param device the device the array is located on, or {@code null} if unknown
+     */
+    MxNDArray(MxNDManager manager, Pointer handle, Device device) {
+        this(manager, handle);
+        this.device = device;
+        sparseFormat = SparseFormat.DENSE;
     }
 
     /**
@@ -92,6 +109,8 @@ public class MxNDArray extends NativeResource implements NDArray {
         super(handle);
         this.manager = manager;
         this.mxNDArrayEx = new MxNDArrayEx(this);
+        registerCleaner(JnaUtils::freeNdArray);
+        setOwner(manager);
     }
 
     /**
@@ -165,6 +184,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     public void attach(NDManager manager) {
         detach();
         this.manager = (MxNDManager) manager;
+        setOwner(manager);
         manager.attach(getUid(), this);
     }
 
@@ -173,6 +193,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     public void detach() {
         manager.detach(getUid());
         manager = MxNDManager.getSystemManager();
+        setOwner(null);
     }
 
     private NDArray duplicate(
@@ -224,6 +245,9 @@ public class MxNDArray extends NativeResource implements NDArray {
      */
     public void setShouldFree(boolean shouldFree) {
         this.shouldFree = shouldFree;
+        if (!shouldFree) {
+            unregisterCleaner();
+        }
     }
 
     /**
@@ -298,7 +322,7 @@ public class MxNDArray extends NativeResource implements NDArray {
         }
 
         int numOfBytes = inputType.getNumOfBytes();
-        ByteBuffer buf = manager.allocateDirect(size * numOfBytes);
+        ByteBuffer buf = manager.borrowDirect(size * numOfBytes);
 
         switch (inputType) {
             case FLOAT32:
@@ -323,6 +347,7 @@ public class MxNDArray extends NativeResource implements NDArray {
                 throw new AssertionError("Show never happen");
         }
         JnaUtils.syncCopyFromCPU(getHandle(), buf, size);
+        manager.releaseDirect(buf);
     }
 
     /** {@inheritDoc} */
@@ -615,7 +640,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray add(NDArray other) {
-        return manager.invoke("_npi_add", new NDArray[] {this, other}, null);
+        return binary(PreparedOps.ADD, other);
     }
 
     /** {@inheritDoc} */
@@ -629,7 +654,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray sub(NDArray other) {
-        return manager.invoke("_npi_subtract", new NDArray[] {this, other}, null);
+        return binary(PreparedOps.SUBTRACT, other);
     }
 
     /** {@inheritDoc} */
@@ -643,7 +668,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray mul(NDArray other) {
-        return manager.invoke("_npi_multiply", new NDArray[] {this, other}, null);
+        return binary(PreparedOps.MULTIPLY, other);
     }
 
     /** {@inheritDoc} */
@@ -675,7 +700,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray div(NDArray other) {
-        return manager.invoke("_npi_true_divide", new NDArray[] {this, other}, null);
+        return binary(PreparedOps.TRUE_DIVIDE, other);
     }
 
     /** {@inheritDoc} */
@@ -718,8 +743,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray addi(NDArray other) {
-        manager.invoke("_npi_add", new NDArray[] {this, other}, new NDArray[] {this}, null);
-        return this;
+        return binaryInPlace(PreparedOps.ADD, other);
     }
 
     /** {@inheritDoc} */
@@ -734,8 +758,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray subi(NDArray other) {
-        manager.invoke("_npi_subtract", new NDArray[] {this, other}, new NDArray[] {this}, null);
-        return this;
+        return binaryInPlace(PreparedOps.SUBTRACT, other);
     }
 
     /** {@inheritDoc} */
@@ -750,8 +773,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray muli(NDArray other) {
-        manager.invoke("_npi_multiply", new NDArray[] {this, other}, new NDArray[] {this}, null);
-        return this;
+        return binaryInPlace(PreparedOps.MULTIPLY, other);
     }
 
     /** {@inheritDoc} */
@@ -767,8 +789,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray divi(NDArray other) {
-        manager.invoke("_npi_true_divide", new NDArray[] {this, other}, new NDArray[] {this}, null);
-        return this;
+        return binaryInPlace(PreparedOps.TRUE_DIVIDE, other);
     }
 
     /** {@inheritDoc} */
@@ -1272,6 +1293,13 @@ public class MxNDArray extends NativeResource implements NDArray {
                 params.addParam("temperature", temperature);
             }
             return manager.invoke(opName, array, params).reshape(transposedShape).transpose(axes);
+        } else if (temperature == 1.0
+                && (axes[0] == -1 || axes[0] == getShape().dimension() - 1)) {
+            PreparedOp op =
+                    "_npx_softmax".equals(opName)
+                            ? PreparedOps.SOFTMAX_LAST_AXIS
+                            : PreparedOps.LOG_SOFTMAX_LAST_AXIS;
+            return op.invoke(manager, new NDArray[] {this})[0];
         } else {
             params.addParam("axis", axes[0]);
             if (temperature != 1.0) {
@@ -1651,6 +1679,15 @@ public class MxNDArray extends NativeResource implements NDArray {
         return NDFormat.format(this, maxSize, maxDepth, maxRows, maxColumns);
     }
 
+    private NDArray binary(PreparedOp op, NDArray other) {
+        return op.invoke(manager, new NDArray[] {this, other})[0];
+    }
+
+    private NDArray binaryInPlace(PreparedOp op, NDArray other) {
+        op.invoke(new NDArray[] {this, other}, new NDArray[] {this});
+        return this;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close() {
@@ -1662,8 +1699,32 @@ public class MxNDArray extends NativeResource implements NDArray {
             // TODO: remove after fixing multi-thread data loading issue
             // JnaUtils.waitToRead(pointer);
             JnaUtils.freeNdArray(pointer);
+            unregisterCleaner();
             manager.detach(getUid());
             manager = null;
         }
     }
+
+    /** The operators with fixed parameters that are used on hot paths, prepared once. */
+    private static final class PreparedOps {
+
+        static final PreparedOp ADD = prepare("_npi_add");
+        static final PreparedOp SUBTRACT = prepare("_npi_subtract");
+        static final PreparedOp MULTIPLY = prepare("_npi_multiply");
+        static final PreparedOp TRUE_DIVIDE = prepare("_npi_true_divide");
+        static final PreparedOp SOFTMAX_LAST_AXIS = prepareLastAxis("_npx_softmax");
+        static final PreparedOp LOG_SOFTMAX_LAST_AXIS = prepareLastAxis("_npx_log_softmax");
+
+        private PreparedOps() {}
+
+        private static PreparedOp prepare(String operation) {
+            return JnaUtils.op(operation).prepare(null);
+        }
+
+        private static PreparedOp prepareLastAxis(String operation) {
+            MxOpParams params = new MxOpParams();
+            params.addParam("axis", -1);
+            return JnaUtils.op(operation).prepare(params);
+        }
+    }
 }
@@ -12,6 +12,8 @@
  */
 package ai.djl.mxnet.engine;
 
+import ai.djl.mxnet.jna.JnaUtils;
+import ai.djl.mxnet.jna.PreparedOp;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.internal.NDArrayEx;
@@ -182,41 +184,31 @@ class MxNDArrayEx implements NDArrayEx {
     /** {@inheritDoc} */
     @Override
     public NDArray relu() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "relu");
-        return getManager().invoke("Activation", array, params);
+        return activation(Activations.RELU);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sigmoid() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "sigmoid");
-        return getManager().invoke("Activation", array, params);
+        return activation(Activations.SIGMOID);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray tanh() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "tanh");
-        return getManager().invoke("Activation", array, params);
+        return activation(Activations.TANH);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray softrelu() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "softrelu");
-        return getManager().invoke("Activation", array, params);
+        return activation(Activations.SOFTRELU);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray softsign() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "softsign");
-        return getManager().invoke("Activation", array, params);
+        return activation(Activations.SOFTSIGN);
     }
 
     /** {@inheritDoc} */
@@ -240,17 +232,13 @@ class MxNDArrayEx implements NDArrayEx {
     /** {@inheritDoc} */
     @Override
     public NDArray selu() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "selu");
-        return getManager().invoke("LeakyReLU", array, params);
+        return activation(Activations.SELU);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray gelu() {
-        MxOpParams params = new MxOpParams();
-        params.addParam("act_type", "gelu");
-        return getManager().invoke("LeakyReLU", array, params);
+        return activation(Activations.GELU);
     }
 
     ////////////////////////////////////////
@@ -448,6 +436,68 @@ class MxNDArrayEx implements NDArrayEx {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void multiSgdUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        MxOpParams params = new MxOpParams();
+        params.addTupleParam("lrs", learningRates);
+        params.addTupleParam("wds", weightDecays);
+        params.addParam("rescale_grad", rescaleGrad);
+        params.addParam("clip_gradient", clipGrad);
+        params.addParam("num_weights", weights.size());
+
+        if (momentum != 0) {
+            params.addParam("momentum", momentum);
+            getManager().invoke("multi_sgd_mom_update", inputs, weights, params);
+        } else {
+            getManager().invoke("multi_sgd_update", inputs, weights, params);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiAdamUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float epsilon) {
+        // the AdamW kernel applies the weight decay to the weight directly instead of adding it
+        // to the gradient, the two are only equivalent without weight decay
+        float[] etas = new float[weights.size()];
+        Arrays.fill(etas, 1f);
+        MxOpParams params = new MxOpParams();
+        params.addTupleParam("lrs", learningRates);
+        params.addTupleParam("wds", weightDecays);
+        params.addTupleParam("etas", etas);
+        params.addParam("beta1", beta1);
+        params.addParam("beta2", beta2);
+        params.addParam("epsilon", epsilon);
+        params.addParam("clip_gradient", clipGrad);
+        params.addParam("num_weights", weights.size());
+
+        NDArray weight = weights.head();
+        try (NDArray rescale =
+                getManager().ones(new Shape(1), DataType.FLOAT32, weight.getDevice())) {
+            rescale.muli(rescaleGrad);
+            NDList src = new NDList(inputs.size() + 1);
+            src.addAll(inputs);
+            src.add(rescale);
+            getManager().invoke("_multi_adamw_update", src, weights, params);
+        }
+    }
+
     ////////////////////////////////////////
     // Neural network
     ////////////////////////////////////////
@@ -668,6 +718,15 @@ class MxNDArrayEx implements NDArrayEx {
         return getManager().invoke("pick", new NDList(array, index), params).singletonOrThrow();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public NDArray take(NDArray indices) {
+        MxOpParams params = new MxOpParams();
+        params.addParam("axis", 0);
+        params.add("mode", "clip");
+        return getManager().invoke("take", new NDList(array, indices), params).singletonOrThrow();
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray where(NDArray condition, NDArray other) {
@@ -818,4 +877,28 @@ class MxNDArrayEx implements NDArrayEx {
     private MxNDManager getManager() {
         return array.getManager();
     }
+
+    private NDArray activation(PreparedOp op) {
+        return op.invoke(getManager(), new NDArray[] {array})[0];
+    }
+
+    /** The activation operators, prepared once since their parameters never change. */
+    private static final class Activations {
+
+        static final PreparedOp RELU = prepare("Activation", "relu");
+        static final PreparedOp SIGMOID = prepare("Activation", "sigmoid");
+        static final PreparedOp TANH = prepare("Activation", "tanh");
+        static final PreparedOp SOFTRELU = prepare("Activation", "softrelu");
+        static final PreparedOp SOFTSIGN = prepare("Activation", "softsign");
+        static final PreparedOp SELU = prepare("LeakyReLU", "selu");
+        static final PreparedOp GELU = prepare("LeakyReLU", "gelu");
+
+        private Activations() {}
+
+        private static PreparedOp prepare(String operation, String actType) {
+            MxOpParams params = new MxOpParams();
+            params.addParam("act_type", actType);
+            return JnaUtils.op(operation).prepare(params);
+        }
+    }
 }
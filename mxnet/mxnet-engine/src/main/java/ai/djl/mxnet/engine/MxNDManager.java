@@ -69,6 +69,29 @@ public class MxNDManager extends BaseNDManager {
         return array;
     }
 
+    /**
+     * Creates a dense MxNDArray with the given Native Memory Pointer and the metadata that is
+     * already known, and attaches it to this manager.
+     *
+     * <p>The metadata that is not known is queried from MXNet when it is first needed.
+     *
+     * @param handle the array's native memory pointer
+     * @param device the device of the array, or {@code null} if unknown
+     * @param shape the shape of the array, or {@code null} if unknown
+     * @param dataType the data type of the array, or {@code null} if unknown
+     * @return the created array
+     */
+    public MxNDArray create(Pointer handle, Device device, Shape shape, DataType dataType) {
+        MxNDArray array;
+        if (device == null || shape == null || dataType == null) {
+            array = new MxNDArray(this, handle, device);
+        } else {
+            array = new MxNDArray(this, handle, device, shape, dataType);
+        }
+        attach(array.getUid(), array);
+        return array;
+    }
+
     /**
      * Creates a sparse MxNDArray with the given Native Memory Pointer and attaches to this manager.
      *
@@ -379,8 +402,14 @@ public class MxNDManager extends BaseNDManager {
         @Override
         public void detach(String resourceId) {}
 
-        /** {@inheritDoc} */
+        /**
+         * {@inheritDoc}
+         *
+         * <p>The system manager stays usable, only the idle pooled buffers are dropped.
+         */
         @Override
-        public void close() {}
+        public void close() {
+            bufferPool.clear();
+        }
     }
 }
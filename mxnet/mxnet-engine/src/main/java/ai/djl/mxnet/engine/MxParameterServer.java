@@ -22,19 +22,67 @@ import ai.djl.training.ParameterServer;
 import ai.djl.training.optimizer.Optimizer;
 import com.sun.jna.Pointer;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** {@code MxParameterServer} is the MXNet implementation of {@link ParameterServer}. */
+/**
+ * {@code MxParameterServer} is the MXNet implementation of {@link ParameterServer}, backed by an
+ * MXNet KVStore.
+ *
+ * <p>The following KVStore types are supported:
+ *
+ * <ul>
+ *   <li>{@code local} - gradients are reduced and the optimizer runs on the CPU
+ *   <li>{@code device} - gradients are reduced and the optimizer runs on the devices holding the
+ *       gradients, using peer to peer copies between GPUs when possible
+ *   <li>{@code dist_sync} and {@code dist_device_sync} - gradients are summed across all worker
+ *       processes by the KVStore servers, and the optimizer runs on every worker
+ * </ul>
+ *
+ * <p>Pushes and pulls are asynchronous: they are queued on the MXNet engine with the given
+ * priority, so the reduction of one parameter overlaps with the transfer and update of the others.
+ *
+ * <p>The distributed types require a scheduler and server processes, see {@link
+ * MxDistributedLauncher}.
+ */
 public class MxParameterServer extends NativeResource implements ParameterServer {
 
+    private static final Logger logger = LoggerFactory.getLogger(MxParameterServer.class);
+
+    private Optimizer optimizer;
+    private OptimizerCallback callback;
+    private Map<String, NDArray[]> gradMap;
+
     /**
-     * Constructs a new {@code MxParameterServer}.
+     * Constructs a new {@code MxParameterServer} with a {@code device} KVStore.
      *
      * @param optimizer the optimizer to use for the parameter server updates
      */
     public MxParameterServer(Optimizer optimizer) {
-        super(createdKVStore());
-        JnaUtils.parameterStoreSetUpdater(
-                getHandle(), null, new OptimizerCallback(optimizer), null);
+        this(optimizer, "device");
+    }
+
+    /**
+     * Constructs a new {@code MxParameterServer}.
+     *
+     * @param optimizer the optimizer to use for the parameter server updates
+     * @param type the KVStore type: {@code local}, {@code device}, {@code dist_sync}, or {@code
+     *     dist_device_sync}
+     */
+    public MxParameterServer(Optimizer optimizer, String type) {
+        super(JnaUtils.parameterStoreCreate(type));
+        registerCleaner(JnaUtils::parameterStoreClose);
+        this.optimizer = optimizer;
+        if (isDistributed(type)) {
+            // The servers only sum the gradients, the optimizer is applied on each worker
+            gradMap = new ConcurrentHashMap<>();
+        } else {
+            // keep a reference so that the callback is not garbage collected
+            callback = new OptimizerCallback(optimizer);
+            JnaUtils.parameterStoreSetUpdater(getHandle(), null, callback, null);
+        }
     }
 
     /** {@inheritDoc} */
@@ -53,19 +101,90 @@ public class MxParameterServer extends NativeResource implements ParameterServer
         Arrays.fill(keys, parameterId);
         NDList vals = new NDList(grads);
         JnaUtils.parameterStorePush(getHandle(), grads.length, keys, vals, priority);
+        if (gradMap != null) {
+            gradMap.put(parameterId, grads);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public void pull(String parameterId, NDArray[] weights, int priority) {
-        String[] keys = new String[weights.length];
-        Arrays.fill(keys, parameterId);
-        NDList vals = new NDList(weights);
-        JnaUtils.parameterStorePull(getHandle(), weights.length, keys, vals, priority);
+        if (gradMap == null) {
+            String[] keys = new String[weights.length];
+            Arrays.fill(keys, parameterId);
+            NDList vals = new NDList(weights);
+            JnaUtils.parameterStorePull(getHandle(), weights.length, keys, vals, priority);
+            return;
+        }
+
+        NDArray[] grads = pullGradients(parameterId, weights.length, priority);
+        for (int i = 0; i < weights.length; ++i) {
+            optimizer.update(parameterId, weights[i], grads[i]);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pull(String[] parameterIds, NDArray[][] weights) {
+        if (gradMap == null) {
+            // the KVStore calls the updater once for each key
+            ParameterServer.super.pull(parameterIds, weights);
+            return;
+        }
+
+        NDArray[][] grads = new NDArray[parameterIds.length][];
+        for (int i = 0; i < parameterIds.length; ++i) {
+            grads[i] = pullGradients(parameterIds[i], weights[i].length, -i);
+        }
+        // update all parameters on one device at a time
+        for (int d = 0; d < weights[0].length; ++d) {
+            NDArray[] deviceWeights = new NDArray[parameterIds.length];
+            NDArray[] deviceGrads = new NDArray[parameterIds.length];
+            for (int i = 0; i < parameterIds.length; ++i) {
+                deviceWeights[i] = weights[i][d];
+                deviceGrads[i] = grads[i][d];
+            }
+            optimizer.update(parameterIds, deviceWeights, deviceGrads);
+        }
+    }
+
+    /**
+     * Returns the rank of this worker, between 0 and {@link #getNumWorkers()} - 1.
+     *
+     * <p>The rank is always 0 for the non distributed types.
+     *
+     * @return the rank of this worker
+     */
+    public int getRank() {
+        return JnaUtils.parameterStoreGetRank(getHandle());
+    }
+
+    /**
+     * Returns the number of workers that share this parameter server.
+     *
+     * @return the number of workers
+     */
+    public int getNumWorkers() {
+        return JnaUtils.parameterStoreGetGroupSize(getHandle());
+    }
+
+    /** Blocks until all workers have reached the barrier. */
+    public void barrier() {
+        JnaUtils.parameterStoreBarrier(getHandle());
     }
 
-    private static Pointer createdKVStore() {
-        return JnaUtils.parameterStoreCreate("device");
+    /**
+     * Runs this process as a KVStore server or scheduler until all workers have finished.
+     *
+     * <p>The role of the process is taken from the {@code DMLC_ROLE} environment variable.
+     */
+    public static void runServer() {
+        Pointer pointer = JnaUtils.parameterStoreCreate("dist");
+        try {
+            JnaUtils.parameterStoreRunServer(pointer, new ServerController());
+        } finally {
+            JnaUtils.parameterStoreClose(pointer);
+        }
     }
 
     /** {@inheritDoc} */
@@ -74,9 +193,27 @@ public class MxParameterServer extends NativeResource implements ParameterServer
         Pointer pointer = handle.getAndSet(null);
         if (pointer != null) {
             JnaUtils.parameterStoreClose(pointer);
+            unregisterCleaner();
         }
     }
 
+    private NDArray[] pullGradients(String parameterId, int numDevices, int priority) {
+        NDArray[] grads = gradMap.remove(parameterId);
+        if (grads == null || grads.length != numDevices) {
+            throw new IllegalStateException("No gradient pushed for parameter: " + parameterId);
+        }
+        // pull the gradient summed over all workers in place
+        String[] keys = new String[grads.length];
+        Arrays.fill(keys, parameterId);
+        NDList vals = new NDList(grads);
+        JnaUtils.parameterStorePull(getHandle(), grads.length, keys, vals, priority);
+        return grads;
+    }
+
+    static boolean isDistributed(String type) {
+        return type.startsWith("dist");
+    }
+
     /** A helper to wrap the optimizer so it can be called by the MXNet KVStore. */
     private static final class OptimizerCallback implements MxnetLibrary.MXKVStoreStrUpdater {
 
@@ -99,4 +236,18 @@ public class MxParameterServer extends NativeResource implements ParameterServer
             }
         }
     }
+
+    /**
+     * Handles the commands sent to a server. Servers only sum gradients, so there is nothing to
+     * configure.
+     */
+    private static final class ServerController
+            implements MxnetLibrary.MXKVStoreServerController {
+
+        /** {@inheritDoc} */
+        @Override
+        public void apply(int head, String body, Pointer handle) {
+            logger.warn("Ignoring parameter server command: {}", head);
+        }
+    }
 }
@@ -16,6 +16,7 @@ import ai.djl.inference.BasePredictor;
 import ai.djl.inference.Predictor;
 import ai.djl.ndarray.NDList;
 import ai.djl.translate.Translator;
+import ai.djl.translate.TranslatorContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +31,8 @@ public class MxPredictor<I, O> extends BasePredictor<I, O> {
 
     private static final Logger logger = LoggerFactory.getLogger(MxPredictor.class);
 
+    private MxExecutionScheduler scheduler;
+
     /**
      * Constructs a {@code MxPredictor}.
      *
@@ -39,6 +42,16 @@ public class MxPredictor<I, O> extends BasePredictor<I, O> {
      */
     MxPredictor(MxModel model, Translator<I, O> translator, boolean copy) {
         super(model, translator, copy);
+        scheduler = model.getScheduler();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected NDList forward(TranslatorContext ctx, NDList ndList) {
+        if (scheduler == null) {
+            return super.forward(ctx, ndList);
+        }
+        return scheduler.forward(() -> super.forward(ctx, ndList));
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.engine.Profiler;
+import ai.djl.mxnet.jna.JnaUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@code MxProfiler} is the MXNet implementation of {@link Profiler}.
+ *
+ * <p>It turns on the MXNet profiler for every operator, and merges the per-operator events that
+ * MXNet dumps with the Java side events. The time spent marshalling each operator call through JNA
+ * is recorded under the {@code jna} category, so it can be told apart from the time the kernel
+ * runs.
+ */
+final class MxProfiler extends Profiler {
+
+    private Path file;
+
+    /** Constructs a {@code MxProfiler}. */
+    MxProfiler() {
+        String name = "mxnet-profile-" + UUID.randomUUID() + ".json";
+        file = Paths.get(System.getProperty("java.io.tmpdir")).resolve(name).toAbsolutePath();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void startNative() {
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("profile_all", "true");
+        config.put("aggregate_stats", "false");
+        config.put("continuous_dump", "false");
+        config.put("filename", file.toString());
+        JnaUtils.setProfilerConfig(config);
+        JnaUtils.setProfilerState(true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void stopNative() {
+        // let the pending operators finish so that they are recorded
+        JnaUtils.waitAll();
+        JnaUtils.setProfilerState(false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String dumpNative() throws IOException {
+        JnaUtils.dumpProfile(true);
+        if (Files.notExists(file)) {
+            return "";
+        }
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.delete(file);
+        return extractEvents(content);
+    }
+
+    /**
+     * Returns the content of the {@code traceEvents} array of a Chrome trace file.
+     *
+     * @param content the content of the trace file
+     * @return the events of the trace file, or an empty string if there are none
+     */
+    static String extractEvents(String content) {
+        int key = content.indexOf("\"traceEvents\"");
+        if (key < 0) {
+            return "";
+        }
+        int begin = content.indexOf('[', key);
+        int end = content.lastIndexOf(']');
+        if (begin < 0 || end <= begin) {
+            return "";
+        }
+        String events = content.substring(begin + 1, end).trim();
+        // MXNet may leave a trailing comma after the last event
+        if (events.endsWith(",")) {
+            events = events.substring(0, events.length() - 1);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,544 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.Model;
+import ai.djl.mxnet.jna.JnaUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Parameter;
+import ai.djl.training.ParameterStore;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Dataset;
+import ai.djl.util.Pair;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code MxQuantizer} converts a FP32 MXNet symbolic model into an INT8 model with post-training
+ * quantization.
+ *
+ * <p>The weights and biases are quantized offline. The value range of every quantized layer
+ * output is calibrated by running the FP32 model on a few batches of a calibration {@link
+ * Dataset}, either with the observed min/max values ({@link CalibrationMode#NAIVE}) or with the
+ * threshold that minimizes the KL divergence between the FP32 and INT8 distributions ({@link
+ * CalibrationMode#ENTROPY}).
+ *
+ * <pre>
+ * MxQuantizer quantizer = MxQuantizer.builder().optNumCalibrationBatches(10).build();
+ * quantizer.quantize(model, calibrationDataset, Paths.get("build/int8"), "resnet50_int8");
+ * </pre>
+ *
+ * <p>The result is a regular {@code -symbol.json} and {@code -0000.params} pair that can be
+ * loaded with {@link Model#load(Path, String)}. On CPU, load it with the {@code
+ * subgraph_backend} option set to {@code MKLDNN_QUANTIZE} to fuse the quantized operators.
+ */
+public final class MxQuantizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MxQuantizer.class);
+
+    private static final int NUM_BINS = 8001;
+    private static final int NUM_QUANTIZED_BINS = 255;
+
+    private CalibrationMode calibrationMode;
+    private String quantizedDataType;
+    private String quantizeMode;
+    private List<String> excludedLayers;
+    private List<String> excludedOperators;
+    private int numCalibrationBatches;
+
+    MxQuantizer(Builder builder) {
+        calibrationMode = builder.calibrationMode;
+        quantizedDataType = builder.quantizedDataType;
+        quantizeMode = builder.quantizeMode;
+        excludedLayers = builder.excludedLayers;
+        excludedOperators = builder.excludedOperators;
+        numCalibrationBatches = builder.numCalibrationBatches;
+    }
+
+    /**
+     * Creates a builder to build a {@code MxQuantizer}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Quantizes a model and saves the quantized model to a directory.
+     *
+     * @param model the FP32 model to quantize, it must contain a {@link MxSymbolBlock}
+     * @param calibrationDataset the dataset used to calibrate the layer outputs
+     * @param modelDir the directory to save the quantized model to
+     * @param modelName the name of the quantized model
+     * @throws IOException if the quantized model cannot be saved
+     */
+    public void quantize(Model model, Dataset calibrationDataset, Path modelDir, String modelName)
+            throws IOException {
+        if (!(model.getBlock() instanceof MxSymbolBlock)) {
+            throw new IllegalArgumentException("Only MXNet symbolic models can be quantized.");
+        }
+        MxSymbolBlock block = (MxSymbolBlock) model.getBlock();
+        Map<String, NDArray> params = new LinkedHashMap<>();
+        for (Parameter parameter : block.getAllParameters()) {
+            if (parameter.isInitialized()) {
+                params.put(parameter.getName(), parameter.getArray());
+            }
+        }
+
+        try (MxNDManager manager = (MxNDManager) model.getNDManager().newSubManager()) {
+            Symbol symbol = block.getSymbol();
+            Set<String> auxNames = new HashSet<>(Arrays.asList(symbol.getAuxNames()));
+            String[] offlineParams =
+                    Arrays.stream(symbol.getArgNames())
+                            .filter(params::containsKey)
+                            .toArray(String[]::new);
+            Pair<Pointer, String[]> pair =
+                    JnaUtils.quantizeSymbol(
+                            symbol.getHandle(),
+                            manager.getDevice(),
+                            excludedLayers.toArray(JnaUtils.EMPTY_ARRAY),
+                            excludedOperators.toArray(JnaUtils.EMPTY_ARRAY),
+                            offlineParams,
+                            quantizedDataType,
+                            quantizeMode);
+            Symbol quantized = new Symbol(manager, pair.getKey());
+            String[] calibNames = pair.getValue();
+
+            Map<String, float[]> thresholds =
+                    calibrate(manager, symbol, params, calibNames, calibrationDataset);
+            float[] low = new float[calibNames.length];
+            float[] high = new float[calibNames.length];
+            for (int i = 0; i < calibNames.length; ++i) {
+                float[] range = thresholds.get(calibNames[i]);
+                low[i] = range[0];
+                high[i] = range[1];
+            }
+            Symbol calibrated =
+                    new Symbol(
+                            manager,
+                            JnaUtils.setCalibTableToQuantizedSymbol(
+                                    quantized.getHandle(), calibNames, low, high));
+
+            Files.createDirectories(modelDir);
+            JnaUtils.saveSymbol(
+                    calibrated.getHandle(), modelDir.resolve(modelName + "-symbol.json"));
+            saveParams(
+                    manager,
+                    calibrated,
+                    params,
+                    auxNames,
+                    thresholds,
+                    modelDir.resolve(modelName + "-0000.params"));
+        }
+    }
+
+    private Map<String, float[]> calibrate(
+            MxNDManager manager,
+            Symbol symbol,
+            Map<String, NDArray> params,
+            String[] calibNames,
+            Dataset dataset) {
+        Map<String, float[]> thresholds = new LinkedHashMap<>();
+        if (calibNames.length == 0) {
+            return thresholds;
+        }
+
+        // builds a graph that outputs every layer to calibrate
+        Symbol internals = new Symbol(manager, JnaUtils.getSymbolInternals(symbol.getHandle()));
+        List<String> outputNames = Arrays.asList(internals.getOutputNames());
+        Pointer[] outputs = new Pointer[calibNames.length];
+        for (int i = 0; i < calibNames.length; ++i) {
+            int index = outputNames.indexOf(calibNames[i]);
+            if (index < 0) {
+                throw new IllegalStateException("Layer output not found: " + calibNames[i]);
+            }
+            outputs[i] = JnaUtils.getSymbolOutput(internals.getHandle(), index);
+        }
+        Symbol group = new Symbol(manager, JnaUtils.createGroup(outputs));
+        for (Pointer pointer : outputs) {
+            JnaUtils.freeSymbol(pointer);
+        }
+
+        MxSymbolBlock calibBlock = new MxSymbolBlock(manager, group);
+        List<String> inputNames = new ArrayList<>();
+        for (Parameter parameter : calibBlock.getAllParameters()) {
+            NDArray array = params.get(parameter.getName());
+            if (array == null) {
+                inputNames.add(parameter.getName());
+            } else {
+                parameter.setArray(array);
+            }
+        }
+        calibBlock.setInputNames(inputNames);
+
+        LayerStats[] stats = new LayerStats[calibNames.length];
+        for (int i = 0; i < stats.length; ++i) {
+            stats[i] = new LayerStats();
+        }
+        ParameterStore parameterStore = new ParameterStore(manager, false);
+        int numBatches = 0;
+        for (Batch batch : dataset.getData(manager)) {
+            try {
+                NDList results = calibBlock.forward(parameterStore, batch.getData(), null);
+                for (int i = 0; i < stats.length; ++i) {
+                    stats[i].collect(results.get(i).toFloatArray());
+                }
+            } finally {
+                batch.close();
+            }
+            if (++numBatches >= numCalibrationBatches) {
+                break;
+            }
+        }
+        if (numBatches == 0) {
+            throw new IllegalArgumentException("The calibration dataset is empty.");
+        }
+        logger.debug("Calibrated {} layers with {} batches.", calibNames.length, numBatches);
+
+        for (int i = 0; i < calibNames.length; ++i) {
+            LayerStats layer = stats[i];
+            float[] range;
+            if (calibrationMode == CalibrationMode.NAIVE) {
+                range = new float[] {layer.min, layer.max};
+            } else {
+                float threshold = getOptimalThreshold(layer.histogram, layer.threshold);
+                range = new float[] {-threshold, threshold};
+            }
+            thresholds.put(calibNames[i], range);
+        }
+        return thresholds;
+    }
+
+    private void saveParams(
+            MxNDManager manager,
+            Symbol quantized,
+            Map<String, NDArray> params,
+            Set<String> auxNames,
+            Map<String, float[]> thresholds,
+            Path file) {
+        Set<String> argNames = new HashSet<>(Arrays.asList(quantized.getArgNames()));
+        List<String> keys = new ArrayList<>();
+        List<Pointer> arrays = new ArrayList<>();
+        for (String name : quantized.getArgNames()) {
+            if (name.endsWith("weight_quantize") || name.endsWith("bias_quantize")) {
+                NDArray param = params.get(name.substring(0, name.length() - 9));
+                MxOpParams opParams = new MxOpParams();
+                opParams.addParam("out_type", "int8");
+                NDList result;
+                // the ranges are created on the manager of the model, so close them right away
+                try (NDArray min = param.min();
+                        NDArray max = param.max();
+                        NDArray minRange = min.reshape(new Shape(1));
+                        NDArray maxRange = max.reshape(new Shape(1))) {
+                    NDList inputs = new NDList(param, minRange, maxRange);
+                    result = manager.invoke("quantize", inputs, opParams);
+                }
+                String[] names = {name, name + "_min", name + "_max"};
+                for (int i = 0; i < names.length; ++i) {
+                    if (argNames.contains(names[i])) {
+                        keys.add("arg:" + names[i]);
+                        arrays.add(((MxNDArray) result.get(i)).getHandle());
+                    }
+                }
+            } else if (params.containsKey(name)) {
+                keys.add("arg:" + name);
+                arrays.add(((MxNDArray) params.get(name)).getHandle());
+            } else if (name.endsWith("_min") || name.endsWith("_max")) {
+                float[] range = thresholds.get(name.substring(0, name.length() - 4));
+                if (range != null) {
+                    float value = name.endsWith("_min") ? range[0] : range[1];
+                    keys.add("arg:" + name);
+                    arrays.add(((MxNDArray) manager.create(new float[] {value})).getHandle());
+                }
+            }
+        }
+        for (String name : auxNames) {
+            keys.add("aux:" + name);
+            arrays.add(((MxNDArray) params.get(name)).getHandle());
+        }
+        JnaUtils.saveNdArray(file, arrays.toArray(new Pointer[0]), keys.toArray(new String[0]));
+    }
+
+    /**
+     * Returns the threshold that minimizes the KL divergence between a histogram and its
+     * quantized version.
+     *
+     * @param histogram a histogram of {@value #NUM_BINS} bins over {@code [-maxAbs, maxAbs]}
+     * @param maxAbs the largest absolute value covered by the histogram
+     * @return the optimal threshold
+     * @throws IllegalArgumentException if no values have been collected into the histogram
+     */
+    static float getOptimalThreshold(float[] histogram, float maxAbs) {
+        if (histogram == null) {
+            throw new IllegalArgumentException("No calibration data has been collected.");
+        }
+        int numBins = histogram.length;
+        int zeroBin = numBins / 2;
+        int halfQuantizedBins = NUM_QUANTIZED_BINS / 2;
+        float binWidth = 2 * maxAbs / numBins;
+
+        double minDivergence = Double.MAX_VALUE;
+        float threshold = maxAbs;
+        for (int i = halfQuantizedBins; i <= zeroBin; ++i) {
+            int start = zeroBin - i;
+            int stop = zeroBin + i + 1;
+            int size = stop - start;
+
+            // reference distribution with the outliers clipped into the edge bins
+            double[] p = new double[size];
+            for (int j = 0; j < size; ++j) {
+                p[j] = histogram[start + j];
+            }
+            for (int j = 0; j < start; ++j) {
+                p[0] += histogram[j];
+            }
+            for (int j = stop; j < numBins; ++j) {
+                p[size - 1] += histogram[j];
+            }
+
+            // candidate distribution quantized to NUM_QUANTIZED_BINS and expanded back
+            int mergedBins = size / NUM_QUANTIZED_BINS;
+            double[] q = new double[size];
+            for (int j = 0; j < NUM_QUANTIZED_BINS; ++j) {
+                int binStart = j * mergedBins;
+                int binStop = j == NUM_QUANTIZED_BINS - 1 ? size : binStart + mergedBins;
+                double sum = 0;
+                int nonZeros = 0;
+                for (int k = binStart; k < binStop; ++k) {
+                    sum += histogram[start + k];
+                    if (histogram[start + k] != 0) {
+                        ++nonZeros;
+                    }
+                }
+                if (nonZeros > 0) {
+                    for (int k = binStart; k < binStop; ++k) {
+                        q[k] = histogram[start + k] == 0 ? 0 : sum / nonZeros;
+                    }
+                }
+            }
+            for (int j = 0; j < size; ++j) {
+                if (p[j] == 0) {
+                    q[j] = 0;
+                }
+            }
+
+            double divergence = klDivergence(p, q);
+            if (divergence < minDivergence) {
+                minDivergence = divergence;
+                threshold = (stop - zeroBin - 0.5f) * binWidth;
+            }
+        }
+        return threshold;
+    }
+
+    private static double klDivergence(double[] p, double[] q) {
+        if (!smooth(p) || !smooth(q)) {
+            return Double.MAX_VALUE;
+        }
+        double sumP = 0;
+        double sumQ = 0;
+        for (int i = 0; i < p.length; ++i) {
+            sumP += p[i];
+            sumQ += q[i];
+        }
+        double divergence = 0;
+        for (int i = 0; i < p.length; ++i) {
+            if (p[i] > 0) {
+                double pi = p[i] / sumP;
+                divergence += pi * Math.log(pi / (q[i] / sumQ));
+            }
+        }
+        return divergence;
+    }
+
+    /** Moves a small amount of mass into the empty bins so that the divergence is finite. */
+    private static boolean smooth(double[] dist) {
+        double eps = 0.0001;
+        int zeros = 0;
+        for (double v : dist) {
+            if (v == 0) {
+                ++zeros;
+            }
+        }
+        int nonZeros = dist.length - zeros;
+        if (nonZeros == 0) {
+            return false;
+        }
+        double eps1 = eps * zeros / nonZeros;
+        for (int i = 0; i < dist.length; ++i) {
+            dist[i] += dist[i] == 0 ? eps : -eps1;
+        }
+        return true;
+    }
+
+    /** The value statistics of a layer output accumulated over the calibration batches. */
+    static final class LayerStats {
+
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        float threshold;
+        float[] histogram;
+
+        void collect(float[] values) {
+            float batchMin = Float.MAX_VALUE;
+            float batchMax = -Float.MAX_VALUE;
+            for (float v : values) {
+                batchMin = Math.min(batchMin, v);
+                batchMax = Math.max(batchMax, v);
+            }
+            min = Math.min(min, batchMin);
+            max = Math.max(max, batchMax);
+
+            float maxAbs = Math.max(Math.abs(batchMin), Math.abs(batchMax));
+            if (histogram == null) {
+                threshold = maxAbs > 0 ? maxAbs : 1;
+                histogram = new float[NUM_BINS];
+            } else if (maxAbs > threshold) {
+                rebin(maxAbs);
+            }
+            float scale = NUM_BINS / (2 * threshold);
+            for (float v : values) {
+                int bin = (int) ((v + threshold) * scale);
+                histogram[Math.min(Math.max(bin, 0), NUM_BINS - 1)]++;
+            }
+        }
+
+        /** Widens the histogram range, moving the existing counts to the new bins. */
+        private void rebin(float newThreshold) {
+            float[] old = histogram;
+            float oldWidth = 2 * threshold / NUM_BINS;
+            float scale = NUM_BINS / (2 * newThreshold);
+            histogram = new float[NUM_BINS];
+            for (int i = 0; i < NUM_BINS; ++i) {
+                if (old[i] != 0) {
+                    float center = -threshold + (i + 0.5f) * oldWidth;
+                    int bin = (int) ((center + newThreshold) * scale);
+                    histogram[Math.min(Math.max(bin, 0), NUM_BINS - 1)] += old[i];
+                }
+            }
+            threshold = newThreshold;
+        }
+    }
+
+    /** The methods to calibrate the value range of the quantized layer outputs. */
+    public enum CalibrationMode {
+        /** Uses the minimum and maximum values observed on the calibration data. */
+        NAIVE,
+        /** Uses the threshold that minimizes the KL divergence between FP32 and INT8 outputs. */
+        ENTROPY
+    }
+
+    /** The Builder to construct a {@link MxQuantizer}. */
+    public static final class Builder {
+
+        CalibrationMode calibrationMode = CalibrationMode.ENTROPY;
+        String quantizedDataType = "int8";
+        String quantizeMode = "full";
+        List<String> excludedLayers = new ArrayList<>();
+        List<String> excludedOperators = new ArrayList<>();
+        int numCalibrationBatches = 10;
+
+        Builder() {}
+
+        /**
+         * Sets the {@link CalibrationMode}, {@link CalibrationMode#ENTROPY} by default.
+         *
+         * @param calibrationMode the {@link CalibrationMode}
+         * @return this {@code Builder}
+         */
+        public Builder optCalibrationMode(CalibrationMode calibrationMode) {
+            this.calibrationMode = calibrationMode;
+            return this;
+        }
+
+        /**
+         * Sets the data type of the quantized layers: {@code int8} (default), {@code uint8} or
+         * {@code auto}.
+         *
+         * @param quantizedDataType the data type of the quantized layers
+         * @return this {@code Builder}
+         */
+        public Builder optQuantizedDataType(String quantizedDataType) {
+            this.quantizedDataType = quantizedDataType;
+            return this;
+        }
+
+        /**
+         * Sets the quantize mode: {@code full} (default) to quantize every supported operator or
+         * {@code smart} to leave operators that do not benefit from quantization in FP32.
+         *
+         * @param quantizeMode the quantize mode
+         * @return this {@code Builder}
+         */
+        public Builder optQuantizeMode(String quantizeMode) {
+            this.quantizeMode = quantizeMode;
+            return this;
+        }
+
+        /**
+         * Adds layers that should stay in FP32, such as the first convolution.
+         *
+         * @param layerNames the names of the layers to exclude
+         * @return this {@code Builder}
+         */
+        public Builder optExcludedLayers(String... layerNames) {
+            excludedLayers.addAll(Arrays.asList(layerNames));
+            return this;
+        }
+
+        /**
+         * Adds operators that should stay in FP32.
+         *
+         * @param operatorNames the names of the operators to exclude
+         * @return this {@code Builder}
+         */
+        public Builder optExcludedOperators(String... operatorNames) {
+            excludedOperators.addAll(Arrays.asList(operatorNames));
+            return this;
+        }
+
+        /**
+         * Sets the number of batches of the calibration dataset to use, 10 by default.
+         *
+         * @param numCalibrationBatches the number of calibration batches
+         * @return this {@code Builder}
+         */
+        public Builder optNumCalibrationBatches(int numCalibrationBatches) {
+            this.numCalibrationBatches = numCalibrationBatches;
+            return this;
+        }
+
+        /**
+         * Builds a {@link MxQuantizer}.
+         *
+         * @return the {@link MxQuantizer}
+         */
+        public MxQuantizer build() {
+            return new MxQuantizer(this);
+        }
+    }
+}
@@ -52,6 +52,10 @@ public class MxSymbolBlock extends ParameterBlock implements SymbolBlock {
     private List<Parameter> params; // includes input data
     private Map<String, Shape> paramShapes;
     private Shape[] outputShapes;
+    private boolean staticAlloc;
+    private boolean staticShape;
+    private boolean reuseOutputs;
+    private boolean staticInputs;
 
     /**
      * Constructs a {@code MxSymbolBlock} for a {@link Symbol}.
@@ -65,6 +69,8 @@ public class MxSymbolBlock extends ParameterBlock implements SymbolBlock {
     public MxSymbolBlock(NDManager manager, Symbol symbol) {
         this.manager = manager;
         this.symbol = symbol;
+        staticAlloc = true;
+        staticShape = true;
         inputNames = new ArrayList<>();
 
         String[] allNames = symbol.getAllNames();
@@ -88,6 +94,91 @@ public class MxSymbolBlock extends ParameterBlock implements SymbolBlock {
         this.inputNames = inputNames;
     }
 
+    /**
+     * Returns whether the {@link CachedOp} of this block allocates its memory once.
+     *
+     * @return whether the {@link CachedOp} of this block allocates its memory once
+     */
+    public boolean isStaticAlloc() {
+        return staticAlloc;
+    }
+
+    /**
+     * Sets whether the {@link CachedOp} of this block allocates its memory once and reuses it for
+     * every call. Enabled by default.
+     *
+     * <p>This must be set before the first forward pass.
+     *
+     * @param staticAlloc whether to allocate the memory of the {@link CachedOp} once
+     */
+    public void setStaticAlloc(boolean staticAlloc) {
+        this.staticAlloc = staticAlloc;
+    }
+
+    /**
+     * Returns whether the {@link CachedOp} of this block assumes the input shapes do not change.
+     *
+     * @return whether the {@link CachedOp} of this block assumes the input shapes do not change
+     */
+    public boolean isStaticShape() {
+        return staticShape;
+    }
+
+    /**
+     * Sets whether the {@link CachedOp} of this block assumes the input shapes do not change
+     * between calls, which saves shape inference and memory planning. Enabled by default.
+     *
+     * <p>This only takes effect together with {@link #setStaticAlloc(boolean)} and must be set
+     * before the first forward pass.
+     *
+     * @param staticShape whether the input shapes do not change between calls
+     */
+    public void setStaticShape(boolean staticShape) {
+        this.staticShape = staticShape;
+    }
+
+    /**
+     * Sets whether the output arrays of {@link #forward(ParameterStore, NDList, PairList)} are
+     * allocated once and overwritten by every call.
+     *
+     * <p>This only applies to forward passes with static inputs, see {@link
+     * #setStaticInputs(boolean)}. It avoids allocating outputs for every request when the input
+     * shapes are fixed. The outputs are owned by the block and are only valid until the next
+     * forward pass, so this must only be used by a single thread that consumes the outputs before
+     * the next call.
+     *
+     * @param reuseOutputs whether the output arrays are reused
+     */
+    public void setReuseOutputs(boolean reuseOutputs) {
+        this.reuseOutputs = reuseOutputs;
+        if (op != null) {
+            op.setReuseOutputs(reuseOutputs);
+        }
+    }
+
+    /**
+     * Returns whether the inference forward passes of this block use static inputs.
+     *
+     * @return whether the inference forward passes of this block use static inputs
+     */
+    public boolean isStaticInputs() {
+        return staticInputs;
+    }
+
+    /**
+     * Sets whether the inference forward passes of this block use static inputs. Disabled by
+     * default.
+     *
+     * <p>With static inputs, the parameter handles are only resolved again when a parameter array
+     * is replaced or closed, and the default arrays for missing inputs are created once per device
+     * and batch size. Forward passes while training always resolve the parameters on every call.
+     *
+     * @param staticInputs whether the inference forward passes use static inputs
+     */
+    public void setStaticInputs(boolean staticInputs) {
+        this.staticInputs = staticInputs;
+    }
+
     /**
      * Returns the list of inputs and parameter NDArrays.
      *
@@ -144,8 +235,12 @@ public class MxSymbolBlock extends ParameterBlock implements SymbolBlock {
             ParameterStore parameterStore, NDList inputs, PairList<String, Object> params) {
         if (op == null) {
             op = JnaUtils.createCachedOp(this, (MxNDManager) manager);
+            op.setReuseOutputs(reuseOutputs);
+            op.setCacheOutputMetadata(staticShape);
         }
-        return op.forward(parameterStore, inputs);
+        // the parameters are replaced while training, only resolve them once for inference
+        boolean isStatic = staticInputs && !MxGradientCollector.isTraining();
+        return op.forward(parameterStore, inputs, isStatic);
     }
 
     /** {@inheritDoc} */
@@ -14,6 +14,7 @@ package ai.djl.mxnet.engine;
 
 import ai.djl.Device;
 import ai.djl.Model;
+import ai.djl.engine.Profiler;
 import ai.djl.metric.Metrics;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
@@ -22,6 +23,7 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Parameter;
 import ai.djl.training.GradientCollector;
+import ai.djl.training.GradientReducer;
 import ai.djl.training.LocalParameterServer;
 import ai.djl.training.ParameterServer;
 import ai.djl.training.ParameterStore;
@@ -50,6 +52,7 @@ public class MxTrainer implements Trainer {
     private List<TrainingListener> listeners;
     private Device[] devices;
     private ParameterStore parameterStore;
+    private ParameterServer parameterServer;
     private List<Evaluator> evaluators;
     private Loss loss;
     long batchBeginTime;
@@ -74,8 +77,17 @@ public class MxTrainer implements Trainer {
         evaluators = new ArrayList<>(trainingConfig.getEvaluators());
         evaluators.add(loss); // track loss as an evaluator by default
 
-        // ParameterServer parameterServer = new MxParameterServer(trainingConfig.getOptimizer());
-        ParameterServer parameterServer = new LocalParameterServer(trainingConfig.getOptimizer());
+        String parameterServerType = trainingConfig.getParameterServerType();
+        GradientReducer reducer =
+                parameterServerType == null
+                        ? GradientReducer.TREE
+                        : GradientReducer.fromName(parameterServerType);
+        if (reducer != null) {
+            parameterServer = new LocalParameterServer(trainingConfig.getOptimizer(), reducer);
+        } else {
+            parameterServer =
+                    new MxParameterServer(trainingConfig.getOptimizer(), parameterServerType);
+        }
 
         parameterStore = new ParameterStore(manager, false);
         parameterStore.setParameterServer(parameterServer, devices);
@@ -305,12 +317,17 @@ public class MxTrainer implements Trainer {
         listeners.forEach(listener -> listener.onTrainingEnd(this));
 
         parameterStore.sync();
+        parameterServer.close();
         manager.close();
     }
 
     private void addMetric(String metricName, long begin) {
-        if (metrics != null && begin > 0L) {
-            metrics.addMetric(metricName, System.nanoTime() - begin);
+        if (begin > 0L && (metrics != null || Profiler.isActive())) {
+            long end = System.nanoTime();
+            if (metrics != null) {
+                metrics.addMetric(metricName, end - begin);
+            }
+            Profiler.record("trainer", metricName, begin, end);
         }
     }
 }
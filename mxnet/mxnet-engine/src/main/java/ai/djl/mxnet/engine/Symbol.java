@@ -50,7 +50,9 @@ public class Symbol extends NativeResource {
      */
     Symbol(MxNDManager manager, Pointer pointer) {
         super(pointer);
+        registerCleaner(JnaUtils::freeSymbol);
         this.manager = manager;
+        setOwner(manager);
         manager.attach(getUid(), this);
         //        argParams = JnaUtils.listSymbolArguments(getHandle());
         //        auxParams = JnaUtils.listSymbolAuxiliaryStates(getHandle());
@@ -227,6 +229,19 @@ public class Symbol extends NativeResource {
         return shapesMap;
     }
 
+    /**
+     * Returns a copy of this {@code Symbol} partitioned for a subgraph backend.
+     *
+     * <p>Operators supported by the backend are fused into subgraphs. For example, the {@code
+     * MKLDNN} backend fuses convolution, batch normalization and activation on CPU.
+     *
+     * @param backend the name of the subgraph backend, such as {@code MKLDNN}
+     * @return the partitioned {@code Symbol}
+     */
+    public Symbol optimizeFor(String backend) {
+        return new Symbol(manager, JnaUtils.genBackendSubgraph(getHandle(), backend));
+    }
+
     /*
 
     public String debugStr() {
@@ -278,6 +293,7 @@ public class Symbol extends NativeResource {
         if (pointer != null) {
             manager.detach(getUid());
             JnaUtils.freeSymbol(pointer);
+            unregisterCleaner();
             manager = null;
         }
     }
@@ -12,27 +12,58 @@
  */
 package ai.djl.mxnet.jna;
 
-import ai.djl.mxnet.engine.MxNDArray;
-import ai.djl.mxnet.engine.MxNDManager;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
-import ai.djl.ndarray.types.SparseFormat;
 import ai.djl.util.PairList;
 import com.sun.jna.Pointer;
-import com.sun.jna.ptr.PointerByReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /** A FunctionInfo represents an operator (ie function) within the MXNet Engine. */
 public class FunctionInfo {
 
+    private static final int MAX_PREPARED = 64;
+
     private Pointer handle;
     private String name;
     private PairList<String, String> arguments;
+    private PreparedOp noParams;
+    private Map<ParamsKey, PreparedOp> prepared;
 
     FunctionInfo(Pointer pointer, String functionName, PairList<String, String> arguments) {
         this.handle = pointer;
         this.name = functionName;
         this.arguments = arguments;
+        noParams = new PreparedOp(this, JnaUtils.EMPTY_ARRAY, JnaUtils.EMPTY_ARRAY);
+        prepared = Collections.synchronizedMap(new LruCache());
+    }
+
+    /**
+     * Returns a {@link PreparedOp} that invokes this operator with the given parameters.
+     *
+     * <p>The parameters are encoded once. Callers that invoke the operator repeatedly with the same
+     * parameters should hold on to the returned {@code PreparedOp} and invoke it directly. The
+     * {@value #MAX_PREPARED} most recently used parameter sets of each operator are also cached,
+     * so calling this method again with equal parameters returns the same {@code PreparedOp}
+     * without encoding them again.
+     *
+     * @param params the non-NDArray arguments to the operator
+     * @return a {@link PreparedOp} bound to the given parameters
+     */
+    public PreparedOp prepare(PairList<String, ?> params) {
+        if (params == null || params.isEmpty()) {
+            return noParams;
+        }
+        ParamsKey key = new ParamsKey(params);
+        PreparedOp op = prepared.get(key);
+        if (op == null) {
+            op = new PreparedOp(this, key.keys, key.values);
+            prepared.put(key, op);
+        }
+        return op;
     }
 
     /**
@@ -47,9 +78,7 @@ public class FunctionInfo {
      */
     public int invoke(
             NDManager manager, NDArray[] src, NDArray[] dest, PairList<String, ?> params) {
-        PointerArray srcHandles = JnaUtils.toPointerArray(src);
-        PointerByReference destRef = new PointerByReference(JnaUtils.toPointerArray(dest));
-        return JnaUtils.imperativeInvoke(handle, srcHandles, destRef, params).size();
+        return prepare(params).invoke(src, dest);
     }
 
     /**
@@ -62,33 +91,24 @@ public class FunctionInfo {
      * @return the error code or zero for no errors
      */
     public NDArray[] invoke(NDManager manager, NDArray[] src, PairList<String, ?> params) {
-        PointerArray srcHandles = JnaUtils.toPointerArray(src);
-        return invoke((MxNDManager) manager, srcHandles, params);
+        return prepare(params).invoke(manager, src);
+    }
+
+    Pointer getHandle() {
+        return handle;
     }
 
     /**
-     * Calls an operator with the given arguments.
+     * Returns whether the output shapes of the operator depend on the values of its inputs.
      *
-     * @param manager the manager to attach the result to
-     * @param src the input NDArray pointers to the operator
-     * @param params the non-NDArray arguments to the operator. Should be a {@code PairList<String,
-     *     String>}
-     * @return the error code or zero for no errors
+     * @return {@code true} if the output shapes depend on the values of the inputs
      */
-    private NDArray[] invoke(MxNDManager manager, PointerArray src, PairList<String, ?> params) {
-        PointerByReference destRef = new PointerByReference();
-
-        PairList<Pointer, SparseFormat> pairList =
-                JnaUtils.imperativeInvoke(handle, src, destRef, params);
-        return pairList.stream()
-                .map(
-                        pair -> {
-                            if (pair.getValue() != SparseFormat.DENSE) {
-                                return manager.create(pair.getKey(), pair.getValue());
-                            }
-                            return manager.create(pair.getKey());
-                        })
-                .toArray(MxNDArray[]::new);
+    boolean hasDynamicShape() {
+        return name.contains("boolean_mask")
+                || name.contains("nonzero")
+                || name.contains("unique")
+                || name.contains("dynamic")
+                || name.startsWith("dgl_");
     }
 
     /**
@@ -117,4 +137,60 @@ public class FunctionInfo {
     public List<String> getArgumentTypes() {
         return arguments.values();
     }
+
+    /** The names and string values of a parameter set, compared element by element. */
+    private static final class ParamsKey {
+
+        private String[] keys;
+        private String[] values;
+        private int hash;
+
+        ParamsKey(PairList<String, ?> params) {
+            int size = params.size();
+            keys = new String[size];
+            values = new String[size];
+            for (int i = 0; i < size; ++i) {
+                keys[i] = params.keyAt(i);
+                values[i] = params.valueAt(i).toString();
+            }
+            hash = 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ParamsKey)) {
+                return false;
+            }
+            ParamsKey other = (ParamsKey) obj;
+            return hash == other.hash
+                    && Arrays.equals(keys, other.keys)
+                    && Arrays.equals(values, other.values);
+        }
+    }
+
+    /** An access ordered map that evicts the least recently used entry when it is full. */
+    private static final class LruCache extends LinkedHashMap<ParamsKey, PreparedOp> {
+
+        private static final long serialVersionUID = 1L;
+
+        LruCache() {
+            super(16, 0.75f, true);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ParamsKey, PreparedOp> eldest) {
+            return size() > MAX_PREPARED;
+        }
+    }
 }
@@ -26,12 +26,15 @@ import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.ndarray.types.SparseFormat;
 import ai.djl.nn.Parameter;
+import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
+import com.sun.jna.StringArray;
 import com.sun.jna.ptr.PointerByReference;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
 import java.nio.charset.StandardCharsets;
@@ -44,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A class containing utilities to interact with the MXNet Engine's Java Native Access (JNA) layer.
@@ -70,8 +74,14 @@ public final class JnaUtils {
 
     private static final Map<String, FunctionInfo> OPS = getNdArrayFunctions();
 
+    private static final LongAdder METADATA_QUERIES = new LongAdder();
+
     private JnaUtils() {}
 
+    public static long getMetadataQueryCount() {
+        return METADATA_QUERIES.sum();
+    }
+
     /////////////////////////////////
     // MXNet information
     /////////////////////////////////
@@ -203,7 +213,6 @@ public final class JnaUtils {
         return ret;
     }
 
-    /* Need tests
     public static void setOmpThreads(int threads) {
         checkCall(LIB.MXSetNumOMPThreads(threads));
     }
@@ -214,7 +223,6 @@ public final class JnaUtils {
 
         return prevBulkSize.get();
     }
-    */
 
     /////////////////////////////////
     // Utilities
@@ -264,12 +272,24 @@ public final class JnaUtils {
     // Profiler information
     /////////////////////////////////
 
-    /*
-    public static int setProcessProfilerConfig(int numParams, String keys[], String vals[],
-                                               Pointer kvstoreHandle) {
+    public static void setProfilerConfig(Map<String, String> config) {
+        String[] keys = config.keySet().toArray(EMPTY_ARRAY);
+        String[] vals = new String[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            vals[i] = config.get(keys[i]);
+        }
+        checkCall(LIB.MXSetProcessProfilerConfig(keys.length, keys, vals, null));
+    }
 
+    public static void setProfilerState(boolean run) {
+        checkCall(LIB.MXSetProcessProfilerState(run ? 1 : 0, 0, null));
     }
 
+    public static void dumpProfile(boolean finished) {
+        checkCall(LIB.MXDumpProcessProfile(finished ? 1 : 0, 0, null));
+    }
+
+    /*
     int MXSetProfilerConfig(int num_params, String keys[], String vals[]);
 
     int MXSetProcessProfilerState(int state, int profile_process, Pointer kvStoreHandle);
@@ -388,12 +408,12 @@ public final class JnaUtils {
 
         return ref.getValue();
     }
+     */
 
-    public static void saveNdArray(String file, Pointer[] ndArrays, String[] keys) {
+    public static void saveNdArray(Path path, Pointer[] ndArrays, String[] keys) {
         PointerArray array = new PointerArray(ndArrays);
-        checkCall(LIB.MXNDArraySave(file, ndArrays.length, array, keys));
+        checkCall(LIB.MXNDArraySave(path.toString(), ndArrays.length, array, keys));
     }
-     */
 
     public static NDList loadNdArray(MxNDManager manager, Path path, Device device) {
         IntBuffer handlesSize = IntBuffer.allocate(1);
@@ -474,15 +494,27 @@ public final class JnaUtils {
             PointerArray inputs,
             PointerByReference destRef,
             PairList<String, ?> params) {
-        String[] keys;
-        String[] values;
-        if (params == null) {
-            keys = EMPTY_ARRAY;
-            values = EMPTY_ARRAY;
-        } else {
-            keys = params.keyArray(EMPTY_ARRAY);
-            values = params.values().stream().map(Object::toString).toArray(String[]::new);
+        if (params == null || params.isEmpty()) {
+            return imperativeInvoke(function, inputs, destRef, 0, null, null);
         }
+        String[] keys = params.keyArray(EMPTY_ARRAY);
+        String[] values = params.values().stream().map(Object::toString).toArray(String[]::new);
+        return imperativeInvoke(
+                function,
+                inputs,
+                destRef,
+                keys.length,
+                new StringArray(keys, StandardCharsets.UTF_8.name()),
+                new StringArray(values, StandardCharsets.UTF_8.name()));
+    }
+
+    public static PairList<Pointer, SparseFormat> imperativeInvoke(
+            Pointer function,
+            PointerArray inputs,
+            PointerByReference destRef,
+            int numParams,
+            Pointer keys,
+            Pointer values) {
         PointerByReference destSType = new PointerByReference();
         IntBuffer numOutputs = IntBuffer.allocate(1);
         numOutputs.put(0, 1);
@@ -494,7 +526,7 @@ public final class JnaUtils {
                         inputs,
                         numOutputs,
                         destRef,
-                        keys.length,
+                        numParams,
                         keys,
                         values,
                         destSType));
@@ -509,12 +541,14 @@ public final class JnaUtils {
     }
 
     public static SparseFormat getStorageType(Pointer ndArray) {
+        METADATA_QUERIES.increment();
         IntBuffer type = IntBuffer.allocate(1);
         checkCall(LIB.MXNDArrayGetStorageType(ndArray, type));
         return SparseFormat.fromValue(type.get());
     }
 
     public static Device getDevice(Pointer ndArray) {
+        METADATA_QUERIES.increment();
         IntBuffer deviceType = IntBuffer.allocate(1);
         IntBuffer deviceId = IntBuffer.allocate(1);
         checkCall(LIB.MXNDArrayGetContext(ndArray, deviceType, deviceId));
@@ -522,6 +556,7 @@ public final class JnaUtils {
     }
 
     public static Shape getShape(Pointer ndArray) {
+        METADATA_QUERIES.increment();
         IntBuffer dim = IntBuffer.allocate(1);
         PointerByReference ref = new PointerByReference();
         checkCall(LIB.MXNDArrayGetShapeEx(ndArray, dim, ref));
@@ -534,6 +569,7 @@ public final class JnaUtils {
     }
 
     public static DataType getDataType(Pointer ndArray) {
+        METADATA_QUERIES.increment();
         IntBuffer dataType = IntBuffer.allocate(1);
         checkCall(LIB.MXNDArrayGetDType(ndArray, dataType));
         return DataType.values()[dataType.get()];
@@ -703,6 +739,27 @@ public final class JnaUtils {
         checkCall(LIB.MXKVStoreSetUpdater(handle, updater, updaterHandle));
     }
 
+    public static int parameterStoreGetRank(Pointer handle) {
+        IntBuffer rank = IntBuffer.allocate(1);
+        checkCall(LIB.MXKVStoreGetRank(handle, rank));
+        return rank.get();
+    }
+
+    public static int parameterStoreGetGroupSize(Pointer handle) {
+        IntBuffer size = IntBuffer.allocate(1);
+        checkCall(LIB.MXKVStoreGetGroupSize(handle, size));
+        return size.get();
+    }
+
+    public static void parameterStoreBarrier(Pointer handle) {
+        checkCall(LIB.MXKVStoreBarrier(handle));
+    }
+
+    public static void parameterStoreRunServer(
+            Pointer handle, MxnetLibrary.MXKVStoreServerController controller) {
+        checkCall(LIB.MXKVStoreRunServer(handle, controller, null));
+    }
+
     /*
     int MXInitPSEnv(int num_vars, String keys[], String vals[]);
 
@@ -725,10 +782,6 @@ public final class JnaUtils {
     int MXKVStoreGetType(Pointer handle, String type[]);
 
 
-    int MXKVStoreGetRank(Pointer handle, IntBuffer ret);
-
-    int MXKVStoreGetGroupSize(Pointer handle, IntBuffer ret);
-
     int MXKVStoreIsWorkerNode(IntBuffer ret);
 
     int MXKVStoreIsServerNode(IntBuffer ret);
@@ -736,16 +789,9 @@ public final class JnaUtils {
     int MXKVStoreIsSchedulerNode(IntBuffer ret);
 
 
-    int MXKVStoreBarrier(Pointer handle);
-
-
     int MXKVStoreSetBarrierBeforeExit(Pointer handle, int barrier_before_exit);
 
 
-    int MXKVStoreRunServer(Pointer handle, MxnetLibrary.MXKVStoreServerController controller,
-                           Pointer controller_handle);
-
-
     int MXKVStoreSendCommmandToServers(Pointer handle, int cmd_id, String cmd_body);
 
     int MXKVStoreGetNumDeadNode(Pointer handle, int node_id, IntBuffer number, int timeout_sec);
@@ -852,11 +898,11 @@ public final class JnaUtils {
         checkCall(LIB.MXSymbolFree(symbol));
     }
 
-    /* Need tests
-    public static void saveSymbol(Pointer symbol, String path) {
-        checkCall(LIB.MXSymbolSaveToFile(symbol, path));
+    public static void saveSymbol(Pointer symbol, Path path) {
+        checkCall(LIB.MXSymbolSaveToFile(symbol, path.toString()));
     }
 
+    /* Need tests
     public static Pointer copySymbol(Pointer symbol) {
         PointerByReference ref = new PointerByReference();
         checkCall(LIB.MXSymbolCopy(symbol, ref));
@@ -945,6 +991,13 @@ public final class JnaUtils {
         return ref.getValue();
     }
 
+    public static Pointer createGroup(Pointer[] symbols) {
+        PointerArray array = new PointerArray(symbols);
+        PointerByReference ref = new PointerByReference();
+        checkCall(LIB.MXSymbolCreateGroup(symbols.length, array, ref));
+        return ref.getValue();
+    }
+
     /* Need tests
     public static String[] listSymbolArguments(Pointer symbol) {
         IntBuffer size = IntBuffer.allocate(1);
@@ -1023,13 +1076,6 @@ public final class JnaUtils {
         checkCall(LIB.MXSymbolCreateVariable(name, ref));
         return ref.getValue();
     }
-
-    public static Pointer createGroup(int numOfSymbols, Pointer symbols) {
-        PointerByReference symbolsRef = new PointerByReference(symbols);
-        PointerByReference ref = new PointerByReference();
-        checkCall(LIB.MXSymbolCreateGroup(numOfSymbols, symbolsRef, ref));
-        return ref.getValue();
-    }
      */
 
     public static Pointer createSymbolFromFile(String path) {
@@ -1202,35 +1248,51 @@ public final class JnaUtils {
         return null;
     }
 
-    public static Pointer quantizeSymbol(
+     */
+
+    public static Pair<Pointer, String[]> quantizeSymbol(
             Pointer symbol,
+            Device device,
             String[] excludedSymbols,
+            String[] excludedOperators,
             String[] offlineParams,
             String quantizedDType,
-            byte calibQuantize) {
+            String quantizeMode) {
+        int[] deviceType = {MxDeviceType.toDeviceType(device)};
         PointerByReference ref = new PointerByReference();
+        IntBuffer numCalibNames = IntBuffer.allocate(1);
+        PointerByReference calibNamesRef = new PointerByReference();
         checkCall(
                 LIB.MXQuantizeSymbol(
                         symbol,
                         ref,
+                        deviceType,
                         excludedSymbols.length,
                         excludedSymbols,
+                        excludedOperators.length,
+                        excludedOperators,
                         offlineParams.length,
                         offlineParams,
                         quantizedDType,
-                        calibQuantize));
-        return ref.getValue();
+                        (byte) 1,
+                        quantizeMode,
+                        numCalibNames,
+                        calibNamesRef));
+        String[] calibNames = toStringArray(calibNamesRef, numCalibNames.get());
+        return new Pair<>(ref.getValue(), calibNames);
     }
 
     public static Pointer setCalibTableToQuantizedSymbol(
-            Pointer symbol,
-            String[] layerNames,
-            FloatBuffer lowQuantiles,
-            FloatBuffer highQuantiles) {
+            Pointer symbol, String[] layerNames, float[] lowQuantiles, float[] highQuantiles) {
         PointerByReference ref = new PointerByReference();
         checkCall(
                 LIB.MXSetCalibTableToQuantizedSymbol(
-                        symbol, layerNames.length, layerNames, lowQuantiles, highQuantiles, ref));
+                        symbol,
+                        layerNames.length,
+                        layerNames,
+                        FloatBuffer.wrap(lowQuantiles),
+                        FloatBuffer.wrap(highQuantiles),
+                        ref));
         return ref.getValue();
     }
 
@@ -1239,7 +1301,6 @@ public final class JnaUtils {
         checkCall(LIB.MXGenBackendSubgraph(symbol, backend, ref));
         return ref.getValue();
     }
-     */
 
     /////////////////////////////////
     // MXNet Executors
@@ -1703,9 +1764,16 @@ public final class JnaUtils {
                             ref,
                             useThreadSafePredictorByte()));
         } else {
-            // static_alloc and static_shape are enabled by default
+            // static_shape requires static_alloc
+            boolean staticAlloc = block.isStaticAlloc();
+            boolean staticShape = staticAlloc && block.isStaticShape();
             String[] keys = {"data_indices", "param_indices", "static_alloc", "static_shape"};
-            String[] values = {dataIndices.values().toString(), paramIndices.toString(), "1", "1"};
+            String[] values = {
+                dataIndices.values().toString(),
+                paramIndices.toString(),
+                staticAlloc ? "1" : "0",
+                staticShape ? "1" : "0"
+            };
             checkCall(LIB.MXCreateCachedOpEx(symbolHandle, keys.length, keys, values, ref));
         }
 
@@ -1726,15 +1794,32 @@ public final class JnaUtils {
         for (int i = 0; i < inputs.length; i++) {
             inputHandles[i] = inputs[i].getHandle();
         }
+        return cachedOpInvoke(manager, cachedOpHandle, inputHandles, null, null, inputs);
+    }
+
+    public static MxNDArray[] cachedOpInvoke(
+            MxNDManager manager,
+            Pointer cachedOpHandle,
+            Pointer[] inputHandles,
+            MxNDArray[] outputs,
+            OutputMetadataCache cache,
+            NDArray[] data) {
         PointerArray array = new PointerArray(inputHandles);
         IntBuffer buf = IntBuffer.allocate(1);
-        PointerByReference ref = new PointerByReference();
+        PointerByReference ref;
+        if (outputs == null) {
+            ref = new PointerByReference();
+        } else {
+            // MXNet writes into the given outputs instead of allocating new ones
+            buf.put(0, outputs.length);
+            ref = new PointerByReference(toPointerArray(outputs));
+        }
         PointerByReference outSTypeRef = new PointerByReference();
         if (useThreadSafePredictor()) {
             checkCall(
                     LIB.MXInvokeCachedOpEX(
                             cachedOpHandle,
-                            inputs.length,
+                            inputHandles.length,
                             array,
                             buf,
                             ref,
@@ -1743,20 +1828,19 @@ public final class JnaUtils {
         } else {
             checkCall(
                     LIB.MXInvokeCachedOpEx(
-                            cachedOpHandle, inputs.length, array, buf, ref, outSTypeRef));
+                            cachedOpHandle, inputHandles.length, array, buf, ref, outSTypeRef));
+        }
+        if (outputs != null) {
+            return outputs;
         }
         int numOutputs = buf.get();
         Pointer[] ptrArray = ref.getValue().getPointerArray(0, numOutputs);
         int[] sTypes = outSTypeRef.getValue().getIntArray(0, numOutputs);
-        MxNDArray[] output = new MxNDArray[numOutputs];
+        SparseFormat[] formats = new SparseFormat[numOutputs];
         for (int i = 0; i < numOutputs; i++) {
-            if (sTypes[i] != 0) {
-                output[i] = manager.create(ptrArray[i], SparseFormat.fromValue(sTypes[i]));
-            } else {
-                output[i] = manager.create(ptrArray[i]);
-            }
+            formats[i] = SparseFormat.fromValue(sTypes[i]);
         }
-        return output;
+        return OutputMetadataCache.createOutputs(manager, cache, data, ptrArray, formats);
     }
 
     public static boolean useThreadSafePredictor() {
@@ -12,10 +12,11 @@
  */
 package ai.djl.mxnet.jna;
 
+import ai.djl.ndarray.NDManager;
+import ai.djl.util.ResourceCleaner;
 import com.sun.jna.Pointer;
 import java.util.concurrent.atomic.AtomicReference;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.function.Consumer;
 
 /**
  * {@code NativeResource} is an internal class for {@link AutoCloseable} blocks of memory created in
@@ -23,18 +24,14 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class NativeResource implements AutoCloseable {
 
-    private static final Logger logger = LoggerFactory.getLogger(NativeResource.class);
-
     protected final AtomicReference<Pointer> handle;
+    private final AtomicReference<NDManager> owner = new AtomicReference<>();
     private String uid;
-    private Exception exception;
+    private ResourceCleaner.Cleanable cleanable;
 
     protected NativeResource(Pointer pointer) {
         this.handle = new AtomicReference<>(pointer);
         uid = String.valueOf(Pointer.nativeValue(pointer));
-        if (logger.isTraceEnabled()) {
-            exception = new Exception();
-        }
     }
 
     /**
@@ -74,20 +71,49 @@ public abstract class NativeResource implements AutoCloseable {
         throw new UnsupportedOperationException("Not implemented.");
     }
 
-    /** {@inheritDoc} */
-    @SuppressWarnings("deprecation")
-    @Override
-    protected void finalize() throws Throwable {
-        if (handle.get() != null) {
-            if (exception != null) {
-                logger.warn(
-                        "Resource ({}) was not closed explicitly: {}",
-                        getUid(),
-                        getClass().getSimpleName());
-                logger.warn("Resource was created:", exception);
-            }
+    /**
+     * Frees the native resource with the given function if this object is garbage collected
+     * without being closed.
+     *
+     * <p>The function must not reference this object. The resource is also detached from the
+     * manager last set with {@link #setOwner(NDManager)}.
+     *
+     * @param free the function that frees the native resource
+     */
+    protected final void registerCleaner(Consumer<Pointer> free) {
+        cleanable = ResourceCleaner.register(this, uid, handle, owner, free);
+    }
+
+    /**
+     * Sets the {@link NDManager} this resource is attached to, so that the cleaner can detach it
+     * once the resource is garbage collected.
+     *
+     * @param manager the manager this resource is attached to
+     */
+    protected final void setOwner(NDManager manager) {
+        owner.set(manager);
+    }
+
+    /**
+     * Records the native memory held by this resource for {@link
+     * ResourceCleaner#getLiveBytes(String)}.
+     *
+     * @param device the name of the device that holds the memory
+     * @param bytes the number of bytes
+     */
+    protected final void trackSize(String device, long bytes) {
+        if (cleanable != null) {
+            cleanable.setSize(device, bytes);
+        }
+    }
+
+    /**
+     * Unregisters this resource from the {@link ResourceCleaner} once the native resource has been
+     * freed explicitly, or is no longer owned by this object.
+     */
+    protected final void unregisterCleaner() {
+        if (cleanable != null) {
+            cleanable.cancel();
         }
-        close();
-        super.finalize();
     }
 }
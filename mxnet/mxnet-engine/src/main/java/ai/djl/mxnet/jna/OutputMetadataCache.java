@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.jna;
+
+import ai.djl.Device;
+import ai.djl.mxnet.engine.MxNDArray;
+import ai.djl.mxnet.engine.MxNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.ndarray.types.SparseFormat;
+import com.sun.jna.Pointer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code OutputMetadataCache} remembers the shape, data type, and device of the outputs of an
+ * operator, keyed by the shapes, data types, and devices of its inputs.
+ *
+ * <p>MXNet only returns handles for the outputs of an operator, so each of their getters costs a
+ * JNA call the first time it is used. An operator with fixed parameters always produces the same
+ * output metadata for the same input metadata, so it is enough to query the outputs of the first
+ * call for each distinct input layout; the outputs of later calls are created with their metadata
+ * filled in.
+ *
+ * <p>The cache must not be used for operators whose output shapes depend on the input values, such
+ * as {@code boolean_mask}.
+ */
+public final class OutputMetadataCache {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private Map<Key, Metadata[]> entries;
+
+    /** Constructs an empty {@code OutputMetadataCache}. */
+    public OutputMetadataCache() {
+        entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Wraps the output handles of an operator into {@link MxNDArray}s, filling in the metadata that
+     * is already known.
+     *
+     * <p>Without a cache, dense outputs still get their storage format and, as MXNet runs an
+     * operator on the device of its first input, their device.
+     *
+     * @param manager the manager to attach the outputs to
+     * @param cache the cache of the operator, or {@code null} if its output shapes may depend on
+     *     the input values
+     * @param inputs the inputs of the operator
+     * @param handles the output handles
+     * @param formats the storage formats of the outputs
+     * @return the outputs
+     */
+    static MxNDArray[] createOutputs(
+            MxNDManager manager,
+            OutputMetadataCache cache,
+            NDArray[] inputs,
+            Pointer[] handles,
+            SparseFormat[] formats) {
+        boolean dense = true;
+        for (SparseFormat format : formats) {
+            dense &= format == SparseFormat.DENSE;
+        }
+        Key key = cache != null && dense ? new Key(inputs) : null;
+        Metadata[] known = key == null ? null : cache.entries.get(key);
+        if (known != null && known.length != handles.length) {
+            known = null;
+        }
+        Device device = inputs.length > 0 ? inputs[0].getDevice() : null;
+
+        MxNDArray[] outputs = new MxNDArray[handles.length];
+        for (int i = 0; i < handles.length; ++i) {
+            if (formats[i] != SparseFormat.DENSE) {
+                outputs[i] = manager.create(handles[i], formats[i]);
+            } else if (known != null) {
+                Metadata metadata = known[i];
+                outputs[i] =
+                        manager.create(
+                                handles[i], metadata.device, metadata.shape, metadata.dataType);
+            } else {
+                outputs[i] = manager.create(handles[i], device, null, null);
+            }
+        }
+
+        if (key != null && known == null && cache.entries.size() < MAX_ENTRIES) {
+            Metadata[] metadata = new Metadata[outputs.length];
+            for (int i = 0; i < outputs.length; ++i) {
+                metadata[i] = new Metadata(outputs[i]);
+            }
+            cache.entries.put(key, metadata);
+        }
+        return outputs;
+    }
+
+    private static final class Key {
+
+        private long[] layout;
+        private Device[] devices;
+        private int hash;
+
+        Key(NDArray[] inputs) {
+            int size = inputs.length;
+            for (NDArray input : inputs) {
+                size += input.getShape().dimension() + 1;
+            }
+            layout = new long[size];
+            devices = new Device[inputs.length];
+            int pos = 0;
+            for (int i = 0; i < inputs.length; ++i) {
+                Shape shape = inputs[i].getShape();
+                layout[pos++] = shape.dimension();
+                for (long dim : shape.getShape()) {
+                    layout[pos++] = dim;
+                }
+                layout[pos++] = inputs[i].getDataType().ordinal();
+                devices[i] = inputs[i].getDevice();
+            }
+            hash = 31 * Arrays.hashCode(layout) + Arrays.hashCode(devices);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Arrays.equals(layout, other.layout) && Arrays.equals(devices, other.devices);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Metadata {
+
+        Device device;
+        Shape shape;
+        DataType dataType;
+
+        Metadata(NDArray array) {
+            device = array.getDevice();
+            shape = array.getShape();
+            dataType = array.getDataType();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.jna;
+
+import ai.djl.engine.Profiler;
+import ai.djl.mxnet.engine.MxNDArray;
+import ai.djl.mxnet.engine.MxNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.SparseFormat;
+import ai.djl.util.PairList;
+import com.sun.jna.Pointer;
+import com.sun.jna.StringArray;
+import com.sun.jna.ptr.PointerByReference;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@code PreparedOp} is an operator bound to a fixed set of parameters.
+ *
+ * <p>The parameter names and values are encoded into native memory once, when the {@code
+ * PreparedOp} is created by {@link FunctionInfo#prepare(PairList)}. Invoking it only marshals the
+ * input and output handles, which saves most of the per-call overhead for small tensors.
+ *
+ * <p>A {@code PreparedOp} is immutable and can be shared between threads.
+ */
+public final class PreparedOp {
+
+    private FunctionInfo function;
+    private int numParams;
+    private Pointer keys;
+    private Pointer values;
+    private OutputMetadataCache outputCache;
+
+    PreparedOp(FunctionInfo function, String[] keys, String[] values) {
+        this.function = function;
+        if (!function.hasDynamicShape()) {
+            outputCache = new OutputMetadataCache();
+        }
+        numParams = keys.length;
+        if (numParams > 0) {
+            this.keys = new StringArray(keys, StandardCharsets.UTF_8.name());
+            this.values = new StringArray(values, StandardCharsets.UTF_8.name());
+        }
+    }
+
+    /**
+     * Calls the operator and writes the result into the given arrays.
+     *
+     * @param src the input NDArray(s) to the operator
+     * @param dest the destination NDArray(s) to be overwritten with the result of the operator
+     * @return the number of outputs of the operator
+     */
+    public int invoke(NDArray[] src, NDArray[] dest) {
+        boolean profiling = Profiler.isActive();
+        long begin = profiling ? System.nanoTime() : 0L;
+        PointerArray srcHandles = JnaUtils.toPointerArray(src);
+        PointerByReference destRef = new PointerByReference(JnaUtils.toPointerArray(dest));
+        int size =
+                JnaUtils.imperativeInvoke(
+                                function.getHandle(), srcHandles, destRef, numParams, keys, values)
+                        .size();
+        if (profiling) {
+            Profiler.record("jna", function.getFunctionName(), begin, System.nanoTime());
+        }
+        return size;
+    }
+
+    /**
+     * Calls the operator.
+     *
+     * <p>Unless the output shapes of the operator depend on the input values, the shape, data type
+     * and device of the outputs are remembered for each distinct input layout, so that the outputs
+     * of later calls do not need to query them from MXNet.
+     *
+     * @param manager the manager to attach the result to
+     * @param src the input NDArray(s) to the operator
+     * @return the output NDArray(s) of the operator
+     */
+    public NDArray[] invoke(NDManager manager, NDArray[] src) {
+        boolean profiling = Profiler.isActive();
+        long begin = profiling ? System.nanoTime() : 0L;
+        PointerArray srcHandles = JnaUtils.toPointerArray(src);
+        PointerByReference destRef = new PointerByReference();
+        PairList<Pointer, SparseFormat> pairList =
+                JnaUtils.imperativeInvoke(
+                        function.getHandle(), srcHandles, destRef, numParams, keys, values);
+        Pointer[] handles = pairList.keyArray(new Pointer[0]);
+        SparseFormat[] formats = pairList.valueArray(new SparseFormat[0]);
+        MxNDArray[] outputs =
+                OutputMetadataCache.createOutputs(
+                        (MxNDManager) manager, outputCache, src, handles, formats);
+        if (profiling) {
+            Profiler.record("jna", function.getFunctionName(), begin, System.nanoTime());
+        }
+        return outputs;
+    }
+
+    /**
+     * Returns the operator that this {@code PreparedOp} invokes.
+     *
+     * @return the operator that this {@code PreparedOp} invokes
+     */
+    public FunctionInfo getFunction() {
+        return function;
+    }
+}
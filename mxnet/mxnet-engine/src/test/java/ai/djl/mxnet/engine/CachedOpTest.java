@@ -30,6 +30,7 @@ import ai.djl.training.ParameterStore;
 import ai.djl.util.PairList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -131,6 +132,66 @@ public class CachedOpTest extends PowerMockTestCase {
         }
     }
 
+    @Test
+    public void testStaticForward() {
+        try (MxNDManager manager = MxNDManager.getSystemManager().newSubManager()) {
+            List<Parameter> params = new ArrayList<>();
+            Parameter parameter =
+                    new Parameter("data0", new SequentialBlock(), ParameterType.OTHER, false);
+            params.add(parameter);
+
+            parameter = new Parameter("array0", new SequentialBlock(), ParameterType.WEIGHT, true);
+            parameter.setArray(manager.create(new Shape(2)));
+            params.add(parameter);
+
+            parameter = new Parameter("label", new SequentialBlock(), ParameterType.OTHER, false);
+            params.add(parameter);
+
+            List<Integer> paramIndices = Collections.singletonList(1);
+            List<String> names = Arrays.asList("data0", "label");
+            List<Integer> locations = Arrays.asList(0, 2);
+            PairList<String, Integer> dataIndices = new PairList<>(names, locations);
+
+            ParameterStore parameterStore = new ParameterStore(manager, false);
+            CachedOp co =
+                    new CachedOp(new PointerArray(), manager, params, paramIndices, dataIndices);
+            co.setReuseOutputs(true);
+
+            NDList input = new NDList(manager.create(new Shape(2)));
+            NDList first = co.forward(parameterStore, input, true);
+            NDList second = co.forward(parameterStore, input, true);
+            Assert.assertEquals(first.size(), 3);
+            for (int i = 0; i < first.size(); ++i) {
+                Assert.assertSame(second.get(i), first.get(i));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testStaticForwardClosedParameter() {
+        try (MxNDManager manager = MxNDManager.getSystemManager().newSubManager()) {
+            List<Parameter> params = new ArrayList<>();
+            params.add(new Parameter("data0", new SequentialBlock(), ParameterType.OTHER, false));
+            Parameter weight =
+                    new Parameter("array0", new SequentialBlock(), ParameterType.WEIGHT, true);
+            weight.setArray(manager.create(new Shape(2)));
+            params.add(weight);
+
+            List<Integer> paramIndices = Collections.singletonList(1);
+            PairList<String, Integer> dataIndices = new PairList<>();
+            dataIndices.add("data0", 0);
+            ParameterStore parameterStore = new ParameterStore(manager, false);
+            CachedOp co =
+                    new CachedOp(new PointerArray(), manager, params, paramIndices, dataIndices);
+
+            NDList input = new NDList(manager.create(new Shape(2)));
+            co.forward(parameterStore, input, true);
+            // the cached handle of the closed array must not be passed to MXNet
+            weight.getArray().close();
+            co.forward(parameterStore, input, true);
+        }
+    }
+
     @ObjectFactory
     public IObjectFactory getObjectFactory() {
         return new org.powermock.modules.testng.PowerMockObjectFactory();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+// CHECKSTYLE:OFF:AvoidStaticImport
+
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import ai.djl.engine.ExecutionProfile;
+import ai.djl.mxnet.jna.LibUtils;
+import ai.djl.mxnet.test.MockMxnetLibrary;
+import ai.djl.ndarray.NDList;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.IObjectFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+
+// CHECKSTYLE:ON:AvoidStaticImport
+
+@PrepareForTest(LibUtils.class)
+public class MxExecutionSchedulerTest extends PowerMockTestCase {
+
+    private MockMxnetLibrary library;
+
+    @BeforeClass
+    public void prepare() {
+        mockStatic(LibUtils.class);
+        library = new MockMxnetLibrary();
+        PowerMockito.when(LibUtils.loadLibrary()).thenReturn(library);
+    }
+
+    @Test
+    public void testRestoresPreviousSettings() {
+        List<Integer> ompThreads = new ArrayList<>();
+        int[] bulkSize = {15};
+        library.setFunction(
+                "MXSetNumOMPThreads",
+                args -> {
+                    ompThreads.add((Integer) args[0]);
+                    return 0;
+                });
+        library.setFunction(
+                "MXEngineSetBulkSize",
+                args -> {
+                    ((IntBuffer) args[1]).put(0, bulkSize[0]);
+                    bulkSize[0] = (Integer) args[0];
+                    return 0;
+                });
+
+        MxExecutionScheduler outer =
+                new MxExecutionScheduler(
+                        ExecutionProfile.builder().optIntraOpThreads(2).optBulkSize(8).build());
+        MxExecutionScheduler inner =
+                new MxExecutionScheduler(
+                        ExecutionProfile.builder().optIntraOpThreads(4).optBulkSize(0).build());
+        MxExecutionScheduler none = new MxExecutionScheduler(ExecutionProfile.builder().build());
+        try {
+            // a model that runs another model inside its forward pass
+            outer.forward(
+                    () -> {
+                        Assert.assertEquals(bulkSize[0], 8);
+                        inner.forward(NDList::new);
+                        none.forward(NDList::new);
+                        Assert.assertEquals(bulkSize[0], 8);
+                        return new NDList();
+                    });
+            Assert.assertEquals(
+                    ompThreads,
+                    Arrays.asList(2, 4, 2, MxExecutionScheduler.DEFAULT_OMP_THREADS));
+            Assert.assertEquals(bulkSize[0], 15);
+        } finally {
+            library.resetFunctions();
+        }
+    }
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+}
@@ -83,6 +83,24 @@ public class MxNDArrayTest extends PowerMockTestCase {
         }
     }
 
+    @Test
+    public void testArenaManager() {
+        try (MxNDManager manager = MxNDManager.getSystemManager().newSubManager()) {
+            MxNDManager arena = (MxNDManager) manager.newArenaManager();
+            MxNDArray closed = arena.create(new PointerArray());
+            MxNDArray temporary = arena.create(new PointerArray());
+            MxNDArray result = arena.create(new PointerArray());
+            closed.close();
+            result.attach(manager);
+            arena.close();
+
+            Assert.assertTrue(closed.isReleased());
+            Assert.assertTrue(temporary.isReleased());
+            Assert.assertFalse(result.isReleased());
+            Assert.assertFalse(arena.isOpen());
+        }
+    }
+
     @ObjectFactory
     public IObjectFactory getObjectFactory() {
         return new org.powermock.modules.testng.PowerMockObjectFactory();
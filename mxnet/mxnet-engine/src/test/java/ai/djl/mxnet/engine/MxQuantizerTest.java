@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MxQuantizerTest {
+
+    @Test
+    public void testOptimalThreshold() {
+        Random random = new Random(1);
+        MxQuantizer.LayerStats stats = new MxQuantizer.LayerStats();
+        for (int batch = 0; batch < 3; ++batch) {
+            float[] values = new float[10000];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = (float) random.nextGaussian();
+            }
+            // a single outlier per batch widens the histogram range
+            values[0] = 20f * (batch + 1);
+            stats.collect(values);
+        }
+        Assert.assertEquals(stats.max, 60f);
+        Assert.assertEquals(stats.threshold, 60f);
+
+        float threshold = MxQuantizer.getOptimalThreshold(stats.histogram, stats.threshold);
+        Assert.assertTrue(threshold > 2f && threshold < 10f, "threshold: " + threshold);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOptimalThresholdWithoutData() {
+        MxQuantizer.LayerStats stats = new MxQuantizer.LayerStats();
+        MxQuantizer.getOptimalThreshold(stats.histogram, stats.threshold);
+    }
+}
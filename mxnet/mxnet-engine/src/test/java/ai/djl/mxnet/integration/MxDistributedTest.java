@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.integration;
+
+import ai.djl.Model;
+import ai.djl.mxnet.engine.MxDistributedLauncher;
+import ai.djl.mxnet.engine.MxParameterServer;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.optimizer.Optimizer;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MxDistributedTest {
+
+    @Test
+    public void testDistSync() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        MxDistributedLauncher launcher = new MxDistributedLauncher(1, 1, port);
+        int exitCode = launcher.launch(Worker.class.getName(), Collections.emptyList());
+        Assert.assertEquals(exitCode, 0);
+    }
+
+    /** The worker process started by {@link #testDistSync()}. */
+    public static final class Worker {
+
+        private Worker() {}
+
+        public static void main(String[] args) {
+            boolean success;
+            try (Model model = Model.newInstance();
+                    MxParameterServer ps =
+                            new MxParameterServer(new SubtractOptimizer(), "dist_sync")) {
+                NDManager manager = model.getNDManager();
+                NDArray weight = manager.ones(new Shape(2, 2));
+                NDArray grad = manager.ones(new Shape(2, 2)).mul(2);
+                ps.init("weight", new NDArray[] {weight});
+                ps.push("weight", new NDArray[] {grad}, 0);
+                ps.pull("weight", new NDArray[] {weight}, 0);
+
+                float[] expected = new float[4];
+                Arrays.fill(expected, -1f);
+                success =
+                        ps.getRank() == 0
+                                && ps.getNumWorkers() == 1
+                                && Arrays.equals(weight.toFloatArray(), expected);
+            }
+            System.exit(success ? 0 : 1); // NOPMD
+        }
+    }
+
+    /** Subtracts the gradient summed over all workers from the weight. */
+    private static final class SubtractOptimizer extends Optimizer {
+
+        SubtractOptimizer() {
+            super(new Builder());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void update(String parameterId, NDArray weight, NDArray grad) {
+            weight.subi(grad);
+        }
+
+        private static final class Builder extends OptimizerBuilder<Builder> {
+
+            /** {@inheritDoc} */
+            @Override
+            protected Builder self() {
+                return this;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.jna;
+
+// CHECKSTYLE:OFF:AvoidStaticImport
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import ai.djl.Device;
+import ai.djl.mxnet.engine.MxNDManager;
+import ai.djl.mxnet.test.MockMxnetLibrary;
+import ai.djl.mxnet.test.TestHelper;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.util.PairList;
+import com.sun.jna.ptr.PointerByReference;
+import java.nio.IntBuffer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.IObjectFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+
+// CHECKSTYLE:ON:AvoidStaticImport
+
+@PrepareForTest(LibUtils.class)
+public class OutputMetadataCacheTest extends PowerMockTestCase {
+
+    private MockMxnetLibrary library;
+
+    @BeforeClass
+    public void prepare() {
+        mockStatic(LibUtils.class);
+        library = new MockMxnetLibrary();
+        PowerMockito.when(LibUtils.loadLibrary()).thenReturn(library);
+        // the default mock returns sparse outputs, which are never cached
+        library.setFunction(
+                "MXImperativeInvokeEx",
+                objects -> {
+                    ((IntBuffer) objects[3]).put(0, 1);
+                    ((PointerByReference) objects[4])
+                            .setValue(new PointerArray(TestHelper.toPointer("test")));
+                    ((PointerByReference) objects[8]).setValue(TestHelper.toPointer(new int[1]));
+                    return 0;
+                });
+    }
+
+    @AfterClass
+    public void postProcessing() {
+        library.resetFunctions();
+    }
+
+    @Test
+    public void testCacheHit() {
+        PreparedOp op = prepare("_npi_add");
+        try (MxNDManager manager = MxNDManager.getSystemManager().newSubManager()) {
+            Assert.assertTrue(queries(manager, op, new Shape(2, 3)) > 0);
+            // the second call with the same input layout does not query the outputs
+            Assert.assertEquals(queries(manager, op, new Shape(2, 3)), 0);
+        }
+    }
+
+    @Test
+    public void testShapeChange() {
+        PreparedOp op = prepare("_npi_add");
+        try (MxNDManager manager = MxNDManager.getSystemManager().newSubManager()) {
+            queries(manager, op, new Shape(2, 3));
+            Assert.assertTrue(queries(manager, op, new Shape(4, 3)) > 0);
+            Assert.assertEquals(queries(manager, op, new Shape(4, 3)), 0);
+            Assert.assertEquals(queries(manager, op, new Shape(2, 3)), 0);
+        }
+    }
+
+    @Test
+    public void testDynamicShape() {
+        FunctionInfo function =
+                new FunctionInfo(new PointerArray(), "_npi_boolean_mask", new PairList<>());
+        Assert.assertTrue(function.hasDynamicShape());
+        PreparedOp op = function.prepare(null);
+        try (MxNDManager manager = MxNDManager.getSystemManager().newSubManager()) {
+            // the output shape depends on the input values, so every call queries it
+            Assert.assertTrue(queries(manager, op, new Shape(2, 3)) > 0);
+            Assert.assertTrue(queries(manager, op, new Shape(2, 3)) > 0);
+        }
+    }
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+
+    private static PreparedOp prepare(String name) {
+        FunctionInfo function = new FunctionInfo(new PointerArray(), name, new PairList<>());
+        Assert.assertFalse(function.hasDynamicShape());
+        return function.prepare(null);
+    }
+
+    private static long queries(MxNDManager manager, PreparedOp op, Shape shape) {
+        NDArray input = manager.create(new PointerArray(), Device.cpu(), shape, DataType.FLOAT32);
+        long before = JnaUtils.getMetadataQueryCount();
+        NDArray output = op.invoke(manager, new NDArray[] {input})[0];
+        output.getShape();
+        output.getDataType();
+        output.getDevice();
+        return JnaUtils.getMetadataQueryCount() - before;
+    }
+}
@@ -1127,8 +1127,8 @@ public class MockMxnetLibrary implements MxnetLibrary {
             IntBuffer num_outputs,
             PointerByReference outputs,
             int num_params,
-            String[] param_keys,
-            String[] param_vals,
+            Pointer param_keys,
+            Pointer param_vals,
             PointerByReference out_stypes) {
         if (functions.containsKey("MXImperativeInvokeEx")) {
             return functions
@@ -1552,8 +1552,7 @@ public class MockMxnetLibrary implements MxnetLibrary {
 
     /** {@inheritDoc} */
     @Override
-    public int MXSymbolCreateGroup(
-            int num_symbols, PointerByReference symbols, PointerByReference out) {
+    public int MXSymbolCreateGroup(int num_symbols, PointerArray symbols, PointerByReference out) {
         if (functions.containsKey("MXSymbolCreateGroup")) {
             return functions
                     .get("MXSymbolCreateGroup")
@@ -28,6 +28,7 @@ import ai.djl.pytorch.jni.NativeResource;
 import ai.djl.pytorch.jni.Pointer;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.function.Predicate;
 
@@ -46,6 +47,7 @@ public class PtNDArray extends NativeResource implements NDArray {
     private SparseFormat sparseFormat;
     private PtNDManager manager;
     private PtNDArrayEx ptNDArrayEx;
+    private ByteBuffer dataRef;
 
     /**
      * Constructs an PtTorch from a native handle and metadata (internal. Use {@link NDManager}
@@ -66,6 +68,7 @@ public class PtNDArray extends NativeResource implements NDArray {
         }
         this.shape = shape;
         this.dataType = dataType;
+        trackSize(device.toString(), shape.size() * dataType.getNumOfBytes());
     }
 
     /**
@@ -78,6 +81,24 @@ public class PtNDArray extends NativeResource implements NDArray {
         super(handle);
         this.manager = manager;
         this.ptNDArrayEx = new PtNDArrayEx(this);
+        registerCleaner(JniUtils::deleteNdArray);
+        setOwner(manager);
+    }
+
+    /**
+     * Constructs an PyTorch tensor that uses the memory of a direct buffer (internal. Use {@link
+     * NDManager} instead).
+     *
+     * <p>The buffer is referenced for as long as this array is reachable, so that its memory is not
+     * freed while the native tensor still points to it.
+     *
+     * @param manager the manager to attach the new array to
+     * @param handle the pointer to the native PyTorch memory
+     * @param data the direct buffer backing the native tensor
+     */
+    public PtNDArray(PtNDManager manager, Pointer handle, ByteBuffer data) {
+        this(manager, handle);
+        this.dataRef = data;
     }
 
     /** {@inheritDoc} */
@@ -165,6 +186,10 @@ public class PtNDArray extends NativeResource implements NDArray {
     /** {@inheritDoc} */
     @Override
     public ByteBuffer toByteBuffer() {
+        if (dataRef != null) {
+            // the tensor is a view over this buffer
+            return dataRef.duplicate().order(ByteOrder.nativeOrder());
+        }
         return JniUtils.getByteBuffer(this);
     }
 
@@ -1101,6 +1126,7 @@ public class PtNDArray extends NativeResource implements NDArray {
         Pointer pointer = handle.getAndSet(null);
         if (pointer != null) {
             JniUtils.deleteNdArray(pointer);
+            unregisterCleaner();
             manager.detach(getUid());
             manager = null;
         }
@@ -92,6 +92,24 @@ public class PtNDManager extends BaseNDManager {
                 this, buf, shape, dataType, SparseFormat.DENSE, device);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public PtNDArray wrap(ByteBuffer data, Shape shape, DataType dataType) {
+        long expected = shape.size() * dataType.getNumOfBytes();
+        if (data.remaining() != expected) {
+            throw new IllegalArgumentException(
+                    "Expected " + expected + " bytes, but buffer has " + data.remaining());
+        }
+        if (!data.isDirect() || data.isReadOnly() || !Device.cpu().equals(device)) {
+            // torch::from_blob needs writable host memory with a stable address
+            ByteBuffer bb = data.slice().order(ByteOrder.nativeOrder());
+            return create(dataType.asDataType(bb), shape, dataType);
+        }
+        // slice() so that the native address starts at the current position
+        return JniUtils.createNdFromByteBuffer(
+                this, data.slice(), shape, dataType, SparseFormat.DENSE, device);
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray createCSR(
@@ -233,8 +251,14 @@ public class PtNDManager extends BaseNDManager {
         @Override
         public void detach(String resourceId) {}
 
-        /** {@inheritDoc} */
+        /**
+         * {@inheritDoc}
+         *
+         * <p>The system manager stays usable, only the idle pooled buffers are dropped.
+         */
         @Override
-        public void close() {}
+        public void close() {
+            bufferPool.clear();
+        }
     }
 }
@@ -54,7 +54,9 @@ public class PtSymbolBlock extends NativeResource implements SymbolBlock {
      */
     public PtSymbolBlock(PtNDManager manager, Pointer handle) {
         super(handle);
+        registerCleaner(JniUtils::deleteModule);
         this.manager = manager;
+        setOwner(manager);
         // Set for inference mode by default
         JniUtils.enableInferenceMode(this);
     }
@@ -64,7 +66,8 @@ public class PtSymbolBlock extends NativeResource implements SymbolBlock {
         Pointer pointer = handle.getAndSet(null);
         if (pointer != null) {
             manager.detach(getUid());
-            JniUtils.deleteModule(this);
+            JniUtils.deleteModule(pointer);
+            unregisterCleaner();
             manager = null;
         }
     }
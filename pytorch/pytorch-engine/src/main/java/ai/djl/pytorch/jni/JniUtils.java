@@ -63,7 +63,8 @@ public final class JniUtils {
                         dType.ordinal(),
                         layoutVal,
                         new int[] {PtDeviceType.toDeviceType(device), device.getDeviceId()},
-                        false));
+                        false),
+                data);
     }
 
     public static PtNDArray createEmptyNdArray(
@@ -481,8 +482,8 @@ public final class JniUtils {
         PyTorchLibrary.LIB.torchDeleteTensor(handle);
     }
 
-    public static void deleteModule(PtSymbolBlock block) {
-        PyTorchLibrary.LIB.torchDeleteModule(block.getHandle());
+    public static void deleteModule(Pointer handle) {
+        PyTorchLibrary.LIB.torchDeleteModule(handle);
     }
 
     public static PtSymbolBlock loadModule(PtNDManager manager, Path path) {
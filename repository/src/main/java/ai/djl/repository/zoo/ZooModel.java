@@ -13,6 +13,7 @@
 package ai.djl.repository.zoo;
 
 import ai.djl.Model;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.inference.Predictor;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
@@ -94,6 +95,18 @@ public class ZooModel<I, O> implements Model {
         model.setProperty(key, value);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ExecutionProfile getExecutionProfile() {
+        return model.getExecutionProfile();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutionProfile(ExecutionProfile profile) {
+        model.setExecutionProfile(profile);
+    }
+
     /** {@inheritDoc} */
     @Override
     public Trainer newTrainer(TrainingConfig trainingConfig) {
@@ -14,6 +14,7 @@ package ai.djl.tensorflow.engine;
 
 import ai.djl.MalformedModelException;
 import ai.djl.Model;
+import ai.djl.engine.ExecutionProfile;
 import ai.djl.inference.Predictor;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
@@ -45,6 +46,7 @@ public class TfModel implements Model {
     private Path modelDir;
     private SavedModelBundle bundle;
     private AtomicBoolean first = new AtomicBoolean(true);
+    private ExecutionProfile executionProfile;
 
     private PairList<String, Shape> constructDataDescFromModel(Map<String, TensorInfo> info) {
         PairList<String, Shape> descs = new PairList<>();
@@ -140,6 +142,18 @@ public class TfModel implements Model {
     @Override
     public void setProperty(String key, String value) {}
 
+    /** {@inheritDoc} */
+    @Override
+    public ExecutionProfile getExecutionProfile() {
+        return executionProfile;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutionProfile(ExecutionProfile profile) {
+        this.executionProfile = profile;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Trainer newTrainer(TrainingConfig trainingConfig) {